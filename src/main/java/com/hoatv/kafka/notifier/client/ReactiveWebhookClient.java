@@ -0,0 +1,115 @@
+package com.hoatv.kafka.notifier.client;
+
+import io.netty.channel.ChannelOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking client posting JSON payloads to webhooks over a pool of keep-alive connections.
+ * <p>
+ * Connections are pooled per host: at most {@code notifier.slack.reactive.max-connections-per-host}
+ * requests to a host are in flight at once, the next ones waiting in that host's queue of
+ * {@code notifier.slack.reactive.max-pending-per-host} requests for up to
+ * {@code notifier.slack.reactive.pending-timeout-millis}, so a few event-loop threads
+ * carry thousands of outstanding webhooks without a thread per call. Every request is bounded
+ * by the connect and read timeouts and completes through the returned future.
+ * Disabled by default, webhooks being posted with the blocking {@code RestTemplate} then.
+ */
+@Component
+public class ReactiveWebhookClient {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReactiveWebhookClient.class);
+
+    private final WebClient.Builder webClientBuilder;
+    private ConnectionProvider connectionProvider;
+    private WebClient webClient;
+
+    @Value("${notifier.slack.reactive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${notifier.slack.reactive.max-connections-per-host:100}")
+    private int maxConnectionsPerHost;
+
+    @Value("${notifier.slack.reactive.max-pending-per-host:10000}")
+    private int maxPendingPerHost;
+
+    @Value("${notifier.slack.reactive.pending-timeout-millis:10000}")
+    private long pendingTimeoutMillis;
+
+    @Value("${notifier.slack.reactive.connect-timeout-millis:2000}")
+    private int connectTimeoutMillis;
+
+    @Value("${notifier.slack.reactive.read-timeout-millis:5000}")
+    private long readTimeoutMillis;
+
+    @Value("${notifier.slack.reactive.max-idle-seconds:30}")
+    private long maxIdleSeconds;
+
+    public ReactiveWebhookClient(WebClient.Builder webClientBuilder) {
+        this.webClientBuilder = webClientBuilder;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        connectionProvider = ConnectionProvider.builder("webhooks")
+                .maxConnections(maxConnectionsPerHost)
+                .pendingAcquireMaxCount(maxPendingPerHost)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingTimeoutMillis))
+                .maxIdleTime(Duration.ofSeconds(maxIdleSeconds))
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .keepAlive(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis)
+                .responseTimeout(Duration.ofMillis(readTimeoutMillis));
+        webClient = webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+        LOGGER.info("Posting webhooks without blocking, at most {} connection(s) per host", maxConnectionsPerHost);
+    }
+
+    public boolean isEnabled() {
+        return webClient != null;
+    }
+
+    /**
+     * Post a payload as JSON, completing the future once the webhook answered with a success
+     * status and failing it on any error status, timeout or full host queue
+     */
+    public CompletableFuture<Void> post(String url, Object payload) {
+        return webClient.post()
+                .uri(URI.create(url))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(payload)
+                .retrieve()
+                .toBodilessEntity()
+                .then()
+                .toFuture();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (connectionProvider != null) {
+            connectionProvider.disposeLater().block(Duration.ofMillis(readTimeoutMillis));
+            connectionProvider = null;
+            webClient = null;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.hoatv.kafka.notifier.client;
+
+import com.hoatv.kafka.notifier.dto.SlackMessage;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Messages bound for one webhook during a grouping window, merged into a single message
+ * listing how many were received and the most frequent texts.
+ * <p>
+ * Identical texts are counted together; at most {@value #MAXIMUM_DISTINCT_TEXTS} distinct
+ * texts are tracked, later ones only adding to the total. Instances are not thread-safe.
+ */
+final class SlackMessageGroup {
+
+    static final int MAXIMUM_DISTINCT_TEXTS = 1000;
+
+    private final SlackMessage first;
+    private final Map<String, Integer> counts = new LinkedHashMap<>();
+    private int total;
+
+    SlackMessageGroup(SlackMessage first) {
+        this.first = first;
+        add(first);
+    }
+
+    void add(SlackMessage message) {
+        total++;
+        if (counts.containsKey(message.getText()) || counts.size() < MAXIMUM_DISTINCT_TEXTS) {
+            counts.merge(message.getText(), 1, Integer::sum);
+        }
+    }
+
+    int size() {
+        return total;
+    }
+
+    /**
+     * Merge the messages, sending a lone message unchanged
+     *
+     * @param topTexts     number of distinct texts to list, most frequent first
+     * @param windowMillis grouping window, mentioned in the summary line
+     */
+    SlackMessage merge(int topTexts, long windowMillis) {
+        if (total == 1) {
+            return first;
+        }
+
+        StringBuilder text = new StringBuilder()
+                .append('*').append(total).append(" notifications* in the last ")
+                .append(windowMillis % 1000 == 0 ? windowMillis / 1000 + "s" : windowMillis + "ms");
+        List<Map.Entry<String, Integer>> top = counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                .limit(topTexts)
+                .toList();
+        int listed = 0;
+        for (Map.Entry<String, Integer> entry : top) {
+            text.append("\n• ").append(entry.getKey());
+            if (entry.getValue() > 1) {
+                text.append(" (×").append(entry.getValue()).append(')');
+            }
+            listed += entry.getValue();
+        }
+        if (listed < total) {
+            text.append("\n_and ").append(total - listed).append(" more_");
+        }
+        return first.toBuilder().text(text.toString()).build();
+    }
+}
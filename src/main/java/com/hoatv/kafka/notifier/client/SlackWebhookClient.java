@@ -3,11 +3,31 @@ package com.hoatv.kafka.notifier.client;
 import com.hoatv.kafka.notifier.dto.SlackMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import jakarta.annotation.PreDestroy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Client for sending messages to Slack via webhook URLs
+ * <p>
+ * With {@code notifier.slack.grouping.window-millis}, messages are buffered per webhook from
+ * the first one for that long, then posted as a single message with their count and the
+ * {@code notifier.slack.grouping.top-messages} most frequent texts, so a burst of alerts costs
+ * one call per webhook and window. Grouping is off by default.
+ * <p>
+ * Messages are posted with the blocking {@code RestTemplate}, or without blocking the caller by
+ * the {@link ReactiveWebhookClient} when it is enabled, their outcome being logged on completion.
  */
 @Component
 public class SlackWebhookClient {
@@ -15,18 +35,103 @@ public class SlackWebhookClient {
     private static final Logger LOGGER = LoggerFactory.getLogger(SlackWebhookClient.class);
 
     private final RestTemplate restTemplate;
+    private final ReactiveWebhookClient reactiveClient;
+    private final Map<String, SlackMessageGroup> groups = new HashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    @Value("${notifier.slack.grouping.window-millis:0}")
+    private long groupingWindowMillis;
+
+    @Value("${notifier.slack.grouping.top-messages:5}")
+    private int groupingTopMessages;
 
     public SlackWebhookClient(RestTemplate restTemplate) {
+        this(restTemplate, null);
+    }
+
+    @Autowired
+    public SlackWebhookClient(RestTemplate restTemplate, ReactiveWebhookClient reactiveClient) {
         this.restTemplate = restTemplate;
+        this.reactiveClient = reactiveClient;
     }
 
     /**
-     * Send a message to Slack via webhook
+     * Send a message to Slack via webhook, or add it to the webhook's group when grouping is enabled
      *
      * @param webhookUrl The Slack webhook URL
      * @param message    The message to send
      */
     public void sendMessage(String webhookUrl, SlackMessage message) {
+        if (groupingWindowMillis <= 0) {
+            post(webhookUrl, message);
+            return;
+        }
+
+        synchronized (groups) {
+            SlackMessageGroup group = groups.get(webhookUrl);
+            if (group != null) {
+                group.add(message);
+                return;
+            }
+            groups.put(webhookUrl, new SlackMessageGroup(message));
+            scheduler().schedule(() -> flush(webhookUrl), groupingWindowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Post the grouped messages of a webhook
+     */
+    void flush(String webhookUrl) {
+        SlackMessageGroup group;
+        synchronized (groups) {
+            group = groups.remove(webhookUrl);
+        }
+        if (group != null) {
+            LOGGER.debug("Sending {} grouped Slack notification(s) to: {}", group.size(), webhookUrl);
+            post(webhookUrl, group.merge(groupingTopMessages, groupingWindowMillis));
+        }
+    }
+
+    /**
+     * Post every group without waiting for the end of its window
+     */
+    @PreDestroy
+    public void flushAll() {
+        List<String> webhookUrls;
+        synchronized (groups) {
+            webhookUrls = new ArrayList<>(groups.keySet());
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+                scheduler = null;
+            }
+        }
+        webhookUrls.forEach(this::flush);
+    }
+
+    private ScheduledExecutorService scheduler() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "slack-grouping");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return scheduler;
+    }
+
+    private void post(String webhookUrl, SlackMessage message) {
+        if (reactiveClient != null && reactiveClient.isEnabled()) {
+            LOGGER.info("Sending Slack notification to: {}", webhookUrl);
+            reactiveClient.post(webhookUrl, message).whenComplete((result, e) -> {
+                if (e != null) {
+                    LOGGER.error("Failed to send Slack notification to {}: {}", webhookUrl, e.getMessage());
+                } else {
+                    LOGGER.info("Slack notification sent successfully");
+                }
+            });
+            return;
+        }
+
         try {
             LOGGER.info("Sending Slack notification to: {}", webhookUrl);
             restTemplate.postForObject(webhookUrl, message, String.class);
@@ -1,7 +1,10 @@
 package com.hoatv.kafka.notifier.config;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -14,6 +17,8 @@ import java.util.Map;
 @Configuration
 public class DynamicKafkaConfig {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(DynamicKafkaConfig.class);
+
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
@@ -26,20 +31,38 @@ public class DynamicKafkaConfig {
     @Value("${spring.kafka.consumer.key-deserializer:org.apache.kafka.common.serialization.StringDeserializer}")
     private String keyDeserializer;
 
-    @Value("${spring.kafka.consumer.value-deserializer:org.apache.kafka.common.serialization.StringDeserializer}")
+    @Value("${spring.kafka.consumer.value-deserializer:}")
     private String valueDeserializer;
 
+    /**
+     * Record values are consumed as raw bytes so they can be prefiltered before being decoded as UTF-8 text.
+     * A configured value deserializer other than the string one cannot be honoured and fails the startup.
+     */
     @Bean
-    public ConsumerFactory<String, String> dynamicConsumerFactory() {
+    public ConsumerFactory<String, byte[]> dynamicConsumerFactory() {
+        checkValueDeserializer();
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, autoOffsetReset);
         configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, keyDeserializer);
-        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, valueDeserializer);
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
         configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true);
         configProps.put(ConsumerConfig.AUTO_COMMIT_INTERVAL_MS_CONFIG, 1000);
 
         return new DefaultKafkaConsumerFactory<>(configProps);
     }
+
+    private void checkValueDeserializer() {
+        if (valueDeserializer.isBlank() || valueDeserializer.equals(ByteArrayDeserializer.class.getName())) {
+            return;
+        }
+        if (!valueDeserializer.equals(StringDeserializer.class.getName())) {
+            throw new IllegalStateException(String.format(
+                    "Unsupported spring.kafka.consumer.value-deserializer '%s': notifier topics are consumed as raw bytes "
+                            + "decoded as UTF-8 text", valueDeserializer));
+        }
+        LOGGER.warn("Ignoring spring.kafka.consumer.value-deserializer '{}': record values are consumed as raw bytes "
+                + "and decoded as UTF-8 text after prefiltering", valueDeserializer);
+    }
 }
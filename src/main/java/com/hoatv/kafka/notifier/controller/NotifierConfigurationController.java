@@ -2,6 +2,8 @@ package com.hoatv.kafka.notifier.controller;
 
 import com.hoatv.kafka.notifier.dto.NotifierConfigurationRequest;
 import com.hoatv.kafka.notifier.dto.NotifierConfigurationResponse;
+import com.hoatv.kafka.notifier.rule.InvalidRulesException;
+import com.hoatv.kafka.notifier.rule.RuleExpressionException;
 
 import com.hoatv.kafka.notifier.service.NotifierConfigurationService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -17,6 +19,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -142,4 +145,10 @@ public class NotifierConfigurationController {
         service.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    @ExceptionHandler({RuleExpressionException.class, InvalidRulesException.class})
+    public ProblemDetail handleInvalidRules(IllegalArgumentException e) {
+        LOGGER.warn("Rejected notifier configuration: {}", e.getMessage());
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
 }
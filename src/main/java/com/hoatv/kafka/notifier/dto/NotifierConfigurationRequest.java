@@ -8,6 +8,8 @@ import lombok.Builder;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import jakarta.validation.Valid;
 
 import java.util.List;
@@ -25,9 +27,11 @@ public class NotifierConfigurationRequest {
     @NotBlank(message = "Topic is required")
     private String topic;
 
-    @NotNull(message = "Rules are required")
+    // Either rules or expression is required, expressions are parsed when the configuration is saved
     private Map<String, Object> rules;
 
+    private String expression;
+
     @NotNull(message = "Actions are required")
     @Valid
     private List<NotificationAction> actions;
@@ -41,4 +45,28 @@ public class NotifierConfigurationRequest {
     private Long throttlePeriodMinutes; // null = use default from resilience4j.yml
 
     private Integer throttlePermitsPerPeriod; // null = use default from resilience4j.yml
+
+    // Alerting (optional - either one notifies once when firing and once when resolved, not on every match)
+    private String alertFingerprint; // field whose value identifies an alert, null = one alert per configuration
+
+    @PositiveOrZero(message = "Alert duration must not be negative")
+    private Integer alertForSeconds; // how long the rules must keep matching before firing, null = fire on first match
+
+    // Duplicate suppression (optional - repeats of the same field values within the TTL are not notified)
+    private List<String> dedupFields; // fields identifying an incident, null = no suppression
+
+    @Positive(message = "Duplicate suppression TTL must be positive")
+    private Long dedupTtlSeconds; // null = use notifier.dedup.default-ttl-seconds
+
+    // Consumer tuning (optional - the largest value among the configurations of a topic applies to its consumer)
+    @Positive(message = "Max poll records must be positive")
+    private Integer maxPollRecords;
+
+    @Positive(message = "Fetch min bytes must be positive")
+    private Integer fetchMinBytes;
+
+    @Positive(message = "Max partition fetch bytes must be positive")
+    private Integer maxPartitionFetchBytes;
+
+    private boolean generateBytecode;
 }
@@ -20,8 +20,11 @@ public class NotifierConfigurationResponse {
     private String notifier;
     private String topic;
     private Map<String, Object> rules;
+    private String expression;
+    private Long version;
     private List<NotificationAction> actions;
     private boolean enabled;
+    private boolean generateBytecode;
     private String description;
 
     // Throttling configuration (optional - falls back to resilience4j.yml defaults)
@@ -29,6 +32,23 @@ public class NotifierConfigurationResponse {
 
     private Integer throttlePermitsPerPeriod;
 
+    // Alerting configuration (optional)
+    private String alertFingerprint;
+
+    private Integer alertForSeconds;
+
+    // Duplicate suppression configuration (optional)
+    private List<String> dedupFields;
+
+    private Long dedupTtlSeconds;
+
+    // Consumer tuning configuration (optional)
+    private Integer maxPollRecords;
+
+    private Integer fetchMinBytes;
+
+    private Integer maxPartitionFetchBytes;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private String createdBy;
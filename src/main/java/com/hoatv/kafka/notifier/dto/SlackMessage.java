@@ -9,7 +9,7 @@ import lombok.NoArgsConstructor;
  * DTO representing a Slack message for webhook API
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class SlackMessage {
@@ -32,9 +32,14 @@ public class NotifierConfiguration {
     @NotBlank(message = "Topic is required")
     private String topic;
 
-    @NotNull(message = "Rules are required")
+    // Either a rule map or a rule expression such as "cpu > 80 && status in ('error', 'fatal')"
     private Map<String, Object> rules;
 
+    private String expression;
+
+    // Incremented on every update, compiled rules are cached per id and version
+    private Long version;
+
     @NotNull(message = "Actions are required")
     private List<NotificationAction> actions;
 
@@ -48,6 +53,26 @@ public class NotifierConfiguration {
 
     private Integer throttlePermitsPerPeriod; // null = use default from resilience4j.yml
 
+    // Alerting (optional - either one notifies once when firing and once when resolved, not on every match)
+    private String alertFingerprint; // field whose value identifies an alert, null = one alert per configuration
+
+    private Integer alertForSeconds; // how long the rules must keep matching before firing, null = fire on first match
+
+    // Duplicate suppression (optional - repeats of the same field values within the TTL are not notified)
+    private List<String> dedupFields; // fields identifying an incident, null = no suppression
+
+    private Long dedupTtlSeconds; // null = use notifier.dedup.default-ttl-seconds
+
+    // Consumer tuning (optional - the largest value among the configurations of a topic applies to its consumer)
+    private Integer maxPollRecords; // null = use the consumer factory's max.poll.records
+
+    private Integer fetchMinBytes; // null = use the consumer factory's fetch.min.bytes
+
+    private Integer maxPartitionFetchBytes; // null = use the consumer factory's max.partition.fetch.bytes
+
+    // Evaluate rules with a generated class instead of the interpreter from the first record
+    private boolean generateBytecode;
+
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
 
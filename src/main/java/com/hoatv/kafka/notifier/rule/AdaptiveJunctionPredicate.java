@@ -0,0 +1,171 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * {@code $and}/{@code $or} that learns the order in which to check its children.
+ * <p>
+ * One evaluation in {@value #SAMPLE_INTERVAL} checks every child, recording how often it holds
+ * and how long it takes. Every {@value #SAMPLES_PER_REORDER} samples the children are sorted
+ * so the cheapest, most decisive ones run first: by cost over failure rate for a conjunction,
+ * which then fails fast, and by cost over pass rate for a disjunction, which then succeeds fast.
+ * Older samples are halved at each reordering so the order follows drifting data.
+ * <p>
+ * Only children that cannot throw and keep no state are reordered, so the outcome never
+ * depends on the order; use {@link #wrap} to build adaptive evaluators from a compiled tree.
+ * Unlike other nodes this one is mutable, it is an evaluator and never part of the tree
+ * indexes analyse.
+ */
+public final class AdaptiveJunctionPredicate implements RulePredicate {
+
+    static final int SAMPLE_INTERVAL = 64;
+    static final int SAMPLES_PER_REORDER = 32;
+
+    private final List<RulePredicate> children;
+    private final boolean conjunction;
+    private final long[] passes;
+    private final long[] nanos;
+    private long samples;
+    private volatile RulePredicate[] order;
+
+    // Racy on purpose: a lost increment only shifts the next sample
+    private int evaluations;
+
+    private AdaptiveJunctionPredicate(List<RulePredicate> children, boolean conjunction) {
+        this.children = List.copyOf(children);
+        this.conjunction = conjunction;
+        this.passes = new long[children.size()];
+        this.nanos = new long[children.size()];
+        this.order = children.toArray(RulePredicate[]::new);
+    }
+
+    /**
+     * Build an evaluator of the tree whose reorderable {@code $and}/{@code $or} nodes adapt
+     * their order; the tree is returned as is when nothing can be reordered
+     */
+    public static RulePredicate wrap(RulePredicate predicate) {
+        if (predicate instanceof AndPredicate and) {
+            return wrapJunction(and, true);
+        } else if (predicate instanceof OrPredicate or) {
+            return wrapJunction(or, false);
+        } else if (predicate instanceof NotPredicate not) {
+            RulePredicate delegate = wrap(not.delegate());
+            return delegate == not.delegate() ? not : new NotPredicate(delegate);
+        }
+        return predicate;
+    }
+
+    private static RulePredicate wrapJunction(RulePredicate junction, boolean conjunction) {
+        List<RulePredicate> children = junction.children();
+        List<RulePredicate> wrapped = new ArrayList<>(children.size());
+        boolean changed = false;
+        boolean reorderable = children.size() > 1;
+        for (RulePredicate child : children) {
+            RulePredicate wrappedChild = wrap(child);
+            changed |= wrappedChild != child;
+            reorderable &= !child.canThrow() && !child.isStateful();
+            wrapped.add(wrappedChild);
+        }
+
+        if (reorderable) {
+            return new AdaptiveJunctionPredicate(wrapped, conjunction);
+        } else if (!changed) {
+            return junction;
+        }
+        return conjunction ? new AndPredicate(wrapped) : new OrPredicate(wrapped);
+    }
+
+    @Override
+    public boolean test(JsonNode message) {
+        if ((++evaluations & (SAMPLE_INTERVAL - 1)) == 0) {
+            return sample(message);
+        }
+
+        RulePredicate[] current = order;
+        for (RulePredicate child : current) {
+            if (child.test(message) != conjunction) {
+                return !conjunction;
+            }
+        }
+        return conjunction;
+    }
+
+    /**
+     * Check every child in declaration order, recording its outcome and cost
+     */
+    private boolean sample(JsonNode message) {
+        boolean[] results = new boolean[children.size()];
+        long[] costs = new long[children.size()];
+        boolean decisive = false;
+        for (int i = 0; i < children.size(); i++) {
+            long start = System.nanoTime();
+            results[i] = children.get(i).test(message);
+            costs[i] = System.nanoTime() - start;
+            decisive |= results[i] != conjunction;
+        }
+
+        synchronized (this) {
+            for (int i = 0; i < children.size(); i++) {
+                passes[i] += results[i] ? 1 : 0;
+                nanos[i] += costs[i];
+            }
+            if (++samples % SAMPLES_PER_REORDER == 0) {
+                reorder();
+            }
+        }
+        return decisive != conjunction;
+    }
+
+    private void reorder() {
+        double[] ranks = new double[children.size()];
+        for (int i = 0; i < children.size(); i++) {
+            double passRate = (double) passes[i] / samples;
+            double decisiveRate = conjunction ? 1 - passRate : passRate;
+            double cost = (double) nanos[i] / samples + 1;
+            ranks[i] = decisiveRate > 0 ? cost / decisiveRate : Double.POSITIVE_INFINITY;
+            passes[i] /= 2;
+            nanos[i] /= 2;
+        }
+        samples /= 2;
+
+        Integer[] positions = new Integer[children.size()];
+        Arrays.setAll(positions, i -> i);
+        Arrays.sort(positions, Comparator.comparingDouble(i -> ranks[i]));
+        RulePredicate[] reordered = new RulePredicate[children.size()];
+        for (int i = 0; i < positions.length; i++) {
+            reordered[i] = children.get(positions[i]);
+        }
+        order = reordered;
+    }
+
+    /**
+     * Children in the order they are currently checked
+     */
+    public List<RulePredicate> currentOrder() {
+        return List.of(order);
+    }
+
+    public boolean isConjunction() {
+        return conjunction;
+    }
+
+    @Override
+    public List<RulePredicate> children() {
+        return children;
+    }
+
+    @Override
+    public boolean canThrow() {
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return (conjunction ? "AdaptiveAnd" : "AdaptiveOr") + Arrays.toString(order);
+    }
+}
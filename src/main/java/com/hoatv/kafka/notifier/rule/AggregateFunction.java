@@ -0,0 +1,54 @@
+package com.hoatv.kafka.notifier.rule;
+
+/**
+ * Aggregates of the numeric samples in a time window supported by rules
+ */
+public enum AggregateFunction {
+
+    AVG("$avg") {
+        @Override
+        public double of(long count, double sum, double min, double max) {
+            return count == 0 ? Double.NaN : sum / count;
+        }
+    },
+    COUNT("$count") {
+        @Override
+        public double of(long count, double sum, double min, double max) {
+            return count;
+        }
+    },
+    MAX("$max") {
+        @Override
+        public double of(long count, double sum, double min, double max) {
+            return count == 0 ? Double.NaN : max;
+        }
+    },
+    MIN("$min") {
+        @Override
+        public double of(long count, double sum, double min, double max) {
+            return count == 0 ? Double.NaN : min;
+        }
+    },
+    SUM("$sum") {
+        @Override
+        public double of(long count, double sum, double min, double max) {
+            return sum;
+        }
+    };
+
+    private final String operator;
+
+    AggregateFunction(String operator) {
+        this.operator = operator;
+    }
+
+    /**
+     * Aggregate of the samples summarized by their count, sum, minimum and maximum,
+     * NaN when it is undefined for an empty window
+     */
+    public abstract double of(long count, double sum, double min, double max);
+
+    public String operator() {
+        return operator;
+    }
+}
@@ -0,0 +1,193 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Comparison of an aggregate over a time window, such as the average latency of the last
+ * minute, used for {@code $avg}, {@code $count}, {@code $max}, {@code $min} and {@code $sum}.
+ * <p>
+ * Each record reaching the node adds its field to the {@link SlidingWindow} of its group,
+ * keyed by the optional group-by field, then the aggregate of that window is compared with
+ * the threshold. {@code $count} counts the records having the field, or every record without
+ * one; the other aggregates only sample numeric fields and do not hold on an empty window.
+ * Groups whose samples all left the window are evicted, and at most
+ * {@value #MAXIMUM_GROUPS} groups are kept, least recently used first out.
+ * <p>
+ * Unlike other nodes this one keeps state across records: whether and in which order it is
+ * reached changes later outcomes, so it compares by identity, is never shared, reordered or
+ * skipped by indexes, and a rule containing it is {@link RulePredicate#isStateful() stateful}.
+ */
+public final class AggregatePredicate implements RulePredicate {
+
+    static final int MAXIMUM_GROUPS = 10_000;
+
+    private final AggregateFunction function;
+    private final FieldPath path;
+    private final long windowMillis;
+    private final FieldPath groupBy;
+    private final ComparisonOperator operator;
+    private final double threshold;
+    private final LongSupplier clock;
+    private final Map<String, SlidingWindow> windows = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SlidingWindow> eldest) {
+            return size() > MAXIMUM_GROUPS;
+        }
+    };
+
+    /**
+     * @param path    field to aggregate, null for {@code $count} of every record
+     * @param groupBy field whose value keys a separate window, null for a single window
+     */
+    public AggregatePredicate(AggregateFunction function, FieldPath path, long windowMillis, FieldPath groupBy,
+                              ComparisonOperator operator, double threshold) {
+        this(function, path, windowMillis, groupBy, operator, threshold, System::currentTimeMillis);
+    }
+
+    AggregatePredicate(AggregateFunction function, FieldPath path, long windowMillis, FieldPath groupBy,
+                       ComparisonOperator operator, double threshold, LongSupplier clock) {
+        this.function = function;
+        this.path = path;
+        this.windowMillis = windowMillis;
+        this.groupBy = groupBy;
+        this.operator = operator;
+        this.threshold = threshold;
+        this.clock = clock;
+    }
+
+    /**
+     * Parse a window length: a number of seconds, or a text such as {@code 500ms}, {@code 30s},
+     * {@code 5m} or {@code 1h}
+     *
+     * @throws IllegalArgumentException when the window is malformed or not positive
+     */
+    public static long windowMillis(Object window) {
+        if (window instanceof Number seconds) {
+            return positive(Math.round(seconds.doubleValue() * 1000), window);
+        }
+        String text = String.valueOf(window).trim();
+        int digits = 0;
+        while (digits < text.length() && Character.isDigit(text.charAt(digits))) {
+            digits++;
+        }
+        if (digits == 0 || digits > 12) {
+            throw new IllegalArgumentException("Invalid window: " + window);
+        }
+        long amount = Long.parseLong(text.substring(0, digits));
+        long unit = switch (text.substring(digits)) {
+            case "ms" -> 1L;
+            case "", "s" -> 1000L;
+            case "m" -> 60_000L;
+            case "h" -> 3_600_000L;
+            default -> throw new IllegalArgumentException("Invalid window: " + window);
+        };
+        return positive(amount * unit, window);
+    }
+
+    private static long positive(long millis, Object window) {
+        if (millis <= 0) {
+            throw new IllegalArgumentException("Invalid window: " + window);
+        }
+        return millis;
+    }
+
+    @Override
+    public boolean test(JsonNode message) {
+        JsonNode fieldNode = path != null ? path.resolve(message) : null;
+        boolean sampled = function == AggregateFunction.COUNT
+                ? path == null || fieldNode != null && !fieldNode.isNull()
+                : fieldNode != null && fieldNode.isNumber();
+        String group = group(message);
+        long now = clock.getAsLong();
+
+        double aggregate;
+        synchronized (windows) {
+            evictIdle(now);
+            SlidingWindow window = sampled ? windows.computeIfAbsent(group, key -> new SlidingWindow(windowMillis))
+                    : windows.get(group);
+            if (sampled) {
+                window.add(now, function == AggregateFunction.COUNT ? 1 : fieldNode.asDouble());
+            }
+            aggregate = window != null ? window.aggregate(function, now)
+                    : function.of(0, 0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY);
+        }
+        return !Double.isNaN(aggregate) && operator.test(aggregate, threshold);
+    }
+
+    private String group(JsonNode message) {
+        if (groupBy == null) {
+            return "";
+        }
+        JsonNode groupNode = groupBy.resolve(message);
+        if (groupNode == null) {
+            return "";
+        }
+        return groupNode.isValueNode() ? groupNode.asText() : groupNode.toString();
+    }
+
+    /**
+     * Drop the least recently used groups whose samples all left the window
+     */
+    private void evictIdle(long now) {
+        Iterator<SlidingWindow> iterator = windows.values().iterator();
+        while (iterator.hasNext() && iterator.next().isIdle(now)) {
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Number of groups currently holding a window
+     */
+    public int groupCount() {
+        synchronized (windows) {
+            return windows.size();
+        }
+    }
+
+    public AggregateFunction function() {
+        return function;
+    }
+
+    @Override
+    public FieldPath path() {
+        return path;
+    }
+
+    public long windowMillis() {
+        return windowMillis;
+    }
+
+    public FieldPath groupBy() {
+        return groupBy;
+    }
+
+    public ComparisonOperator operator() {
+        return operator;
+    }
+
+    public double threshold() {
+        return threshold;
+    }
+
+    @Override
+    public boolean canThrow() {
+        return false;
+    }
+
+    @Override
+    public boolean isStateful() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "AggregatePredicate[" + function.operator() + "(" + (path != null ? path : "*") + ", "
+                + windowMillis + "ms" + (groupBy != null ? " by " + groupBy : "") + ") "
+                + operator.operator() + " " + threshold + "]";
+    }
+}
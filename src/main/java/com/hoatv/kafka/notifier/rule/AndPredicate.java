@@ -0,0 +1,35 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * Conjunction of child conditions, evaluated in order and failing fast
+ */
+public record AndPredicate(List<RulePredicate> children) implements RulePredicate {
+
+    public AndPredicate {
+        children = List.copyOf(children);
+    }
+
+    @Override
+    public boolean test(JsonNode message) {
+        for (int i = 0; i < children.size(); i++) {
+            if (!children.get(i).test(message)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean canThrow() {
+        for (int i = 0; i < children.size(); i++) {
+            if (children.get(i).canThrow()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
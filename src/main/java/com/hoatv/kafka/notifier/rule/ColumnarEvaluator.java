@@ -0,0 +1,192 @@
+package com.hoatv.kafka.notifier.rule;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Evaluates compiled rule trees over a whole {@link RecordBatch} at once.
+ * <p>
+ * Each node is applied to the rows still undecided, one column at a time: comparisons
+ * run over the {@code double[]} column, equality compares dictionary codes, and
+ * {@code $contains} tests each distinct text once. {@code $and}/{@code $or} narrow the
+ * rows passed to later children exactly as short-circuiting does record by record, and
+ * rows whose evaluation would throw are tracked separately, so every record gets the
+ * outcome the per-record evaluation gives it. Nodes without a columnar form are evaluated
+ * row by row.
+ */
+public final class ColumnarEvaluator {
+
+    /**
+     * Rows of the batch matching the rule; rows whose evaluation fails do not match
+     */
+    public BitSet evaluate(RulePredicate predicate, RecordBatch batch) {
+        BitSet rows = new BitSet(batch.size());
+        rows.set(0, batch.size());
+        return evaluate(predicate, batch, rows, new BitSet());
+    }
+
+    /**
+     * Rows among the given ones for which the node holds; rows for which it throws are
+     * added to failed instead
+     */
+    private BitSet evaluate(RulePredicate predicate, RecordBatch batch, BitSet rows, BitSet failed) {
+        if (rows.isEmpty()) {
+            return new BitSet();
+        }
+
+        if (predicate instanceof AndPredicate and) {
+            return evaluateAnd(and.children(), batch, rows, failed);
+        } else if (predicate instanceof OrPredicate or) {
+            return evaluateOr(or.children(), batch, rows, failed);
+        } else if (predicate instanceof NotPredicate not) {
+            BitSet delegateFailed = new BitSet();
+            BitSet result = (BitSet) rows.clone();
+            result.andNot(evaluate(not.delegate(), batch, rows, delegateFailed));
+            result.andNot(delegateFailed);
+            failed.or(delegateFailed);
+            return result;
+        } else if (predicate instanceof ConstantPredicate constant) {
+            return constant == ConstantPredicate.TRUE ? (BitSet) rows.clone() : new BitSet();
+        } else if (predicate instanceof ComparisonPredicate comparison) {
+            return evaluateComparison(comparison, batch, rows);
+        } else if (predicate instanceof MalformedComparisonPredicate malformed) {
+            BitSet numeric = (BitSet) batch.column(malformed.path()).numeric.clone();
+            numeric.and(rows);
+            failed.or(numeric);
+            return new BitSet();
+        } else if (predicate instanceof EqualsPredicate equals) {
+            return evaluateIn(equals.path(), List.of(equals.value()), batch, rows, failed);
+        } else if (predicate instanceof InPredicate in) {
+            return evaluateIn(in.path(), in.values(), batch, rows, failed);
+        } else if (predicate instanceof ContainsPredicate contains) {
+            return evaluateContains(contains, batch, rows);
+        }
+        return evaluateRows(predicate, batch, rows, failed);
+    }
+
+    private BitSet evaluateAnd(List<RulePredicate> children, RecordBatch batch, BitSet rows, BitSet failed) {
+        BitSet remaining = rows;
+        for (RulePredicate child : children) {
+            remaining = evaluate(child, batch, remaining, failed);
+        }
+        return remaining == rows ? (BitSet) rows.clone() : remaining;
+    }
+
+    private BitSet evaluateOr(List<RulePredicate> children, RecordBatch batch, BitSet rows, BitSet failed) {
+        BitSet remaining = (BitSet) rows.clone();
+        BitSet result = new BitSet();
+        for (RulePredicate child : children) {
+            BitSet childFailed = new BitSet();
+            BitSet passed = evaluate(child, batch, remaining, childFailed);
+            result.or(passed);
+            failed.or(childFailed);
+            remaining.andNot(passed);
+            remaining.andNot(childFailed);
+        }
+        return result;
+    }
+
+    private BitSet evaluateComparison(ComparisonPredicate comparison, RecordBatch batch, BitSet rows) {
+        RecordBatch.Column column = batch.column(comparison.path());
+        double[] numbers = column.numbers;
+        double threshold = comparison.threshold();
+        BitSet candidates = (BitSet) column.numeric.clone();
+        candidates.and(rows);
+
+        BitSet result = new BitSet();
+        switch (comparison.operator()) {
+            case GT -> {
+                for (int row = candidates.nextSetBit(0); row >= 0; row = candidates.nextSetBit(row + 1)) {
+                    if (numbers[row] > threshold) result.set(row);
+                }
+            }
+            case GTE -> {
+                for (int row = candidates.nextSetBit(0); row >= 0; row = candidates.nextSetBit(row + 1)) {
+                    if (numbers[row] >= threshold) result.set(row);
+                }
+            }
+            case LT -> {
+                for (int row = candidates.nextSetBit(0); row >= 0; row = candidates.nextSetBit(row + 1)) {
+                    if (numbers[row] < threshold) result.set(row);
+                }
+            }
+            case LTE -> {
+                for (int row = candidates.nextSetBit(0); row >= 0; row = candidates.nextSetBit(row + 1)) {
+                    if (numbers[row] <= threshold) result.set(row);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Membership checked constant by constant, as {@link InPredicate} does, so a null
+     * constant only fails the rows that reach it
+     */
+    private BitSet evaluateIn(FieldPath path, List<RuleConstant> values, RecordBatch batch, BitSet rows, BitSet failed) {
+        RecordBatch.Column column = batch.column(path);
+        BitSet remaining = (BitSet) column.present.clone();
+        remaining.and(rows);
+        BitSet result = new BitSet();
+
+        for (RuleConstant value : values) {
+            if (remaining.isEmpty()) {
+                break;
+            }
+            if (value.value() == null) {
+                failed.or(remaining);
+                break;
+            }
+
+            int code = column.code(value.toString());
+            for (int row = remaining.nextSetBit(0); row >= 0; row = remaining.nextSetBit(row + 1)) {
+                boolean matches;
+                if (value.isNumeric() && column.numeric.get(row)) {
+                    matches = Double.compare(column.numbers[row], value.number()) == 0;
+                } else if (column.textual.get(row)) {
+                    matches = column.textCodes[row] == code;
+                } else {
+                    matches = value.matches(column.nodes[row]);
+                }
+                if (matches) {
+                    result.set(row);
+                }
+            }
+            remaining.andNot(result);
+        }
+        return result;
+    }
+
+    private BitSet evaluateContains(ContainsPredicate contains, RecordBatch batch, BitSet rows) {
+        RecordBatch.Column column = batch.column(contains.path());
+        String[] lowerCaseDictionary = column.lowerCaseDictionary();
+        boolean[] hits = new boolean[lowerCaseDictionary.length];
+        for (int code = 0; code < lowerCaseDictionary.length; code++) {
+            hits[code] = lowerCaseDictionary[code].contains(contains.searchValue());
+        }
+
+        BitSet candidates = (BitSet) column.textual.clone();
+        candidates.and(rows);
+        BitSet result = new BitSet();
+        for (int row = candidates.nextSetBit(0); row >= 0; row = candidates.nextSetBit(row + 1)) {
+            if (hits[column.textCodes[row]]) {
+                result.set(row);
+            }
+        }
+        return result;
+    }
+
+    private BitSet evaluateRows(RulePredicate predicate, RecordBatch batch, BitSet rows, BitSet failed) {
+        BitSet result = new BitSet();
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            try {
+                if (predicate.test(batch.row(row))) {
+                    result.set(row);
+                }
+            } catch (Exception e) {
+                failed.set(row);
+            }
+        }
+        return result;
+    }
+}
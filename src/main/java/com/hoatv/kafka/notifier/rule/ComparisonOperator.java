@@ -0,0 +1,44 @@
+package com.hoatv.kafka.notifier.rule;
+
+/**
+ * Numeric comparison operators supported by rules
+ */
+public enum ComparisonOperator {
+
+    GT("$gt") {
+        @Override
+        public boolean test(double messageValue, double conditionValue) {
+            return messageValue > conditionValue;
+        }
+    },
+    GTE("$gte") {
+        @Override
+        public boolean test(double messageValue, double conditionValue) {
+            return messageValue >= conditionValue;
+        }
+    },
+    LT("$lt") {
+        @Override
+        public boolean test(double messageValue, double conditionValue) {
+            return messageValue < conditionValue;
+        }
+    },
+    LTE("$lte") {
+        @Override
+        public boolean test(double messageValue, double conditionValue) {
+            return messageValue <= conditionValue;
+        }
+    };
+
+    private final String operator;
+
+    ComparisonOperator(String operator) {
+        this.operator = operator;
+    }
+
+    public abstract boolean test(double messageValue, double conditionValue);
+
+    public String operator() {
+        return operator;
+    }
+}
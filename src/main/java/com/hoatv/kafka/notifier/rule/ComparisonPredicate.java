@@ -0,0 +1,24 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Numeric comparison of a field against a threshold parsed at compile time
+ */
+public record ComparisonPredicate(FieldPath path, ComparisonOperator operator, double threshold)
+        implements RulePredicate {
+
+    @Override
+    public boolean test(JsonNode message) {
+        JsonNode fieldNode = path.resolve(message);
+        if (fieldNode == null || !fieldNode.isNumber()) {
+            return false;
+        }
+        return operator.test(fieldNode.asDouble(), threshold);
+    }
+
+    @Override
+    public boolean canThrow() {
+        return false;
+    }
+}
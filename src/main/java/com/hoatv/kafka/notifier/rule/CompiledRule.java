@@ -0,0 +1,134 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compiled form of a notifier configuration's rules, tagged with the configuration
+ * id and version it was built from.
+ * <p>
+ * The predicate tree describes the rule and is what indexes analyse; the evaluator runs it
+ * and is the tree itself unless an adaptive tree or a generated class replaces it.
+ */
+public final class CompiledRule {
+
+    private final String configurationId;
+    private final long version;
+    private final RulePredicate predicate;
+    private final boolean stateful;
+    private final AtomicLong evaluations = new AtomicLong();
+    private volatile RulePredicate evaluator;
+    private volatile boolean generated;
+
+    public CompiledRule(String configurationId, long version, RulePredicate predicate) {
+        this.configurationId = configurationId;
+        this.version = version;
+        this.predicate = predicate;
+        this.stateful = predicate.isStateful();
+        this.evaluator = predicate;
+    }
+
+    public boolean matches(JsonNode message) {
+        return evaluator.test(message);
+    }
+
+    public String configurationId() {
+        return configurationId;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public RulePredicate predicate() {
+        return predicate;
+    }
+
+    /**
+     * Predicate that evaluates the rule: the tree, or a class generated from it
+     */
+    public RulePredicate evaluator() {
+        return evaluator;
+    }
+
+    /**
+     * Replace the evaluator with an equivalent one, such as an adaptive tree
+     */
+    public void useEvaluator(RulePredicate evaluator) {
+        this.evaluator = evaluator;
+    }
+
+    /**
+     * Replace the evaluator with a class generated from the tree
+     */
+    public void useGeneratedClass(RulePredicate generatedClass) {
+        this.evaluator = generatedClass;
+        this.generated = true;
+    }
+
+    public boolean isGenerated() {
+        return generated;
+    }
+
+    /**
+     * Whether the rule keeps state across records, see {@link RulePredicate#isStateful()}
+     */
+    public boolean isStateful() {
+        return stateful;
+    }
+
+    /**
+     * Count an evaluation, returning the number of evaluations so far
+     */
+    public long countEvaluation() {
+        return evaluations.incrementAndGet();
+    }
+
+    /**
+     * Every field path read anywhere in the rule tree
+     */
+    public Set<FieldPath> fieldPaths() {
+        Set<FieldPath> paths = new LinkedHashSet<>();
+        collectFieldPaths(predicate, paths);
+        return paths;
+    }
+
+    /**
+     * Conditions that must all hold for the rule to match: the flattened top-level conjunction
+     */
+    public List<RulePredicate> requiredConditions() {
+        List<RulePredicate> conditions = new ArrayList<>();
+        collectRequiredConditions(predicate, conditions);
+        return conditions;
+    }
+
+    private static void collectRequiredConditions(RulePredicate predicate, List<RulePredicate> conditions) {
+        if (predicate instanceof AndPredicate and) {
+            and.children().forEach(child -> collectRequiredConditions(child, conditions));
+        } else {
+            conditions.add(predicate);
+        }
+    }
+
+    private static void collectFieldPaths(RulePredicate predicate, Set<FieldPath> paths) {
+        if (predicate.path() != null) {
+            paths.add(predicate.path());
+        }
+        if (predicate instanceof AggregatePredicate aggregate && aggregate.groupBy() != null) {
+            paths.add(aggregate.groupBy());
+        }
+        for (RulePredicate child : predicate.children()) {
+            collectFieldPaths(child, paths);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledRule[" + configurationId + " v" + version + ": " + predicate + "]";
+    }
+}
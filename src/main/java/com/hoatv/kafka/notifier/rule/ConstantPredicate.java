@@ -0,0 +1,28 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Condition whose outcome is known at compile time
+ */
+public enum ConstantPredicate implements RulePredicate {
+
+    TRUE(true),
+    FALSE(false);
+
+    private final boolean result;
+
+    ConstantPredicate(boolean result) {
+        this.result = result;
+    }
+
+    @Override
+    public boolean test(JsonNode message) {
+        return result;
+    }
+
+    @Override
+    public boolean canThrow() {
+        return false;
+    }
+}
@@ -0,0 +1,163 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton over the {@code $contains} patterns that rules apply to one field.
+ * <p>
+ * Patterns are lower-cased at compile time like {@link ContainsPredicate}. For a record the
+ * field text is lower-cased once and scanned once, reporting every rule with a pattern in it
+ * regardless of how many patterns the topic has.
+ */
+final class ContainsIndex {
+
+    private static final int ROOT = 0;
+
+    private final FieldPath path;
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] failures;
+    private final BitSet[] outputs;
+
+    private ContainsIndex(FieldPath path, char[][] edgeChars, int[][] edgeTargets, int[] failures, BitSet[] outputs) {
+        this.path = path;
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.failures = failures;
+        this.outputs = outputs;
+    }
+
+    /**
+     * Report every rule with a pattern found in the record's field; a missing or
+     * non-text field satisfies none
+     */
+    void collect(JsonNode message, BitSet satisfied) {
+        JsonNode fieldNode = path.resolve(message);
+        if (fieldNode == null || !fieldNode.isTextual()) {
+            return;
+        }
+
+        String text = fieldNode.asText().toLowerCase();
+        or(satisfied, outputs[ROOT]);
+        int state = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int next = transition(state, c);
+            while (next < 0 && state != ROOT) {
+                state = failures[state];
+                next = transition(state, c);
+            }
+            state = next < 0 ? ROOT : next;
+            or(satisfied, outputs[state]);
+        }
+    }
+
+    private int transition(int state, char c) {
+        char[] chars = edgeChars[state];
+        int low = 0;
+        int high = chars.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (chars[mid] < c) {
+                low = mid + 1;
+            } else if (chars[mid] > c) {
+                high = mid - 1;
+            } else {
+                return edgeTargets[state][mid];
+            }
+        }
+        return -1;
+    }
+
+    private static void or(BitSet target, BitSet rules) {
+        if (rules != null) {
+            target.or(rules);
+        }
+    }
+
+    static final class Builder {
+
+        private final FieldPath path;
+        private final List<TreeMap<Character, Integer>> edges = new ArrayList<>();
+        private final List<BitSet> outputs = new ArrayList<>();
+
+        Builder(FieldPath path) {
+            this.path = path;
+            newState();
+        }
+
+        /**
+         * Add a lower-cased pattern of a rule
+         */
+        void add(int rule, String pattern) {
+            int state = ROOT;
+            for (int i = 0; i < pattern.length(); i++) {
+                Integer next = edges.get(state).get(pattern.charAt(i));
+                if (next == null) {
+                    next = newState();
+                    edges.get(state).put(pattern.charAt(i), next);
+                }
+                state = next;
+            }
+            output(state).set(rule);
+        }
+
+        ContainsIndex build() {
+            int stateCount = edges.size();
+            int[] failures = new int[stateCount];
+            Queue<Integer> queue = new ArrayDeque<>(edges.get(ROOT).values());
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                for (Map.Entry<Character, Integer> edge : edges.get(state).entrySet()) {
+                    int child = edge.getValue();
+                    int failure = failures[state];
+                    while (failure != ROOT && !edges.get(failure).containsKey(edge.getKey())) {
+                        failure = failures[failure];
+                    }
+                    Integer target = edges.get(failure).get(edge.getKey());
+                    failures[child] = target != null && target != child ? target : ROOT;
+                    if (outputs.get(failures[child]) != null) {
+                        output(child).or(outputs.get(failures[child]));
+                    }
+                    queue.add(child);
+                }
+            }
+
+            char[][] edgeChars = new char[stateCount][];
+            int[][] edgeTargets = new int[stateCount][];
+            for (int state = 0; state < stateCount; state++) {
+                TreeMap<Character, Integer> stateEdges = edges.get(state);
+                edgeChars[state] = new char[stateEdges.size()];
+                edgeTargets[state] = new int[stateEdges.size()];
+                int i = 0;
+                for (Map.Entry<Character, Integer> edge : stateEdges.entrySet()) {
+                    edgeChars[state][i] = edge.getKey();
+                    edgeTargets[state][i] = edge.getValue();
+                    i++;
+                }
+            }
+            return new ContainsIndex(path, edgeChars, edgeTargets, failures, outputs.toArray(BitSet[]::new));
+        }
+
+        private int newState() {
+            edges.add(new TreeMap<>());
+            outputs.add(null);
+            return edges.size() - 1;
+        }
+
+        private BitSet output(int state) {
+            if (outputs.get(state) == null) {
+                outputs.set(state, new BitSet());
+            }
+            return outputs.get(state);
+        }
+    }
+}
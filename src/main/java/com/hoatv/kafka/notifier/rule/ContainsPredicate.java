@@ -0,0 +1,24 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Case-insensitive substring match on a text field.
+ * The search value is stored lower-cased.
+ */
+public record ContainsPredicate(FieldPath path, String searchValue) implements RulePredicate {
+
+    @Override
+    public boolean test(JsonNode message) {
+        JsonNode fieldNode = path.resolve(message);
+        if (fieldNode == null || !fieldNode.isTextual()) {
+            return false;
+        }
+        return fieldNode.asText().toLowerCase().contains(searchValue);
+    }
+
+    @Override
+    public boolean canThrow() {
+        return false;
+    }
+}
@@ -0,0 +1,279 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Index over the conditions that rules of a topic require, used to select the rules a record can match.
+ * <p>
+ * Each rule is filed under one required condition: an {@code $eq}/{@code $in} on text or numeric
+ * constants when it has one, otherwise a numeric comparison, otherwise a {@code $contains} (or an
+ * {@code $or} of them on one field), preferring the field (and operator) most rules share.
+ * Equality conditions are looked up by hash, comparisons by a {@link ThresholdIndex} and
+ * substrings by a {@link ContainsIndex}. Rules whose filed condition does not hold are ruled out without being
+ * evaluated, and rules made of that single condition are known to match. Rules without an
+ * indexable condition, and stateful rules, are always evaluated. Lookups follow {@link RuleConstant#matches}: text
+ * matches the constant's text, numbers match numerically, and any other value leaves the
+ * rules of that field to be evaluated.
+ */
+public final class DiscriminationIndex {
+
+    private final List<FieldIndex> fieldIndexes;
+    private final List<ThresholdIndex> thresholdIndexes;
+    private final List<ContainsIndex> containsIndexes;
+    private final BitSet unindexed;
+    private final BitSet exact;
+
+    private DiscriminationIndex(List<FieldIndex> fieldIndexes, List<ThresholdIndex> thresholdIndexes,
+                                List<ContainsIndex> containsIndexes, BitSet unindexed, BitSet exact) {
+        this.fieldIndexes = fieldIndexes;
+        this.thresholdIndexes = thresholdIndexes;
+        this.containsIndexes = containsIndexes;
+        this.unindexed = unindexed;
+        this.exact = exact;
+    }
+
+    public static DiscriminationIndex build(List<CompiledRule> rules) {
+        // Stateful rules must see every record, they are never ruled out
+        List<List<RulePredicate>> conditionsByRule = rules.stream()
+                .map(rule -> rule.isStateful() ? List.<RulePredicate>of() : rule.requiredConditions())
+                .toList();
+
+        Map<Object, Integer> popularity = new HashMap<>();
+        for (List<RulePredicate> conditions : conditionsByRule) {
+            conditions.stream()
+                    .map(DiscriminationIndex::indexKey)
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .forEach(key -> popularity.merge(key, 1, Integer::sum));
+        }
+
+        Map<FieldPath, FieldIndex> fieldIndexes = new LinkedHashMap<>();
+        Map<ThresholdKey, ThresholdIndex.Builder> thresholdIndexes = new LinkedHashMap<>();
+        Map<ContainsKey, ContainsIndex.Builder> containsIndexes = new LinkedHashMap<>();
+        BitSet unindexed = new BitSet(rules.size());
+        BitSet exact = new BitSet(rules.size());
+        for (int i = 0; i < rules.size(); i++) {
+            List<RulePredicate> conditions = conditionsByRule.get(i);
+            RulePredicate chosen = chooseCondition(conditions, popularity);
+            if (chosen == null) {
+                unindexed.set(i);
+                continue;
+            }
+
+            if (conditions.size() == 1) {
+                exact.set(i);
+            }
+            Object key = indexKey(chosen);
+            if (key instanceof ThresholdKey thresholdKey) {
+                thresholdIndexes.computeIfAbsent(thresholdKey,
+                                ignored -> new ThresholdIndex.Builder(thresholdKey.path(), thresholdKey.operator()))
+                        .add(i, ((ComparisonPredicate) chosen).threshold());
+            } else if (key instanceof ContainsKey containsKey) {
+                ContainsIndex.Builder containsIndex = containsIndexes.computeIfAbsent(containsKey,
+                        ignored -> new ContainsIndex.Builder(containsKey.path()));
+                for (String pattern : containsPatterns(chosen)) {
+                    containsIndex.add(i, pattern);
+                }
+            } else {
+                fieldIndexes.computeIfAbsent(chosen.path(), FieldIndex::new).add(i, equalityConstants(chosen));
+            }
+        }
+
+        return new DiscriminationIndex(
+                List.copyOf(fieldIndexes.values()),
+                thresholdIndexes.values().stream().map(ThresholdIndex.Builder::build).toList(),
+                containsIndexes.values().stream().map(ContainsIndex.Builder::build).toList(),
+                unindexed,
+                exact);
+    }
+
+    /**
+     * Select the rules of the message: those known to match and those that still need evaluation.
+     * Every other rule certainly does not match.
+     */
+    public Selection select(JsonNode message) {
+        BitSet satisfied = new BitSet();
+        BitSet undecided = (BitSet) unindexed.clone();
+        for (FieldIndex fieldIndex : fieldIndexes) {
+            fieldIndex.collect(message, satisfied, undecided);
+        }
+        for (ThresholdIndex thresholdIndex : thresholdIndexes) {
+            thresholdIndex.collect(message, satisfied);
+        }
+        for (ContainsIndex containsIndex : containsIndexes) {
+            containsIndex.collect(message, satisfied);
+        }
+
+        BitSet matched = (BitSet) satisfied.clone();
+        matched.and(exact);
+        satisfied.andNot(exact);
+        undecided.or(satisfied);
+        return new Selection(matched, undecided);
+    }
+
+    /**
+     * Rules that may match the message; all others certainly do not
+     */
+    public BitSet candidates(JsonNode message) {
+        return select(message).candidates();
+    }
+
+    public int indexedFieldCount() {
+        return fieldIndexes.size() + thresholdIndexes.size() + containsIndexes.size();
+    }
+
+    /**
+     * Pick the condition a rule is filed under: equality before comparison before substring,
+     * then the most shared key
+     */
+    private static RulePredicate chooseCondition(List<RulePredicate> conditions, Map<Object, Integer> popularity) {
+        RulePredicate chosen = null;
+        for (RulePredicate condition : conditions) {
+            Object key = indexKey(condition);
+            if (key == null) {
+                continue;
+            }
+            if (chosen == null || rank(key, popularity) > rank(indexKey(chosen), popularity)) {
+                chosen = condition;
+            }
+        }
+        return chosen;
+    }
+
+    private static long rank(Object key, Map<Object, Integer> popularity) {
+        int kind = key instanceof ContainsKey ? 0 : key instanceof ThresholdKey ? 1 : 2;
+        return ((long) kind << Integer.SIZE) + popularity.get(key);
+    }
+
+    /**
+     * Field of an indexable equality condition, field and operator of a comparison,
+     * field of a substring condition, or null
+     */
+    private static Object indexKey(RulePredicate condition) {
+        if (condition instanceof ComparisonPredicate comparison) {
+            return new ThresholdKey(comparison.path(), comparison.operator());
+        }
+        if (containsPatterns(condition) != null) {
+            FieldPath path = condition instanceof OrPredicate or ? or.children().get(0).path() : condition.path();
+            return new ContainsKey(path);
+        }
+        List<RuleConstant> constants = equalityConstants(condition);
+        if (constants != null && constants.stream().allMatch(DiscriminationIndex::isIndexable)) {
+            return condition.path();
+        }
+        return null;
+    }
+
+    private static List<RuleConstant> equalityConstants(RulePredicate condition) {
+        if (condition instanceof EqualsPredicate equals) {
+            return List.of(equals.value());
+        } else if (condition instanceof InPredicate in) {
+            return in.values();
+        }
+        return null;
+    }
+
+    /**
+     * Patterns of a {@code $contains}, or of an {@code $or} of them on the same field, otherwise null
+     */
+    private static List<String> containsPatterns(RulePredicate condition) {
+        if (condition instanceof ContainsPredicate contains) {
+            return List.of(contains.searchValue());
+        }
+        if (!(condition instanceof OrPredicate or) || or.children().isEmpty()) {
+            return null;
+        }
+
+        FieldPath path = or.children().get(0).path();
+        List<String> patterns = new ArrayList<>();
+        for (RulePredicate child : or.children()) {
+            if (!(child instanceof ContainsPredicate contains) || !contains.path().equals(path)) {
+                return null;
+            }
+            patterns.add(contains.searchValue());
+        }
+        return patterns;
+    }
+
+    private static boolean isIndexable(RuleConstant constant) {
+        return constant.value() instanceof String || constant.isNumeric();
+    }
+
+    /**
+     * Rules a record certainly matches and rules that still need a full evaluation
+     */
+    public record Selection(BitSet matched, BitSet undecided) {
+
+        /**
+         * Every rule that may match, in rule order
+         */
+        public BitSet candidates() {
+            BitSet candidates = (BitSet) matched.clone();
+            candidates.or(undecided);
+            return candidates;
+        }
+    }
+
+    private record ThresholdKey(FieldPath path, ComparisonOperator operator) {
+    }
+
+    private record ContainsKey(FieldPath path) {
+    }
+
+    private static final class FieldIndex {
+
+        private final FieldPath path;
+        private final BitSet rules = new BitSet();
+        private final Map<String, BitSet> textConstants = new HashMap<>();
+        private final Map<String, BitSet> numericConstantsByText = new HashMap<>();
+        private final Map<Double, BitSet> numericConstants = new HashMap<>();
+
+        private FieldIndex(FieldPath path) {
+            this.path = path;
+        }
+
+        private void add(int rule, List<RuleConstant> constants) {
+            rules.set(rule);
+            for (RuleConstant constant : constants) {
+                if (constant.isNumeric()) {
+                    numericConstants.computeIfAbsent(constant.number(), key -> new BitSet()).set(rule);
+                    numericConstantsByText.computeIfAbsent(constant.toString(), key -> new BitSet()).set(rule);
+                } else {
+                    textConstants.computeIfAbsent((String) constant.value(), key -> new BitSet()).set(rule);
+                }
+            }
+        }
+
+        private void collect(JsonNode message, BitSet satisfied, BitSet undecided) {
+            JsonNode fieldNode = path.resolve(message);
+            if (fieldNode == null) {
+                return;
+            }
+
+            if (fieldNode.isTextual()) {
+                String text = fieldNode.asText();
+                or(satisfied, textConstants.get(text));
+                or(satisfied, numericConstantsByText.get(text));
+            } else if (fieldNode.isNumber()) {
+                or(satisfied, numericConstants.get(fieldNode.asDouble()));
+                or(satisfied, textConstants.get(fieldNode.toString()));
+            } else {
+                undecided.or(rules);
+            }
+        }
+
+        private static void or(BitSet target, BitSet rules) {
+            if (rules != null) {
+                target.or(rules);
+            }
+        }
+    }
+}
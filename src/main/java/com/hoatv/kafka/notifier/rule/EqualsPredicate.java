@@ -0,0 +1,20 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Equality of a field with a constant
+ */
+public record EqualsPredicate(FieldPath path, RuleConstant value) implements RulePredicate {
+
+    @Override
+    public boolean test(JsonNode message) {
+        JsonNode fieldNode = path.resolve(message);
+        return fieldNode != null && value.matches(fieldNode);
+    }
+
+    @Override
+    public boolean canThrow() {
+        return value.value() == null;
+    }
+}
@@ -0,0 +1,71 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Arrays;
+
+/**
+ * Pre-split field reference such as {@code system.cpu.usage}.
+ * <p>
+ * The root path (no segments) refers to the message itself and is used by rules
+ * written for simple values without a {@code $field}.
+ */
+public final class FieldPath {
+
+    public static final FieldPath ROOT = new FieldPath("", new String[0]);
+
+    private final String expression;
+    private final String[] segments;
+
+    private FieldPath(String expression, String[] segments) {
+        this.expression = expression;
+        this.segments = segments;
+    }
+
+    /**
+     * Split a dotted field reference once so evaluation does not have to
+     */
+    public static FieldPath parse(String field) {
+        String[] segments = field.contains(".") ? field.split("\\.") : new String[]{field};
+        return new FieldPath(field, segments);
+    }
+
+    /**
+     * Resolve this path against a message, returning null when any segment is missing
+     */
+    public JsonNode resolve(JsonNode message) {
+        JsonNode current = message;
+        for (String segment : segments) {
+            if (current == null) {
+                return null;
+            }
+            current = current.get(segment);
+        }
+        return current;
+    }
+
+    public boolean isRoot() {
+        return segments.length == 0;
+    }
+
+    public String[] segments() {
+        return segments.clone();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof FieldPath that)) return false;
+        return Arrays.equals(segments, that.segments);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(segments);
+    }
+
+    @Override
+    public String toString() {
+        return isRoot() ? "$value" : expression;
+    }
+}
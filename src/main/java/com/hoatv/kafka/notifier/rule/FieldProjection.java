@@ -0,0 +1,95 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streaming reader that keeps only the field paths referenced by rules.
+ * <p>
+ * The message is tokenized with Jackson's {@link JsonParser}; subtrees no rule reads are
+ * skipped without being built, and the result is a sparse object in which every referenced
+ * path resolves exactly as it would in the fully parsed message.
+ */
+public final class FieldProjection {
+
+    private final PathNode root = new PathNode();
+    private final int pathCount;
+
+    private FieldProjection(Collection<FieldPath> paths) {
+        for (FieldPath path : paths) {
+            if (path.isRoot()) {
+                throw new IllegalArgumentException("Rules reading the whole message cannot be projected");
+            }
+            PathNode node = root;
+            for (String segment : path.segments()) {
+                node = node.children.computeIfAbsent(segment, key -> new PathNode());
+            }
+            node.terminal = true;
+        }
+        this.pathCount = paths.size();
+    }
+
+    /**
+     * Build a projection for the given paths, or null when one of them is the message root
+     */
+    public static FieldProjection of(Collection<FieldPath> paths) {
+        return paths.stream().anyMatch(FieldPath::isRoot) ? null : new FieldProjection(paths);
+    }
+
+    /**
+     * Read the projected fields of a JSON object
+     *
+     * @return the sparse object, or null when the message is not a JSON object
+     * @throws IOException when the message is not valid JSON
+     */
+    public JsonNode read(ObjectMapper objectMapper, String json) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            ObjectNode projected = objectMapper.createObjectNode();
+            readObject(objectMapper, parser, root, projected);
+            return projected;
+        }
+    }
+
+    public int pathCount() {
+        return pathCount;
+    }
+
+    private static void readObject(ObjectMapper objectMapper, JsonParser parser, PathNode node,
+                                   ObjectNode target) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken valueToken = parser.nextToken();
+            PathNode child = node.children.get(name);
+
+            if (child == null) {
+                parser.skipChildren();
+            } else if (child.terminal) {
+                target.set(name, objectMapper.readTree(parser));
+            } else if (valueToken == JsonToken.START_OBJECT) {
+                // A repeated key replaces the earlier value, as it does in a full parse
+                ObjectNode nested = target.objectNode();
+                readObject(objectMapper, parser, child, nested);
+                target.set(name, nested);
+            } else {
+                parser.skipChildren();
+                target.remove(name);
+            }
+        }
+    }
+
+    private static final class PathNode {
+        private final Map<String, PathNode> children = new HashMap<>();
+        private boolean terminal;
+    }
+}
@@ -0,0 +1,39 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * Membership of a field in a list of constants
+ */
+public record InPredicate(FieldPath path, List<RuleConstant> values) implements RulePredicate {
+
+    public InPredicate {
+        values = List.copyOf(values);
+    }
+
+    @Override
+    public boolean test(JsonNode message) {
+        JsonNode fieldNode = path.resolve(message);
+        if (fieldNode == null) {
+            return false;
+        }
+        for (int i = 0; i < values.size(); i++) {
+            if (values.get(i).matches(fieldNode)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean canThrow() {
+        for (int i = 0; i < values.size(); i++) {
+            if (values.get(i).value() == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
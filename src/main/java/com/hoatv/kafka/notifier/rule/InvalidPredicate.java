@@ -0,0 +1,17 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Malformed part of a rule.
+ * <p>
+ * Reaching it fails the whole evaluation, exactly like the cast or parse error the
+ * raw rule map would have raised, while branches that short-circuit before it still work.
+ */
+public record InvalidPredicate(String reason) implements RulePredicate {
+
+    @Override
+    public boolean test(JsonNode message) {
+        throw new IllegalStateException(reason);
+    }
+}
@@ -0,0 +1,14 @@
+package com.hoatv.kafka.notifier.rule;
+
+/**
+ * Notifier configuration whose rule definition cannot be accepted, such as one giving both or neither
+ * of rules and expression
+ */
+public class InvalidRulesException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidRulesException(String message) {
+        super(message);
+    }
+}
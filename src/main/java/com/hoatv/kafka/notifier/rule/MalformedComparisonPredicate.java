@@ -0,0 +1,21 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Numeric comparison whose threshold is not a number.
+ * <p>
+ * Non-numeric fields still evaluate to false; a numeric field fails the evaluation
+ * because there is nothing to compare it with.
+ */
+public record MalformedComparisonPredicate(FieldPath path, String threshold) implements RulePredicate {
+
+    @Override
+    public boolean test(JsonNode message) {
+        JsonNode fieldNode = path.resolve(message);
+        if (fieldNode == null || !fieldNode.isNumber()) {
+            return false;
+        }
+        throw new NumberFormatException("Rule value is not numeric: " + threshold);
+    }
+}
@@ -0,0 +1,176 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.DoubleNode;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Per-record view of a Kafka message shared by every configuration and action of a topic.
+ * <p>
+ * The message is parsed lazily and at most once: rule evaluation and template rendering
+ * reuse the same JSON tree, and the template variables are built once per record.
+ * With a {@link FieldProjection}, rules see only the fields they reference and the full
+ * tree is built only if a template needs it.
+ * Instances are thread-safe: actions may render templates on other threads while the thread
+ * processing the record still evaluates rules, every lazily built view being built under the
+ * context's lock and the rule view being published once built.
+ */
+public class MessageContext {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MessageContext.class);
+
+    private final ObjectMapper objectMapper;
+    private final String message;
+    private final FieldProjection projection;
+
+    // Whole message parsed as JSON, MissingNode when it is not valid JSON and null until parsed
+    private JsonNode jsonNode;
+    private volatile JsonNode ruleNode;
+    private JsonNode templateNode;
+    private Map<String, String> templateVariables;
+
+    public MessageContext(ObjectMapper objectMapper, String message) {
+        this(objectMapper, message, null);
+    }
+
+    /**
+     * Create a context whose rule view only contains the fields of the given projection
+     */
+    public MessageContext(ObjectMapper objectMapper, String message, FieldProjection projection) {
+        this.objectMapper = objectMapper;
+        this.message = message;
+        this.projection = projection;
+    }
+
+    public String message() {
+        return message;
+    }
+
+    /**
+     * Message as seen by rules: blank messages are null, non-JSON text is read as a simple value
+     */
+    public JsonNode ruleNode() {
+        JsonNode node = ruleNode;
+        if (node == null) {
+            synchronized (this) {
+                node = ruleNode;
+                if (node == null) {
+                    node = parseForRules();
+                    ruleNode = node;
+                }
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Message as seen by templates: non-JSON text is kept verbatim
+     */
+    public synchronized JsonNode templateNode() {
+        if (templateNode == null) {
+            JsonNode json = readJson(message);
+            templateNode = json != null ? json : objectMapper.valueToTree(message);
+        }
+        return templateNode;
+    }
+
+    /**
+     * Template variables of this record, built on first use
+     */
+    public synchronized Map<String, String> templateVariables(Function<JsonNode, Map<String, String>> factory) {
+        if (templateVariables == null) {
+            templateVariables = factory.apply(templateNode());
+        }
+        return templateVariables;
+    }
+
+    private JsonNode parseForRules() {
+        if (message == null || message.trim().isEmpty()) {
+            return NullNode.getInstance();
+        }
+
+        String trimmedMessage = message.trim();
+        JsonNode json = projection != null ? readProjected(trimmedMessage) : readJson(trimmedMessage);
+        if (json != null) {
+            return json;
+        }
+
+        LOGGER.debug("Message is not valid JSON, treating as simple value: {}", trimmedMessage);
+        return parseAsSimpleValue(trimmedMessage);
+    }
+
+    /**
+     * Parse text as JSON, returning null when it is not valid JSON.
+     * The untrimmed message is parsed once and shared by rules and templates; callers hold the context's lock.
+     */
+    private JsonNode readJson(String text) {
+        boolean wholeMessage = text == message;
+        if (wholeMessage && jsonNode != null) {
+            return jsonNode.isMissingNode() ? null : jsonNode;
+        }
+
+        JsonNode json;
+        try {
+            json = objectMapper.readTree(text);
+        } catch (Exception e) {
+            json = null;
+        }
+
+        if (wholeMessage) {
+            jsonNode = json != null ? json : MissingNode.getInstance();
+        }
+        return json;
+    }
+
+    /**
+     * Stream only the projected fields of a JSON object; other JSON values are parsed in full
+     */
+    private JsonNode readProjected(String text) {
+        try {
+            JsonNode projected = projection.read(objectMapper, text);
+            return projected != null ? projected : readJson(text);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parse simple values into appropriate JsonNode types
+     */
+    private static JsonNode parseAsSimpleValue(String value) {
+        try {
+            if (value.contains(".")) {
+                double doubleValue = Double.parseDouble(value);
+                return DoubleNode.valueOf(doubleValue);
+            } else {
+                long longValue = Long.parseLong(value);
+                if (longValue >= Integer.MIN_VALUE && longValue <= Integer.MAX_VALUE) {
+                    return IntNode.valueOf((int) longValue);
+                } else {
+                    return LongNode.valueOf(longValue);
+                }
+            }
+        } catch (NumberFormatException e) {
+            // Not a number, continue with other types
+        }
+
+        // Try to parse as boolean
+        if ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)) {
+            return BooleanNode.valueOf(Boolean.parseBoolean(value));
+        }
+
+        // Default to string
+        return TextNode.valueOf(value);
+    }
+}
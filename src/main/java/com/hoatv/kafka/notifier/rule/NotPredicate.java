@@ -0,0 +1,26 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * Negation of a condition, used for {@code $ne}
+ */
+public record NotPredicate(RulePredicate delegate) implements RulePredicate {
+
+    @Override
+    public boolean test(JsonNode message) {
+        return !delegate.test(message);
+    }
+
+    @Override
+    public List<RulePredicate> children() {
+        return List.of(delegate);
+    }
+
+    @Override
+    public boolean canThrow() {
+        return delegate.canThrow();
+    }
+}
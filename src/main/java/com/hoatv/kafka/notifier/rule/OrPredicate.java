@@ -0,0 +1,35 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * Disjunction of child conditions, evaluated in order and succeeding fast
+ */
+public record OrPredicate(List<RulePredicate> children) implements RulePredicate {
+
+    public OrPredicate {
+        children = List.copyOf(children);
+    }
+
+    @Override
+    public boolean test(JsonNode message) {
+        for (int i = 0; i < children.size(); i++) {
+            if (children.get(i).test(message)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean canThrow() {
+        for (int i = 0; i < children.size(); i++) {
+            if (children.get(i).canThrow()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,66 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.function.Function;
+
+/**
+ * Condition on the elements of an array field, used for {@code $any}, {@code $all} and
+ * {@code [*]} wildcard paths such as {@code disks[*].used}.
+ * <p>
+ * The condition is evaluated against each element in turn, with field paths relative to the
+ * element, and the scan stops at the first element that decides the outcome. A missing or
+ * non-array field matches neither quantifier; an empty array matches {@code $all} only.
+ * Since the condition does not read the message itself, it is not exposed as a child and
+ * the node is treated as a leaf reading the whole array field.
+ */
+public record QuantifiedPredicate(FieldPath path, boolean all, RulePredicate condition) implements RulePredicate {
+
+    static final String WILDCARD = "[*]";
+
+    /**
+     * Build a condition on a field that may step into arrays with {@code [*]}: the rest of
+     * the path is evaluated against each element and any matching element satisfies it
+     *
+     * @param field dotted field reference, empty for the message itself
+     * @param leaf  condition on the path left once every wildcard is resolved
+     */
+    static RulePredicate anyElement(String field, Function<FieldPath, RulePredicate> leaf) {
+        int wildcard = field.indexOf(WILDCARD);
+        if (wildcard < 0) {
+            return leaf.apply(field.isEmpty() ? FieldPath.ROOT : FieldPath.parse(field));
+        }
+
+        String array = field.substring(0, wildcard);
+        String element = field.substring(wildcard + WILDCARD.length());
+        if (element.startsWith(".")) {
+            element = element.substring(1);
+        }
+        return new QuantifiedPredicate(array.isEmpty() ? FieldPath.ROOT : FieldPath.parse(array), false,
+                anyElement(element, leaf));
+    }
+
+    @Override
+    public boolean test(JsonNode message) {
+        JsonNode array = path.resolve(message);
+        if (array == null || !array.isArray()) {
+            return false;
+        }
+        for (int i = 0; i < array.size(); i++) {
+            if (condition.test(array.get(i)) != all) {
+                return !all;
+            }
+        }
+        return all;
+    }
+
+    @Override
+    public boolean canThrow() {
+        return condition.canThrow();
+    }
+
+    @Override
+    public boolean isStateful() {
+        return condition.isStateful();
+    }
+}
@@ -0,0 +1,114 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records of one poll laid out by column for {@link ColumnarEvaluator}.
+ * <p>
+ * A column holds one field of every record, extracted on first use: numbers in a
+ * {@code double[]}, text as codes into a per-column dictionary, and the resolved node for
+ * the remaining types. Distinct text values are stored, and lower-cased, once per batch.
+ * Instances are confined to the thread evaluating the batch and are not thread-safe.
+ */
+public final class RecordBatch {
+
+    private final JsonNode[] rows;
+    private final Map<FieldPath, Column> columns = new HashMap<>();
+
+    private RecordBatch(JsonNode[] rows) {
+        this.rows = rows;
+    }
+
+    /**
+     * Create a batch from the parsed rule view of each record
+     */
+    public static RecordBatch of(List<JsonNode> rows) {
+        return new RecordBatch(rows.toArray(JsonNode[]::new));
+    }
+
+    public int size() {
+        return rows.length;
+    }
+
+    JsonNode row(int row) {
+        return rows[row];
+    }
+
+    Column column(FieldPath path) {
+        return columns.computeIfAbsent(path, this::extract);
+    }
+
+    private Column extract(FieldPath path) {
+        Column column = new Column(rows.length);
+        Map<String, Integer> codes = new HashMap<>();
+        for (int row = 0; row < rows.length; row++) {
+            JsonNode node = path.resolve(rows[row]);
+            column.nodes[row] = node;
+            if (node == null) {
+                continue;
+            }
+
+            column.present.set(row);
+            if (node.isNumber()) {
+                column.numeric.set(row);
+                column.numbers[row] = node.asDouble();
+            } else if (node.isTextual()) {
+                column.textual.set(row);
+                column.textCodes[row] = codes.computeIfAbsent(node.asText(), text -> {
+                    column.dictionary.add(text);
+                    return column.dictionary.size() - 1;
+                });
+            }
+        }
+        column.codes = codes;
+        return column;
+    }
+
+    /**
+     * One field of every record in the batch
+     */
+    static final class Column {
+
+        final JsonNode[] nodes;
+        final BitSet present = new BitSet();
+        final BitSet numeric = new BitSet();
+        final BitSet textual = new BitSet();
+        final double[] numbers;
+        final int[] textCodes;
+        final List<String> dictionary = new ArrayList<>();
+        private Map<String, Integer> codes;
+        private String[] lowerCaseDictionary;
+
+        private Column(int size) {
+            this.nodes = new JsonNode[size];
+            this.numbers = new double[size];
+            this.textCodes = new int[size];
+        }
+
+        /**
+         * Dictionary code of a text value, -1 when no record has it
+         */
+        int code(String text) {
+            return codes.getOrDefault(text, -1);
+        }
+
+        /**
+         * Distinct text values lower-cased, by dictionary code
+         */
+        String[] lowerCaseDictionary() {
+            if (lowerCaseDictionary == null) {
+                lowerCaseDictionary = new String[dictionary.size()];
+                for (int code = 0; code < dictionary.size(); code++) {
+                    lowerCaseDictionary[code] = dictionary.get(code).toLowerCase();
+                }
+            }
+            return lowerCaseDictionary;
+        }
+    }
+}
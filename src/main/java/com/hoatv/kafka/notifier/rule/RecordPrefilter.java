@@ -0,0 +1,294 @@
+package com.hoatv.kafka.notifier.rule;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Conservative check of raw record bytes against the rules of a topic, run before decoding.
+ * <p>
+ * Each rule is reduced to the literals a record must contain for the rule to possibly hold:
+ * the quoted names of the fields it reads, the quoted text of {@code $eq}/{@code $in} string
+ * constants (or the boolean a text constant also equals) and the search text of
+ * {@code $contains}, combined along the rule's {@code $and}/{@code $or} structure. A record
+ * is dropped only when every rule is missing one of its literals.
+ * <p>
+ * The prefilter never rejects a record the rules could match: null, blank and escaped
+ * ({@code \}) values always pass, constants that a number, null or nested value could render
+ * as are not required, and {@code $contains} text is only searched, case-insensitively, in
+ * ASCII records since lower-casing other characters can produce ASCII letters.
+ */
+public final class RecordPrefilter {
+
+    private static final Requirement ALWAYS = new AllOf(List.of());
+    private static final Requirement NEVER = new AnyOf(List.of());
+
+    private final byte[][] literals;
+    private final boolean[] ignoreCase;
+    private final boolean[] asciiOnly;
+    private final List<Requirement> requirements;
+
+    private RecordPrefilter(Builder builder, List<Requirement> requirements) {
+        this.literals = builder.literals.toArray(byte[][]::new);
+        this.ignoreCase = new boolean[literals.length];
+        this.asciiOnly = new boolean[literals.length];
+        for (int i = 0; i < literals.length; i++) {
+            ignoreCase[i] = builder.keys.get(i).ignoreCase();
+            asciiOnly[i] = builder.keys.get(i).asciiOnly();
+        }
+        this.requirements = List.copyOf(requirements);
+    }
+
+    /**
+     * Build the prefilter of a topic's rules, or null when one of them may match any record
+     */
+    public static RecordPrefilter of(List<CompiledRule> rules) {
+        Builder builder = new Builder();
+        List<Requirement> requirements = new ArrayList<>(rules.size());
+        for (CompiledRule rule : rules) {
+            // A dropped record would never reach the windows of a stateful rule
+            Requirement requirement = rule.isStateful() ? ALWAYS : builder.require(rule.predicate());
+            if (requirement.equals(ALWAYS)) {
+                return null;
+            }
+            requirements.add(requirement);
+        }
+        return new RecordPrefilter(builder, requirements);
+    }
+
+    /**
+     * Check whether a raw record value may match one of the rules; false means none can match
+     */
+    public boolean mayMatch(byte[] value) {
+        if (value == null) {
+            return true;
+        }
+
+        boolean blank = true;
+        boolean ascii = true;
+        for (byte b : value) {
+            if (b == '\\') {
+                return true;
+            }
+            ascii &= b >= 0;
+            blank &= b >= 0 && b <= ' ';
+        }
+        if (blank) {
+            return true;
+        }
+
+        // Per literal: 0 not searched yet, 1 found, 2 absent
+        byte[] found = new byte[literals.length];
+        for (Requirement requirement : requirements) {
+            if (holds(requirement, value, ascii, found)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Number of distinct literals searched for
+     */
+    public int literalCount() {
+        return literals.length;
+    }
+
+    private boolean holds(Requirement requirement, byte[] value, boolean ascii, byte[] found) {
+        if (requirement instanceof AllOf allOf) {
+            for (Requirement child : allOf.requirements()) {
+                if (!holds(child, value, ascii, found)) {
+                    return false;
+                }
+            }
+            return true;
+        } else if (requirement instanceof AnyOf anyOf) {
+            for (Requirement child : anyOf.requirements()) {
+                if (holds(child, value, ascii, found)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int id = ((Literal) requirement).id();
+        if (asciiOnly[id] && !ascii) {
+            return true;
+        }
+        if (found[id] == 0) {
+            found[id] = (byte) (indexOf(value, literals[id], ignoreCase[id]) >= 0 ? 1 : 2);
+        }
+        return found[id] == 1;
+    }
+
+    private static int indexOf(byte[] value, byte[] literal, boolean ignoreCase) {
+        int last = value.length - literal.length;
+        outer:
+        for (int i = 0; i <= last; i++) {
+            for (int j = 0; j < literal.length; j++) {
+                byte b = value[i + j];
+                if (ignoreCase && b >= 'A' && b <= 'Z') {
+                    b += 'a' - 'A';
+                }
+                if (b != literal[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Condition on the literals of a record
+     */
+    private sealed interface Requirement permits AllOf, AnyOf, Literal {
+    }
+
+    private record AllOf(List<Requirement> requirements) implements Requirement {
+    }
+
+    private record AnyOf(List<Requirement> requirements) implements Requirement {
+    }
+
+    private record Literal(int id) implements Requirement {
+    }
+
+    private record LiteralKey(String text, boolean ignoreCase, boolean asciiOnly) {
+    }
+
+    /**
+     * Derives requirements from predicate trees, numbering distinct literals
+     */
+    private static final class Builder {
+
+        private final Map<LiteralKey, Integer> ids = new HashMap<>();
+        private final List<LiteralKey> keys = new ArrayList<>();
+        private final List<byte[]> literals = new ArrayList<>();
+
+        /**
+         * What a record must contain for the node to hold
+         */
+        Requirement require(RulePredicate predicate) {
+            if (predicate instanceof AndPredicate and) {
+                return allOf(and.children().stream().map(this::require).toList());
+            } else if (predicate instanceof OrPredicate or) {
+                return anyOf(or.children().stream().map(this::require).toList());
+            } else if (predicate instanceof ConstantPredicate constant) {
+                return constant == ConstantPredicate.TRUE ? ALWAYS : NEVER;
+            } else if (predicate instanceof InvalidPredicate || predicate instanceof MalformedComparisonPredicate) {
+                return NEVER;
+            } else if (predicate instanceof ComparisonPredicate comparison) {
+                return present(comparison.path());
+            } else if (predicate instanceof EqualsPredicate equals) {
+                return allOf(List.of(present(equals.path()), equalTo(equals.path(), equals.value())));
+            } else if (predicate instanceof InPredicate in) {
+                List<Requirement> values = in.values().stream().map(value -> equalTo(in.path(), value)).toList();
+                return allOf(List.of(present(in.path()), anyOf(values)));
+            } else if (predicate instanceof ContainsPredicate contains) {
+                return allOf(List.of(present(contains.path()), containing(contains.searchValue())));
+            }
+            // Negations and anything else can hold without a given literal
+            return ALWAYS;
+        }
+
+        /**
+         * The field's name, and its parents', appear quoted in a JSON object that has it
+         */
+        private Requirement present(FieldPath path) {
+            List<Requirement> names = new ArrayList<>();
+            for (String segment : path.segments()) {
+                if (isPlainText(segment)) {
+                    names.add(literal('"' + segment + '"', false, false));
+                }
+            }
+            return allOf(names);
+        }
+
+        /**
+         * A text node equal to a string constant appears quoted (unquoted when it is the whole
+         * message), and a boolean node equals it when it is the constant's boolean value
+         */
+        private Requirement equalTo(FieldPath path, RuleConstant constant) {
+            if (constant.value() == null) {
+                // Reaching a null constant fails the evaluation
+                return NEVER;
+            }
+            if (!(constant.value() instanceof String text) || !isPlainText(text) || mayRenderNonText(text)) {
+                return ALWAYS;
+            }
+            Requirement asText = literal(path.isRoot() ? text : '"' + text + '"', false, false);
+            Requirement asBoolean = literal(Boolean.parseBoolean(text) ? "true" : "false", true, false);
+            return anyOf(List.of(asText, asBoolean));
+        }
+
+        private Requirement containing(String searchValue) {
+            if (searchValue.isEmpty() || !searchValue.chars().allMatch(c -> c < 0x80)) {
+                return ALWAYS;
+            }
+            return literal(searchValue, true, true);
+        }
+
+        private Requirement literal(String text, boolean ignoreCase, boolean asciiOnly) {
+            LiteralKey key = new LiteralKey(ignoreCase ? text.toLowerCase(Locale.ROOT) : text, ignoreCase, asciiOnly);
+            int id = ids.computeIfAbsent(key, k -> {
+                keys.add(k);
+                literals.add(k.text().getBytes(StandardCharsets.US_ASCII));
+                return literals.size() - 1;
+            });
+            return new Literal(id);
+        }
+
+        /**
+         * Printable ASCII needing no escape in JSON, so it appears verbatim in the record
+         */
+        private static boolean isPlainText(String text) {
+            return text.chars().allMatch(c -> c >= ' ' && c < 0x7f && c != '"' && c != '\\');
+        }
+
+        /**
+         * Whether a number, null, object or array node could equal the text through its JSON form
+         */
+        private static boolean mayRenderNonText(String text) {
+            if (text.isEmpty()) {
+                return false;
+            }
+            char first = text.charAt(0);
+            return Character.isDigit(first) || "-+.{[".indexOf(first) >= 0
+                    || text.equalsIgnoreCase("null")
+                    || text.equalsIgnoreCase("infinity")
+                    || text.equalsIgnoreCase("nan");
+        }
+
+        private static Requirement allOf(List<Requirement> requirements) {
+            List<Requirement> flattened = new ArrayList<>();
+            for (Requirement requirement : requirements) {
+                if (requirement.equals(NEVER)) {
+                    return NEVER;
+                } else if (requirement instanceof AllOf allOf) {
+                    flattened.addAll(allOf.requirements());
+                } else {
+                    flattened.add(requirement);
+                }
+            }
+            return flattened.size() == 1 ? flattened.get(0) : new AllOf(List.copyOf(flattened));
+        }
+
+        private static Requirement anyOf(List<Requirement> requirements) {
+            List<Requirement> flattened = new ArrayList<>();
+            for (Requirement requirement : requirements) {
+                if (requirement.equals(ALWAYS)) {
+                    return ALWAYS;
+                } else if (requirement instanceof AnyOf anyOf) {
+                    flattened.addAll(anyOf.requirements());
+                } else {
+                    flattened.add(requirement);
+                }
+            }
+            return flattened.size() == 1 ? flattened.get(0) : new AnyOf(List.copyOf(flattened));
+        }
+    }
+}
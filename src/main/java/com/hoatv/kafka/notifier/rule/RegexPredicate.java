@@ -0,0 +1,78 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.re2j.Pattern;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Regular expression search in a text field.
+ * <p>
+ * Patterns use RE2 syntax and are matched by RE2/J in time linear in the length of the
+ * field, so no pattern or payload can make a record backtrack for long. Compiled patterns
+ * are shared through a bounded LRU cache, configurations using the same pattern and later
+ * versions of a configuration reuse it instead of compiling it again.
+ */
+public record RegexPredicate(FieldPath path, Pattern pattern) implements RulePredicate {
+
+    static final int MAXIMUM_CACHED_PATTERNS = 1024;
+
+    private static final Map<String, Pattern> PATTERNS = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Pattern> eldest) {
+            return size() > MAXIMUM_CACHED_PATTERNS;
+        }
+    };
+
+    /**
+     * Search a field for a pattern, compiling the pattern unless it is cached
+     *
+     * @throws com.google.re2j.PatternSyntaxException when the pattern is malformed
+     */
+    public static RegexPredicate of(FieldPath path, String regex) {
+        Pattern pattern;
+        synchronized (PATTERNS) {
+            pattern = PATTERNS.get(regex);
+        }
+        if (pattern == null) {
+            pattern = Pattern.compile(regex);
+            synchronized (PATTERNS) {
+                PATTERNS.put(regex, pattern);
+            }
+        }
+        return new RegexPredicate(path, pattern);
+    }
+
+    /**
+     * Number of compiled patterns currently cached
+     */
+    static int cachedPatterns() {
+        synchronized (PATTERNS) {
+            return PATTERNS.size();
+        }
+    }
+
+    /**
+     * Drop every cached pattern, so tests filling the cache do not leak into each other
+     */
+    static void clearCache() {
+        synchronized (PATTERNS) {
+            PATTERNS.clear();
+        }
+    }
+
+    @Override
+    public boolean test(JsonNode message) {
+        JsonNode fieldNode = path.resolve(message);
+        if (fieldNode == null || !fieldNode.isTextual()) {
+            return false;
+        }
+        return pattern.matcher(fieldNode.asText()).find();
+    }
+
+    @Override
+    public boolean canThrow() {
+        return false;
+    }
+}
@@ -0,0 +1,320 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+
+import java.lang.constant.ConstantDescs;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates a hidden class that evaluates a compiled rule tree as straight-line code.
+ * <p>
+ * Every node becomes a small static method of the generated class: field paths turn into
+ * chained {@link JsonNode#get(String)} calls on constant segments, thresholds and search
+ * values into constants, and {@code $and}/{@code $or} into branches, so the JIT can inline
+ * the whole rule instead of dispatching through a megamorphic {@link RulePredicate#test}.
+ * Equality constants and nodes without a specialised form are kept as class data and called
+ * directly, which keeps the generated class exactly as strict as the interpreter.
+ */
+public final class RuleClassGenerator {
+
+    /**
+     * Largest {@code $in} list unrolled into the generated method
+     */
+    private static final int MAX_UNROLLED_VALUES = 256;
+
+    private static final String CLASS_NAME = Type.getInternalName(RuleClassGenerator.class) + "$Rule";
+    private static final String JSON_NODE = Type.getInternalName(JsonNode.class);
+    private static final String JSON_NODE_DESC = Type.getDescriptor(JsonNode.class);
+    private static final String TEST_DESC = Type.getMethodDescriptor(Type.BOOLEAN_TYPE, Type.getType(JsonNode.class));
+    private static final String RULE_CONSTANT = Type.getInternalName(RuleConstant.class);
+    private static final String RULE_PREDICATE = Type.getInternalName(RulePredicate.class);
+
+    private final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+    /**
+     * Generate and load the class of a rule tree, returning its instance
+     *
+     * @throws IllegalStateException when the class cannot be generated or defined
+     */
+    public RulePredicate generate(RulePredicate predicate) {
+        ClassGeneration generation = new ClassGeneration();
+        byte[] bytecode = generation.generate(predicate);
+        try {
+            MethodHandles.Lookup generated = lookup.defineHiddenClassWithClassData(
+                    bytecode, generation.constants.toArray(), true);
+            return (RulePredicate) generated.findConstructor(generated.lookupClass(), MethodType.methodType(void.class))
+                    .invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to define generated rule class: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * State of one class being generated: the node methods and the class data constants
+     */
+    private static final class ClassGeneration {
+
+        private final ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        private final List<Object> constants = new ArrayList<>();
+        private final List<String> constantTypes = new ArrayList<>();
+        private final Map<Object, String> constantFields = new IdentityHashMap<>();
+        private int methodCount;
+
+        private byte[] generate(RulePredicate predicate) {
+            classWriter.visit(Opcodes.V17, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER,
+                    CLASS_NAME, null, "java/lang/Object", new String[]{RULE_PREDICATE});
+
+            String root = generateNode(predicate);
+            generateConstructor();
+            generateTest(root);
+            generateStaticInitializer();
+
+            classWriter.visitEnd();
+            return classWriter.toByteArray();
+        }
+
+        /**
+         * Generate the method of a node and its children, returning the method name
+         */
+        private String generateNode(RulePredicate predicate) {
+            if (predicate instanceof AndPredicate and) {
+                return generateLogical(childMethods(and.children()), true);
+            } else if (predicate instanceof OrPredicate or) {
+                return generateLogical(childMethods(or.children()), false);
+            } else if (predicate instanceof NotPredicate not) {
+                return generateNot(generateNode(not.delegate()));
+            }
+
+            String name = "p" + methodCount++;
+            MethodVisitor mv = nodeMethod(name);
+            if (predicate instanceof ConstantPredicate constant) {
+                mv.visitInsn(constant == ConstantPredicate.TRUE ? Opcodes.ICONST_1 : Opcodes.ICONST_0);
+                mv.visitInsn(Opcodes.IRETURN);
+            } else if (predicate instanceof ComparisonPredicate comparison) {
+                generateComparison(mv, comparison);
+            } else if (predicate instanceof EqualsPredicate equals) {
+                generateMembership(mv, equals.path(), List.of(equals.value()));
+            } else if (predicate instanceof InPredicate in && in.values().size() <= MAX_UNROLLED_VALUES) {
+                generateMembership(mv, in.path(), in.values());
+            } else if (predicate instanceof ContainsPredicate contains) {
+                generateContains(mv, contains);
+            } else {
+                // Delegate to the node itself, it throws exactly when the interpreter would
+                mv.visitFieldInsn(Opcodes.GETSTATIC, CLASS_NAME, constantField(predicate, RULE_PREDICATE),
+                        "L" + RULE_PREDICATE + ";");
+                mv.visitVarInsn(Opcodes.ALOAD, 0);
+                mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, RULE_PREDICATE, "test", TEST_DESC, true);
+                mv.visitInsn(Opcodes.IRETURN);
+            }
+            endMethod(mv);
+            return name;
+        }
+
+        private List<String> childMethods(List<RulePredicate> children) {
+            List<String> methods = new ArrayList<>(children.size());
+            children.forEach(child -> methods.add(generateNode(child)));
+            return methods;
+        }
+
+        private String generateLogical(List<String> children, boolean conjunction) {
+            String name = "p" + methodCount++;
+            MethodVisitor mv = nodeMethod(name);
+            Label decided = new Label();
+            for (String child : children) {
+                invokeNode(mv, child);
+                mv.visitJumpInsn(conjunction ? Opcodes.IFEQ : Opcodes.IFNE, decided);
+            }
+            mv.visitInsn(conjunction ? Opcodes.ICONST_1 : Opcodes.ICONST_0);
+            mv.visitInsn(Opcodes.IRETURN);
+            mv.visitLabel(decided);
+            mv.visitInsn(conjunction ? Opcodes.ICONST_0 : Opcodes.ICONST_1);
+            mv.visitInsn(Opcodes.IRETURN);
+            endMethod(mv);
+            return name;
+        }
+
+        private String generateNot(String delegate) {
+            String name = "p" + methodCount++;
+            MethodVisitor mv = nodeMethod(name);
+            invokeNode(mv, delegate);
+            mv.visitInsn(Opcodes.ICONST_1);
+            mv.visitInsn(Opcodes.IXOR);
+            mv.visitInsn(Opcodes.IRETURN);
+            endMethod(mv);
+            return name;
+        }
+
+        private void generateComparison(MethodVisitor mv, ComparisonPredicate comparison) {
+            Label fail = new Label();
+            resolveNumber(mv, comparison.path(), fail);
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, JSON_NODE, "asDouble", "()D", false);
+            mv.visitLdcInsn(comparison.threshold());
+            // NaN on either side fails every comparison, as with the Java operators
+            switch (comparison.operator()) {
+                case GT -> { mv.visitInsn(Opcodes.DCMPL); mv.visitJumpInsn(Opcodes.IFLE, fail); }
+                case GTE -> { mv.visitInsn(Opcodes.DCMPL); mv.visitJumpInsn(Opcodes.IFLT, fail); }
+                case LT -> { mv.visitInsn(Opcodes.DCMPG); mv.visitJumpInsn(Opcodes.IFGE, fail); }
+                case LTE -> { mv.visitInsn(Opcodes.DCMPG); mv.visitJumpInsn(Opcodes.IFGT, fail); }
+            }
+            returnTrueOrFail(mv, fail);
+        }
+
+        private void generateMembership(MethodVisitor mv, FieldPath path, List<RuleConstant> values) {
+            Label fail = new Label();
+            Label match = new Label();
+            resolve(mv, path);
+            mv.visitVarInsn(Opcodes.ASTORE, 1);
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            mv.visitJumpInsn(Opcodes.IFNULL, fail);
+            for (RuleConstant value : values) {
+                mv.visitFieldInsn(Opcodes.GETSTATIC, CLASS_NAME, constantField(value, RULE_CONSTANT),
+                        "L" + RULE_CONSTANT + ";");
+                mv.visitVarInsn(Opcodes.ALOAD, 1);
+                mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, RULE_CONSTANT, "matches", TEST_DESC, false);
+                mv.visitJumpInsn(Opcodes.IFNE, match);
+            }
+            mv.visitJumpInsn(Opcodes.GOTO, fail);
+            mv.visitLabel(match);
+            returnTrueOrFail(mv, fail);
+        }
+
+        private void generateContains(MethodVisitor mv, ContainsPredicate contains) {
+            Label fail = new Label();
+            resolve(mv, contains.path());
+            mv.visitVarInsn(Opcodes.ASTORE, 1);
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            mv.visitJumpInsn(Opcodes.IFNULL, fail);
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, JSON_NODE, "isTextual", "()Z", false);
+            mv.visitJumpInsn(Opcodes.IFEQ, fail);
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, JSON_NODE, "asText", "()Ljava/lang/String;", false);
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/String", "toLowerCase", "()Ljava/lang/String;", false);
+            mv.visitLdcInsn(contains.searchValue());
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/String", "contains",
+                    "(Ljava/lang/CharSequence;)Z", false);
+            mv.visitInsn(Opcodes.IRETURN);
+            mv.visitLabel(fail);
+            mv.visitInsn(Opcodes.ICONST_0);
+            mv.visitInsn(Opcodes.IRETURN);
+        }
+
+        /**
+         * Leave the numeric field on the stack, jumping to fail when it is missing or not a number
+         */
+        private void resolveNumber(MethodVisitor mv, FieldPath path, Label fail) {
+            resolve(mv, path);
+            mv.visitVarInsn(Opcodes.ASTORE, 1);
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            mv.visitJumpInsn(Opcodes.IFNULL, fail);
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, JSON_NODE, "isNumber", "()Z", false);
+            mv.visitJumpInsn(Opcodes.IFEQ, fail);
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+        }
+
+        /**
+         * Leave the resolved field, or null when a segment is missing, on the stack
+         */
+        private void resolve(MethodVisitor mv, FieldPath path) {
+            Label resolved = new Label();
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            for (String segment : path.segments()) {
+                mv.visitInsn(Opcodes.DUP);
+                mv.visitJumpInsn(Opcodes.IFNULL, resolved);
+                mv.visitLdcInsn(segment);
+                mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, JSON_NODE, "get",
+                        "(Ljava/lang/String;)" + JSON_NODE_DESC, false);
+            }
+            mv.visitLabel(resolved);
+        }
+
+        private void returnTrueOrFail(MethodVisitor mv, Label fail) {
+            mv.visitInsn(Opcodes.ICONST_1);
+            mv.visitInsn(Opcodes.IRETURN);
+            mv.visitLabel(fail);
+            mv.visitInsn(Opcodes.ICONST_0);
+            mv.visitInsn(Opcodes.IRETURN);
+        }
+
+        private MethodVisitor nodeMethod(String name) {
+            MethodVisitor mv = classWriter.visitMethod(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC, name, TEST_DESC, null, null);
+            mv.visitCode();
+            return mv;
+        }
+
+        private static void invokeNode(MethodVisitor mv, String name) {
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, CLASS_NAME, name, TEST_DESC, false);
+        }
+
+        private static void endMethod(MethodVisitor mv) {
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        private String constantField(Object constant, String type) {
+            return constantFields.computeIfAbsent(constant, key -> {
+                String field = "c" + constants.size();
+                constants.add(key);
+                constantTypes.add(type);
+                classWriter.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL,
+                        field, "L" + type + ";", null, null).visitEnd();
+                return field;
+            });
+        }
+
+        private void generateConstructor() {
+            MethodVisitor mv = classWriter.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+            mv.visitCode();
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+            mv.visitInsn(Opcodes.RETURN);
+            endMethod(mv);
+        }
+
+        private void generateTest(String root) {
+            MethodVisitor mv = classWriter.visitMethod(Opcodes.ACC_PUBLIC, "test", TEST_DESC, null, null);
+            mv.visitCode();
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, CLASS_NAME, root, TEST_DESC, false);
+            mv.visitInsn(Opcodes.IRETURN);
+            endMethod(mv);
+        }
+
+        /**
+         * Copy the class data into the static final constant fields
+         */
+        private void generateStaticInitializer() {
+            MethodVisitor mv = classWriter.visitMethod(Opcodes.ACC_STATIC, "<clinit>", "()V", null, null);
+            mv.visitCode();
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/invoke/MethodHandles", "lookup",
+                    "()Ljava/lang/invoke/MethodHandles$Lookup;", false);
+            mv.visitLdcInsn(ConstantDescs.DEFAULT_NAME);
+            mv.visitLdcInsn(Type.getType(Object[].class));
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/invoke/MethodHandles", "classData",
+                    "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/Class;)Ljava/lang/Object;", false);
+            mv.visitTypeInsn(Opcodes.CHECKCAST, "[Ljava/lang/Object;");
+            mv.visitVarInsn(Opcodes.ASTORE, 0);
+            for (int i = 0; i < constants.size(); i++) {
+                mv.visitVarInsn(Opcodes.ALOAD, 0);
+                mv.visitLdcInsn(i);
+                mv.visitInsn(Opcodes.AALOAD);
+                mv.visitTypeInsn(Opcodes.CHECKCAST, constantTypes.get(i));
+                mv.visitFieldInsn(Opcodes.PUTSTATIC, CLASS_NAME, "c" + i, "L" + constantTypes.get(i) + ";");
+            }
+            mv.visitInsn(Opcodes.RETURN);
+            endMethod(mv);
+        }
+    }
+}
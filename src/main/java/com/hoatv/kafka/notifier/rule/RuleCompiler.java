@@ -0,0 +1,309 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.google.re2j.PatternSyntaxException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compiles the MongoDB-like rule map of a notifier configuration into an immutable
+ * {@link RulePredicate} tree.
+ * <p>
+ * Operators are resolved, field paths split and numeric thresholds parsed once here
+ * instead of on every record. The tree keeps the evaluation order and outcome of the
+ * rule map: unsupported operators evaluate to false and malformed parts fail the
+ * evaluation only when they are reached.
+ */
+public class RuleCompiler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RuleCompiler.class);
+
+    private static final String FIELD = "$field";
+    private static final String VALUE = "$value";
+    private static final String VALUES = "$values";
+    private static final String WHERE = "$where";
+    private static final String WINDOW = "$window";
+    private static final String GROUP_BY = "$groupBy";
+    private static final Set<String> FIELD_OPERATORS = Set.of(
+            "$gt", "$gte", "$lt", "$lte", "$eq", "$ne", "$in", "$contains", "$regex", "$any", "$all");
+
+    public CompiledRule compile(String configurationId, long version, Map<String, Object> rules) {
+        return new CompiledRule(configurationId, version, compile(rules));
+    }
+
+    /**
+     * Compile a rule expression, see {@link RuleExpressionParser}.
+     * Expressions are validated when they are saved, one that no longer parses fails every evaluation.
+     */
+    public CompiledRule compileExpression(String configurationId, long version, String expression) {
+        try {
+            return new CompiledRule(configurationId, version, RuleExpressionParser.parse(expression));
+        } catch (RuleExpressionException e) {
+            LOGGER.warn("Invalid rule expression '{}': {}", expression, e.getMessage());
+            return new CompiledRule(configurationId, version, new InvalidPredicate(e.getMessage()));
+        }
+    }
+
+    public RulePredicate compile(Map<String, Object> rules) {
+        if (rules == null) {
+            return new InvalidPredicate("Rules are missing");
+        }
+
+        List<RulePredicate> conditions = new ArrayList<>(rules.size());
+        for (Map.Entry<String, Object> entry : rules.entrySet()) {
+            String operator = entry.getKey();
+            Object value = entry.getValue();
+
+            if (FIELD_OPERATORS.contains(operator) && hasWildcard(value)) {
+                conditions.add(compileElements(operator, (Map<?, ?>) value));
+                continue;
+            }
+
+            RulePredicate condition = switch (operator) {
+                case "$and" -> compileLogical(operator, value, true);
+                case "$or" -> compileLogical(operator, value, false);
+                case "$gt" -> compileComparison(ComparisonOperator.GT, value);
+                case "$gte" -> compileComparison(ComparisonOperator.GTE, value);
+                case "$lt" -> compileComparison(ComparisonOperator.LT, value);
+                case "$lte" -> compileComparison(ComparisonOperator.LTE, value);
+                case "$eq" -> compileEquals(operator, value);
+                case "$ne" -> negate(compileEquals(operator, value));
+                case "$in" -> compileIn(operator, value);
+                case "$contains" -> compileContains(operator, value);
+                case "$regex" -> compileRegex(operator, value);
+                case "$any" -> compileQuantifier(operator, value, false);
+                case "$all" -> compileQuantifier(operator, value, true);
+                case "$avg" -> compileAggregate(AggregateFunction.AVG, value);
+                case "$count" -> compileAggregate(AggregateFunction.COUNT, value);
+                case "$max" -> compileAggregate(AggregateFunction.MAX, value);
+                case "$min" -> compileAggregate(AggregateFunction.MIN, value);
+                case "$sum" -> compileAggregate(AggregateFunction.SUM, value);
+                default -> {
+                    LOGGER.warn("Unsupported operator: {}", operator);
+                    yield ConstantPredicate.FALSE;
+                }
+            };
+
+            conditions.add(condition);
+            if (condition == ConstantPredicate.FALSE) {
+                // Nothing after a condition that can never hold is ever evaluated
+                break;
+            }
+        }
+
+        if (conditions.isEmpty()) {
+            return ConstantPredicate.TRUE;
+        }
+        return conditions.size() == 1 ? conditions.get(0) : new AndPredicate(conditions);
+    }
+
+    @SuppressWarnings("unchecked")
+    private RulePredicate compileLogical(String operator, Object value, boolean conjunction) {
+        if (!(value instanceof List<?> conditions)) {
+            return invalid(operator, "expects a list of conditions");
+        }
+
+        List<RulePredicate> children = new ArrayList<>(conditions.size());
+        for (Object condition : conditions) {
+            if (condition instanceof Map<?, ?> || condition == null) {
+                children.add(compile((Map<String, Object>) condition));
+            } else {
+                children.add(invalid(operator, "expects every condition to be an object"));
+            }
+        }
+        return conjunction ? new AndPredicate(children) : new OrPredicate(children);
+    }
+
+    private RulePredicate compileComparison(ComparisonOperator operator, Object value) {
+        Map<?, ?> condition = asCondition(value);
+        if (condition == null || !hasTextField(condition)) {
+            return invalid(operator.operator(), "expects an object with an optional text $field");
+        }
+
+        Object compareValue = condition.get(VALUE);
+        if (compareValue == null) {
+            return ConstantPredicate.FALSE;
+        }
+
+        FieldPath path = fieldPath(condition);
+        try {
+            return new ComparisonPredicate(path, operator, Double.parseDouble(compareValue.toString()));
+        } catch (NumberFormatException e) {
+            LOGGER.warn("Non-numeric value '{}' for operator {} on {}", compareValue, operator.operator(), path);
+            return new MalformedComparisonPredicate(path, compareValue.toString());
+        }
+    }
+
+    private RulePredicate compileEquals(String operator, Object value) {
+        Map<?, ?> condition = asCondition(value);
+        if (condition == null || !hasTextField(condition)) {
+            return invalid(operator, "expects an object with an optional text $field");
+        }
+
+        Object expectedValue = condition.get(VALUE);
+        if (condition.get(FIELD) == null && expectedValue == null) {
+            return ConstantPredicate.FALSE;
+        }
+        return new EqualsPredicate(fieldPath(condition), RuleConstant.of(expectedValue));
+    }
+
+    private RulePredicate compileIn(String operator, Object value) {
+        Map<?, ?> condition = asCondition(value);
+        if (condition == null || !hasTextField(condition)) {
+            return invalid(operator, "expects an object with an optional text $field");
+        }
+
+        Object values = condition.get(VALUES);
+        if (values == null) {
+            return ConstantPredicate.FALSE;
+        }
+        if (!(values instanceof List<?> list)) {
+            return invalid(operator, "expects $values to be a list");
+        }
+        return new InPredicate(fieldPath(condition), list.stream().map(RuleConstant::of).toList());
+    }
+
+    private RulePredicate compileContains(String operator, Object value) {
+        Map<?, ?> condition = asCondition(value);
+        if (condition == null || !hasTextField(condition)) {
+            return invalid(operator, "expects an object with an optional text $field");
+        }
+
+        Object searchValue = condition.get(VALUE);
+        if (searchValue == null) {
+            return ConstantPredicate.FALSE;
+        }
+        if (!(searchValue instanceof String text)) {
+            return invalid(operator, "expects a text $value");
+        }
+        return new ContainsPredicate(fieldPath(condition), text.toLowerCase());
+    }
+
+    private RulePredicate compileRegex(String operator, Object value) {
+        Map<?, ?> condition = asCondition(value);
+        if (condition == null || !hasTextField(condition)) {
+            return invalid(operator, "expects an object with an optional text $field");
+        }
+
+        Object regex = condition.get(VALUE);
+        if (regex == null) {
+            return ConstantPredicate.FALSE;
+        }
+        if (!(regex instanceof String text)) {
+            return invalid(operator, "expects a text $value");
+        }
+        try {
+            return RegexPredicate.of(fieldPath(condition), text);
+        } catch (PatternSyntaxException e) {
+            return invalid(operator, "has an invalid pattern: " + e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private RulePredicate compileQuantifier(String operator, Object value, boolean all) {
+        Map<?, ?> condition = asCondition(value);
+        if (condition == null || !hasTextField(condition)) {
+            return invalid(operator, "expects an object with an optional text $field");
+        }
+        if (!(condition.get(WHERE) instanceof Map<?, ?> where)) {
+            return invalid(operator, "expects a $where condition object");
+        }
+        return new QuantifiedPredicate(fieldPath(condition), all, compile((Map<String, Object>) where));
+    }
+
+    /**
+     * Compile a windowed aggregate such as
+     * {@code {"$avg": {"$field": "latency", "$window": "1m", "$groupBy": "service", "$gt": 500}}}
+     */
+    private RulePredicate compileAggregate(AggregateFunction function, Object value) {
+        String operator = function.operator();
+        Map<?, ?> condition = asCondition(value);
+        if (condition == null || !hasTextField(condition)
+                || condition.get(GROUP_BY) != null && !(condition.get(GROUP_BY) instanceof String)) {
+            return invalid(operator, "expects an object with an optional text $field and $groupBy");
+        }
+
+        long windowMillis;
+        try {
+            windowMillis = AggregatePredicate.windowMillis(condition.get(WINDOW));
+        } catch (IllegalArgumentException e) {
+            return invalid(operator, "expects a $window such as 60, \"30s\", \"5m\" or \"1h\"");
+        }
+
+        List<ComparisonOperator> comparisons = Arrays.stream(ComparisonOperator.values())
+                .filter(comparison -> condition.get(comparison.operator()) != null)
+                .toList();
+        if (comparisons.size() != 1) {
+            return invalid(operator, "expects exactly one of $gt, $gte, $lt and $lte");
+        }
+        ComparisonOperator comparison = comparisons.get(0);
+        double threshold;
+        try {
+            threshold = Double.parseDouble(condition.get(comparison.operator()).toString());
+        } catch (NumberFormatException e) {
+            return invalid(operator, "expects a numeric " + comparison.operator());
+        }
+
+        FieldPath path = function == AggregateFunction.COUNT && condition.get(FIELD) == null ? null : fieldPath(condition);
+        FieldPath groupBy = condition.get(GROUP_BY) != null ? FieldPath.parse((String) condition.get(GROUP_BY)) : null;
+        return new AggregatePredicate(function, path, windowMillis, groupBy, comparison, threshold);
+    }
+
+    /**
+     * Compile a condition whose {@code $field} steps into arrays with {@code [*]} as a condition
+     * on the rest of the path holding for any element
+     */
+    private RulePredicate compileElements(String operator, Map<?, ?> condition) {
+        return QuantifiedPredicate.anyElement((String) condition.get(FIELD), path -> {
+            Map<String, Object> element = new LinkedHashMap<>();
+            condition.forEach((key, value) -> element.put((String) key, value));
+            if (path.isRoot()) {
+                element.remove(FIELD);
+            } else {
+                element.put(FIELD, path.toString());
+            }
+            return compile(Map.of(operator, element));
+        });
+    }
+
+    private static RulePredicate negate(RulePredicate predicate) {
+        if (predicate instanceof ConstantPredicate constant) {
+            return constant == ConstantPredicate.TRUE ? ConstantPredicate.FALSE : ConstantPredicate.TRUE;
+        }
+        if (predicate instanceof InvalidPredicate) {
+            return predicate;
+        }
+        return new NotPredicate(predicate);
+    }
+
+    private static boolean hasWildcard(Object value) {
+        return value instanceof Map<?, ?> condition
+                && condition.get(FIELD) instanceof String field
+                && field.contains(QuantifiedPredicate.WILDCARD);
+    }
+
+    private static Map<?, ?> asCondition(Object value) {
+        return value instanceof Map<?, ?> condition ? condition : null;
+    }
+
+    private static boolean hasTextField(Map<?, ?> condition) {
+        Object field = condition.get(FIELD);
+        return field == null || field instanceof String;
+    }
+
+    private static FieldPath fieldPath(Map<?, ?> condition) {
+        Object field = condition.get(FIELD);
+        return field != null ? FieldPath.parse((String) field) : FieldPath.ROOT;
+    }
+
+    private static RulePredicate invalid(String operator, String reason) {
+        LOGGER.warn("Invalid rule for operator {}: {}", operator, reason);
+        return new InvalidPredicate(operator + " " + reason);
+    }
+}
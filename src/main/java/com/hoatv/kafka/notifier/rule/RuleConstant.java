@@ -0,0 +1,88 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Objects;
+
+/**
+ * Constant operand of an equality or membership rule.
+ * <p>
+ * The numeric, text and boolean views of the configured value are computed once
+ * so comparing against a message node does not convert the constant again.
+ */
+public final class RuleConstant {
+
+    private final Object value;
+    private final boolean numeric;
+    private final double number;
+    private final String text;
+    private final boolean bool;
+
+    private RuleConstant(Object value) {
+        this.value = value;
+        this.numeric = value instanceof Number;
+        this.number = numeric ? ((Number) value).doubleValue() : 0d;
+        this.text = value != null ? value.toString() : null;
+        this.bool = Boolean.parseBoolean(text);
+    }
+
+    public static RuleConstant of(Object value) {
+        return new RuleConstant(value);
+    }
+
+    /**
+     * Check whether a message node equals this constant
+     * Numbers compare numerically, text and booleans by value, anything else by its JSON form
+     */
+    public boolean matches(JsonNode node) {
+        if (node.isNumber() && numeric) {
+            return Double.compare(node.asDouble(), number) == 0;
+        } else if (node.isTextual()) {
+            return node.asText().equals(text());
+        } else if (node.isBoolean()) {
+            return node.asBoolean() == bool();
+        }
+        return node.toString().equals(text());
+    }
+
+    public Object value() {
+        return value;
+    }
+
+    public boolean isNumeric() {
+        return numeric;
+    }
+
+    public double number() {
+        return number;
+    }
+
+    private String text() {
+        if (text == null) {
+            throw new NullPointerException("Rule value is null");
+        }
+        return text;
+    }
+
+    private boolean bool() {
+        text();
+        return bool;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof RuleConstant that)) return false;
+        return Objects.equals(value, that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(value);
+    }
+}
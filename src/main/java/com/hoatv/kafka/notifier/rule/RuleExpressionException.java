@@ -0,0 +1,20 @@
+package com.hoatv.kafka.notifier.rule;
+
+/**
+ * Malformed rule expression, with the character offset the parser stopped at
+ */
+public class RuleExpressionException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int position;
+
+    public RuleExpressionException(String message, int position) {
+        super(message + " at position " + position);
+        this.position = position;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+}
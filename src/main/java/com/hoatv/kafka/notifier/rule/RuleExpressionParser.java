@@ -0,0 +1,373 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.google.re2j.PatternSyntaxException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses the compact rule syntax of a configuration's {@code expression} straight into the
+ * {@link RulePredicate} tree the equivalent rule map compiles to, for example
+ * {@code cpu > 80 && status in ('error', 'fatal') && msg ~ 'timeout'}.
+ * <p>
+ * Conditions compare a dotted field path, or {@code $value} for the whole message, with a
+ * literal: {@code > >= < <=} take a number, {@code == !=} any number, text or boolean,
+ * {@code in}/{@code not in} a parenthesized list, {@code ~} a text searched case-insensitively and
+ * {@code matches} a quoted RE2 pattern. Fields can step into arrays with {@code [*]}, so
+ * {@code disks[*].used > 90} holds when any element does, while {@code any(disks, ...)} and
+ * {@code all(disks, ...)} apply a condition to each element of an array. Windowed aggregates
+ * compare with a number, as in {@code avg(latency, '1m', service) > 500} or {@code count('5m') >= 100}.
+ * Conditions combine with {@code && || !} (or {@code and or not}) and parentheses, {@code &&}
+ * binding tighter than {@code ||}. Unlike rule maps, malformed expressions are rejected when parsed.
+ */
+public final class RuleExpressionParser {
+
+    private static final String ROOT_VALUE = "$value";
+    private static final List<String> QUANTIFIERS = List.of("any", "all");
+
+    private final String expression;
+    private int position;
+
+    private RuleExpressionParser(String expression) {
+        this.expression = expression;
+    }
+
+    /**
+     * Parse an expression into a predicate tree
+     *
+     * @throws RuleExpressionException when the expression is malformed
+     */
+    public static RulePredicate parse(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new RuleExpressionException("Expression is empty", 0);
+        }
+        RuleExpressionParser parser = new RuleExpressionParser(expression);
+        RulePredicate predicate = parser.parseOr();
+        parser.skipWhitespace();
+        if (parser.position < expression.length()) {
+            throw parser.error("Unexpected '" + expression.charAt(parser.position) + "'");
+        }
+        return predicate;
+    }
+
+    private RulePredicate parseOr() {
+        List<RulePredicate> children = new ArrayList<>();
+        children.add(parseAnd());
+        while (accept("||") || acceptKeyword("or")) {
+            children.add(parseAnd());
+        }
+        return children.size() == 1 ? children.get(0) : new OrPredicate(children);
+    }
+
+    private RulePredicate parseAnd() {
+        List<RulePredicate> children = new ArrayList<>();
+        children.add(parseUnary());
+        while (accept("&&") || acceptKeyword("and")) {
+            children.add(parseUnary());
+        }
+        return children.size() == 1 ? children.get(0) : new AndPredicate(children);
+    }
+
+    private RulePredicate parseUnary() {
+        if (acceptNot()) {
+            return new NotPredicate(parseUnary());
+        }
+        if (accept("(")) {
+            RulePredicate predicate = parseOr();
+            expect(")");
+            return predicate;
+        }
+        for (AggregateFunction function : AggregateFunction.values()) {
+            int start = position;
+            if (acceptKeyword(function.operator().substring(1)) && accept("(")) {
+                return parseAggregate(function);
+            }
+            position = start;
+        }
+        for (String quantifier : QUANTIFIERS) {
+            int start = position;
+            if (acceptKeyword(quantifier) && accept("(")) {
+                return parseQuantifier(quantifier.equals("all"));
+            }
+            position = start;
+        }
+        if (acceptKeyword("true")) {
+            return ConstantPredicate.TRUE;
+        }
+        if (acceptKeyword("false")) {
+            return ConstantPredicate.FALSE;
+        }
+        return parseCondition();
+    }
+
+    private RulePredicate parseCondition() {
+        return QuantifiedPredicate.anyElement(parseField(), this::parseOperation);
+    }
+
+    private RulePredicate parseQuantifier(boolean all) {
+        return QuantifiedPredicate.anyElement(parseField(), path -> {
+            expect(",");
+            RulePredicate condition = parseOr();
+            expect(")");
+            return new QuantifiedPredicate(path, all, condition);
+        });
+    }
+
+    /**
+     * Windowed aggregate such as {@code avg(latency, '1m', service) > 500} or {@code count('5m') >= 100}
+     */
+    private RulePredicate parseAggregate(AggregateFunction function) {
+        skipWhitespace();
+        FieldPath path = null;
+        char next = charAt(position);
+        if (function != AggregateFunction.COUNT || !(next == '\'' || next == '"' || Character.isDigit(next))) {
+            path = parseAggregatedPath();
+            expect(",");
+        }
+
+        skipWhitespace();
+        int start = position;
+        long windowMillis;
+        try {
+            windowMillis = AggregatePredicate.windowMillis(parseLiteral());
+        } catch (IllegalArgumentException e) {
+            position = start;
+            throw error("Expected a window such as 60, '30s', '5m' or '1h'");
+        }
+        FieldPath groupBy = accept(",") ? parseAggregatedPath() : null;
+        expect(")");
+
+        ComparisonOperator comparison = acceptComparison();
+        if (comparison == null) {
+            throw error("Expected a comparison after " + function.operator().substring(1) + "(...)");
+        }
+        return new AggregatePredicate(function, path, windowMillis, groupBy, comparison, parseThreshold());
+    }
+
+    private FieldPath parseAggregatedPath() {
+        String field = parseField();
+        if (field.contains(QuantifiedPredicate.WILDCARD)) {
+            throw error("Aggregates cannot read " + QuantifiedPredicate.WILDCARD + " fields");
+        }
+        return field.isEmpty() ? FieldPath.ROOT : FieldPath.parse(field);
+    }
+
+    private RulePredicate parseOperation(FieldPath path) {
+        ComparisonOperator comparison = acceptComparison();
+        if (comparison != null) {
+            return new ComparisonPredicate(path, comparison, parseThreshold());
+        } else if (accept("==")) {
+            return new EqualsPredicate(path, RuleConstant.of(parseLiteral()));
+        } else if (accept("!=")) {
+            return new NotPredicate(new EqualsPredicate(path, RuleConstant.of(parseLiteral())));
+        } else if (accept("~")) {
+            return new ContainsPredicate(path, parseText().toLowerCase());
+        } else if (acceptKeyword("matches")) {
+            return parseRegex(path);
+        } else if (acceptKeyword("in")) {
+            return new InPredicate(path, parseList());
+        } else if (acceptKeyword("not")) {
+            if (!acceptKeyword("in")) {
+                throw error("Expected 'in' after 'not'");
+            }
+            return new NotPredicate(new InPredicate(path, parseList()));
+        }
+        throw error("Expected an operator after " + path);
+    }
+
+    /**
+     * Dotted field reference, possibly stepping into arrays with {@code [*]}, empty for {@code $value}
+     */
+    private String parseField() {
+        skipWhitespace();
+        boolean root = expression.startsWith(ROOT_VALUE, position)
+                && !isIdentifierPart(charAt(position + ROOT_VALUE.length()));
+        if (root) {
+            position += ROOT_VALUE.length();
+            if (!expression.startsWith(QuantifiedPredicate.WILDCARD, position)) {
+                return "";
+            }
+        }
+
+        int start = position;
+        boolean segment = !root;
+        while (true) {
+            if (segment) {
+                if (!isIdentifierStart(charAt(position))) {
+                    throw error("Expected a field");
+                }
+                while (isIdentifierPart(charAt(position))) {
+                    position++;
+                }
+            }
+            while (expression.startsWith(QuantifiedPredicate.WILDCARD, position)) {
+                position += QuantifiedPredicate.WILDCARD.length();
+            }
+            if (charAt(position) != '.') {
+                return expression.substring(start, position);
+            }
+            position++;
+            segment = true;
+        }
+    }
+
+    private RulePredicate parseRegex(FieldPath path) {
+        int start = position;
+        String regex = parseText();
+        try {
+            return RegexPredicate.of(path, regex);
+        } catch (PatternSyntaxException e) {
+            position = start;
+            throw error("Invalid pattern, " + e.getMessage());
+        }
+    }
+
+    private List<RuleConstant> parseList() {
+        expect("(");
+        List<RuleConstant> values = new ArrayList<>();
+        if (!accept(")")) {
+            do {
+                values.add(RuleConstant.of(parseLiteral()));
+            } while (accept(","));
+            expect(")");
+        }
+        return values;
+    }
+
+    private double parseThreshold() {
+        if (!(parseLiteral() instanceof Number number)) {
+            throw error("Expected a number");
+        }
+        return number.doubleValue();
+    }
+
+    private String parseText() {
+        if (!(parseLiteral() instanceof String text)) {
+            throw error("Expected a quoted text");
+        }
+        return text;
+    }
+
+    /**
+     * Number (as the JSON form of a rule would hold it), quoted text or boolean
+     */
+    private Object parseLiteral() {
+        skipWhitespace();
+        char next = charAt(position);
+        if (next == '\'' || next == '"') {
+            return parseQuoted(next);
+        }
+        if (acceptKeyword("true")) {
+            return Boolean.TRUE;
+        }
+        if (acceptKeyword("false")) {
+            return Boolean.FALSE;
+        }
+
+        int start = position;
+        if (next == '-' || next == '+') {
+            position++;
+        }
+        while (Character.isDigit(charAt(position)) || ".eE".indexOf(charAt(position)) >= 0
+                || (charAt(position) == '-' || charAt(position) == '+') && "eE".indexOf(charAt(position - 1)) >= 0) {
+            position++;
+        }
+        String number = expression.substring(start, position);
+        try {
+            if (number.contains(".") || number.contains("e") || number.contains("E")) {
+                return Double.parseDouble(number);
+            }
+            long value = Long.parseLong(number);
+            return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE ? (Object) (int) value : (Object) value;
+        } catch (NumberFormatException e) {
+            position = start;
+            throw error("Expected a number, a quoted text or a boolean");
+        }
+    }
+
+    private String parseQuoted(char quote) {
+        int start = position++;
+        StringBuilder text = new StringBuilder();
+        while (position < expression.length()) {
+            char c = expression.charAt(position++);
+            if (c == quote) {
+                return text.toString();
+            }
+            if (c == '\\' && position < expression.length()) {
+                c = expression.charAt(position++);
+            }
+            text.append(c);
+        }
+        position = start;
+        throw error("Unterminated text");
+    }
+
+    private ComparisonOperator acceptComparison() {
+        if (accept(">=")) {
+            return ComparisonOperator.GTE;
+        } else if (accept("<=")) {
+            return ComparisonOperator.LTE;
+        } else if (accept(">")) {
+            return ComparisonOperator.GT;
+        } else if (accept("<")) {
+            return ComparisonOperator.LT;
+        }
+        return null;
+    }
+
+    private boolean acceptNot() {
+        skipWhitespace();
+        if (charAt(position) == '!' && charAt(position + 1) != '=') {
+            position++;
+            return true;
+        }
+        return acceptKeyword("not");
+    }
+
+    private boolean accept(String token) {
+        skipWhitespace();
+        if (expression.startsWith(token, position)) {
+            position += token.length();
+            return true;
+        }
+        return false;
+    }
+
+    private boolean acceptKeyword(String keyword) {
+        skipWhitespace();
+        int end = position + keyword.length();
+        if (expression.regionMatches(true, position, keyword, 0, keyword.length()) && !isIdentifierPart(charAt(end))) {
+            position = end;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(String token) {
+        if (!accept(token)) {
+            throw error("Expected '" + token + "'");
+        }
+    }
+
+    private void skipWhitespace() {
+        while (Character.isWhitespace(charAt(position))) {
+            position++;
+        }
+    }
+
+    private char charAt(int index) {
+        return index < expression.length() ? expression.charAt(index) : '\0';
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return Character.isLetter(c) || c == '_' || c == '$' || c == '@';
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return isIdentifierStart(c) || Character.isDigit(c) || c == '-';
+    }
+
+    private RuleExpressionException error(String message) {
+        return new RuleExpressionException(message, position);
+    }
+}
@@ -0,0 +1,54 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * Node of a compiled rule tree.
+ * <p>
+ * Implementations are immutable and safe to share between threads. Structural
+ * equality is part of the contract so identical conditions can be recognised.
+ */
+@FunctionalInterface
+public interface RulePredicate {
+
+    /**
+     * Evaluate this node against a parsed message
+     *
+     * @param message the parsed Kafka message
+     * @return true if the condition holds
+     */
+    boolean test(JsonNode message);
+
+    /**
+     * Direct child conditions, empty for leaf conditions
+     */
+    default List<RulePredicate> children() {
+        return List.of();
+    }
+
+    /**
+     * Field read by this condition, null when it reads none
+     */
+    default FieldPath path() {
+        return null;
+    }
+
+    /**
+     * Whether evaluating this node can throw. Sibling conditions that cannot throw may be
+     * evaluated in any order without changing the outcome of the rule.
+     */
+    default boolean canThrow() {
+        return true;
+    }
+
+    /**
+     * Whether evaluating this node updates state kept across records, such as the window of an
+     * aggregate. Such nodes must be reached by exactly the records and in the order the rule
+     * itself would reach them, so they are never skipped, shared, cached or reordered.
+     */
+    default boolean isStateful() {
+        return children().stream().anyMatch(RulePredicate::isStateful);
+    }
+}
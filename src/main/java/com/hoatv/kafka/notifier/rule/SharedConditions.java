@@ -0,0 +1,200 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rule trees of a topic with identical sub-conditions merged into one shared DAG.
+ * <p>
+ * Structurally equal nodes of every rule are hash-consed into a single instance, and each node
+ * reached from more than one place gets a slot in a per-record {@link Memo}: it is evaluated at
+ * most once per record, and a failure is replayed to every rule reaching it, so the cost of a
+ * record follows the number of distinct conditions rather than the number of configurations.
+ * Junctions are still walked in declaration order, so every rule gets the outcome its own
+ * tree gives.
+ */
+public final class SharedConditions {
+
+    private final List<RulePredicate> trees;
+    private final int sharedCount;
+
+    private SharedConditions(List<RulePredicate> trees, int sharedCount) {
+        this.trees = trees;
+        this.sharedCount = sharedCount;
+    }
+
+    /**
+     * Merge the trees of the given rules, in rule order
+     */
+    static SharedConditions build(List<CompiledRule> rules) {
+        Map<RulePredicate, RulePredicate> canonical = new HashMap<>();
+        List<RulePredicate> interned = rules.stream()
+                .map(rule -> intern(rule.predicate(), canonical))
+                .toList();
+
+        Map<RulePredicate, Integer> references = new IdentityHashMap<>();
+        interned.forEach(tree -> countReferences(tree, references));
+
+        Map<RulePredicate, RulePredicate> rewritten = new IdentityHashMap<>();
+        int[] slots = new int[1];
+        List<RulePredicate> trees = interned.stream()
+                .map(tree -> share(tree, references, rewritten, slots))
+                .toList();
+        return new SharedConditions(trees, slots[0]);
+    }
+
+    private static RulePredicate intern(RulePredicate node, Map<RulePredicate, RulePredicate> canonical) {
+        RulePredicate rebuilt = node;
+        if (node instanceof AndPredicate and) {
+            rebuilt = new AndPredicate(and.children().stream().map(child -> intern(child, canonical)).toList());
+        } else if (node instanceof OrPredicate or) {
+            rebuilt = new OrPredicate(or.children().stream().map(child -> intern(child, canonical)).toList());
+        } else if (node instanceof NotPredicate not) {
+            rebuilt = new NotPredicate(intern(not.delegate(), canonical));
+        }
+        return canonical.computeIfAbsent(rebuilt, key -> key);
+    }
+
+    /**
+     * Count the parents of each DAG node, visiting the children of a node once
+     */
+    private static void countReferences(RulePredicate node, Map<RulePredicate, Integer> references) {
+        if (references.merge(node, 1, Integer::sum) == 1) {
+            node.children().forEach(child -> countReferences(child, references));
+        }
+    }
+
+    private static RulePredicate share(RulePredicate node, Map<RulePredicate, Integer> references,
+                                       Map<RulePredicate, RulePredicate> rewritten, int[] slots) {
+        RulePredicate done = rewritten.get(node);
+        if (done != null) {
+            return done;
+        }
+
+        RulePredicate result = node;
+        if (node instanceof AndPredicate and) {
+            result = new AndPredicate(and.children().stream()
+                    .map(child -> share(child, references, rewritten, slots)).toList());
+        } else if (node instanceof OrPredicate or) {
+            result = new OrPredicate(or.children().stream()
+                    .map(child -> share(child, references, rewritten, slots)).toList());
+        } else if (node instanceof NotPredicate not) {
+            result = new NotPredicate(share(not.delegate(), references, rewritten, slots));
+        }
+        if (references.get(node) > 1 && !(node instanceof ConstantPredicate)) {
+            result = new Shared(slots[0]++, result);
+        }
+        rewritten.put(node, result);
+        return result;
+    }
+
+    /**
+     * Evaluate the rule at the given position, reusing the conditions already evaluated for the record
+     */
+    boolean test(int position, JsonNode message, Memo memo) {
+        return test(trees.get(position), message, memo);
+    }
+
+    private boolean test(RulePredicate node, JsonNode message, Memo memo) {
+        if (node instanceof Shared shared) {
+            return testShared(shared, message, memo);
+        } else if (node instanceof AndPredicate and) {
+            List<RulePredicate> children = and.children();
+            for (int i = 0; i < children.size(); i++) {
+                if (!test(children.get(i), message, memo)) {
+                    return false;
+                }
+            }
+            return true;
+        } else if (node instanceof OrPredicate or) {
+            List<RulePredicate> children = or.children();
+            for (int i = 0; i < children.size(); i++) {
+                if (test(children.get(i), message, memo)) {
+                    return true;
+                }
+            }
+            return false;
+        } else if (node instanceof NotPredicate not) {
+            return !test(not.delegate(), message, memo);
+        }
+        return node.test(message);
+    }
+
+    private boolean testShared(Shared shared, JsonNode message, Memo memo) {
+        int slot = shared.slot();
+        if (memo.known.get(slot)) {
+            if (memo.failures != null && memo.failures[slot] != null) {
+                throw memo.failures[slot];
+            }
+            return memo.results.get(slot);
+        }
+
+        boolean result;
+        try {
+            result = test(shared.delegate(), message, memo);
+        } catch (RuntimeException e) {
+            memo.fail(slot, e, sharedCount);
+            throw e;
+        }
+        memo.known.set(slot);
+        if (result) {
+            memo.results.set(slot);
+        }
+        return result;
+    }
+
+    /**
+     * Number of conditions evaluated once per record for several rules or branches
+     */
+    public int sharedCount() {
+        return sharedCount;
+    }
+
+    /**
+     * Node reached from several places, evaluated once per record
+     */
+    private record Shared(int slot, RulePredicate delegate) implements RulePredicate {
+
+        @Override
+        public boolean test(JsonNode message) {
+            return delegate.test(message);
+        }
+
+        @Override
+        public List<RulePredicate> children() {
+            return List.of(delegate);
+        }
+
+        @Override
+        public boolean canThrow() {
+            return delegate.canThrow();
+        }
+    }
+
+    /**
+     * Outcomes of the shared conditions for one record.
+     * Instances are confined to the thread processing the record and are not thread-safe.
+     */
+    public static final class Memo {
+
+        private final BitSet known = new BitSet();
+        private final BitSet results = new BitSet();
+        private RuntimeException[] failures;
+
+        Memo() {
+        }
+
+        private void fail(int slot, RuntimeException failure, int sharedCount) {
+            if (failures == null) {
+                failures = new RuntimeException[sharedCount];
+            }
+            failures[slot] = failure;
+            known.set(slot);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.hoatv.kafka.notifier.rule;
+
+import java.util.Arrays;
+
+/**
+ * Numeric samples of a time window kept in a fixed ring of primitive buckets.
+ * <p>
+ * The window is split into {@value #BUCKETS} buckets holding the count, sum, minimum and
+ * maximum of their samples; a bucket that fell out of the window is reset when its slot is
+ * reused. Adding a sample and reading an aggregate take constant time and memory, and the
+ * window is exact to within one bucket. Instances are not thread-safe.
+ */
+final class SlidingWindow {
+
+    static final int BUCKETS = 60;
+
+    private final long bucketMillis;
+    private final long[] epochs = new long[BUCKETS];
+    private final long[] counts = new long[BUCKETS];
+    private final double[] sums = new double[BUCKETS];
+    private final double[] minima = new double[BUCKETS];
+    private final double[] maxima = new double[BUCKETS];
+    private long lastUpdate;
+
+    SlidingWindow(long windowMillis) {
+        this.bucketMillis = Math.max(1, (windowMillis + BUCKETS - 1) / BUCKETS);
+        Arrays.fill(epochs, Long.MIN_VALUE);
+    }
+
+    void add(long now, double value) {
+        long epoch = now / bucketMillis;
+        int slot = (int) (epoch % BUCKETS);
+        if (epochs[slot] != epoch) {
+            epochs[slot] = epoch;
+            counts[slot] = 0;
+            sums[slot] = 0;
+            minima[slot] = Double.POSITIVE_INFINITY;
+            maxima[slot] = Double.NEGATIVE_INFINITY;
+        }
+        counts[slot]++;
+        sums[slot] += value;
+        minima[slot] = Math.min(minima[slot], value);
+        maxima[slot] = Math.max(maxima[slot], value);
+        lastUpdate = now;
+    }
+
+    double aggregate(AggregateFunction function, long now) {
+        long current = now / bucketMillis;
+        long count = 0;
+        double sum = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int slot = 0; slot < BUCKETS; slot++) {
+            if (epochs[slot] > current - BUCKETS && epochs[slot] <= current) {
+                count += counts[slot];
+                sum += sums[slot];
+                min = Math.min(min, minima[slot]);
+                max = Math.max(max, maxima[slot]);
+            }
+        }
+        return function.of(count, sum, min, max);
+    }
+
+    /**
+     * Whether every sample has left the window
+     */
+    boolean isIdle(long now) {
+        return now - lastUpdate >= BUCKETS * bucketMillis;
+    }
+}
@@ -0,0 +1,134 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Sorted thresholds of the rules that compare one field with one operator.
+ * <p>
+ * For {@code cpu > 70}, {@code cpu > 80} and {@code cpu > 90} a record with {@code cpu: 85}
+ * satisfies exactly the thresholds below 85, so one binary search over the sorted
+ * {@code double[]} yields every satisfied rule. Bounds use primitive comparisons to agree
+ * with {@link ComparisonOperator}; NaN thresholds are never satisfied and are left out.
+ */
+final class ThresholdIndex {
+
+    private final FieldPath path;
+    private final ComparisonOperator operator;
+    private final double[] thresholds;
+    private final int[] rules;
+
+    private ThresholdIndex(FieldPath path, ComparisonOperator operator, double[] thresholds, int[] rules) {
+        this.path = path;
+        this.operator = operator;
+        this.thresholds = thresholds;
+        this.rules = rules;
+    }
+
+    FieldPath path() {
+        return path;
+    }
+
+    ComparisonOperator operator() {
+        return operator;
+    }
+
+    /**
+     * Report every rule whose threshold the record's field satisfies; a missing or
+     * non-numeric field satisfies none
+     */
+    void collect(JsonNode message, BitSet satisfied) {
+        JsonNode fieldNode = path.resolve(message);
+        if (fieldNode == null || !fieldNode.isNumber()) {
+            return;
+        }
+
+        double value = fieldNode.asDouble();
+        if (Double.isNaN(value)) {
+            return;
+        }
+
+        int from;
+        int to;
+        switch (operator) {
+            case GT -> { from = 0; to = countBelow(value); }
+            case GTE -> { from = 0; to = countAtMost(value); }
+            case LT -> { from = countAtMost(value); to = thresholds.length; }
+            case LTE -> { from = countBelow(value); to = thresholds.length; }
+            default -> throw new IllegalStateException("Unexpected operator: " + operator);
+        }
+        for (int i = from; i < to; i++) {
+            satisfied.set(rules[i]);
+        }
+    }
+
+    /**
+     * Number of thresholds strictly below the value
+     */
+    private int countBelow(double value) {
+        int low = 0;
+        int high = thresholds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (thresholds[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Number of thresholds below or equal to the value
+     */
+    private int countAtMost(double value) {
+        int low = 0;
+        int high = thresholds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (thresholds[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    static final class Builder {
+
+        private final FieldPath path;
+        private final ComparisonOperator operator;
+        private final List<Entry> entries = new ArrayList<>();
+
+        Builder(FieldPath path, ComparisonOperator operator) {
+            this.path = path;
+            this.operator = operator;
+        }
+
+        void add(int rule, double threshold) {
+            if (!Double.isNaN(threshold)) {
+                entries.add(new Entry(threshold, rule));
+            }
+        }
+
+        ThresholdIndex build() {
+            entries.sort(Comparator.comparingDouble(Entry::threshold));
+            double[] thresholds = new double[entries.size()];
+            int[] rules = new int[entries.size()];
+            for (int i = 0; i < entries.size(); i++) {
+                thresholds[i] = entries.get(i).threshold();
+                rules[i] = entries.get(i).rule();
+            }
+            return new ThresholdIndex(path, operator, thresholds, rules);
+        }
+
+        private record Entry(double threshold, int rule) {
+        }
+    }
+}
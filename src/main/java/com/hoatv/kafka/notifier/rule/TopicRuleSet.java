@@ -0,0 +1,146 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.hoatv.kafka.notifier.model.NotifierConfiguration;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable snapshot of the enabled configurations of a topic and their compiled rules.
+ * <p>
+ * Rules are kept in configuration order and indexed by {@link DiscriminationIndex}, so a
+ * record is only evaluated against configurations whose equality and threshold conditions
+ * it can satisfy. Conditions repeated across rules are merged by {@link SharedConditions} and
+ * evaluated once per record. An optional {@link RecordPrefilter} rejects raw records none of the rules
+ * can match before they are decoded.
+ * A new snapshot replaces the old one whenever a configuration of the topic changes.
+ */
+public final class TopicRuleSet {
+
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    private final long version = VERSIONS.incrementAndGet();
+    private final String topic;
+    private final List<NotifierConfiguration> configurations;
+    private final List<CompiledRule> rules;
+    private final FieldProjection projection;
+    private final RecordPrefilter prefilter;
+    private final DiscriminationIndex discriminationIndex;
+    private final SharedConditions sharedConditions;
+    private final boolean stateful;
+
+    public TopicRuleSet(String topic, List<NotifierConfiguration> configurations,
+                        List<CompiledRule> rules, FieldProjection projection, RecordPrefilter prefilter) {
+        if (configurations.size() != rules.size()) {
+            throw new IllegalArgumentException("Expected one compiled rule per configuration");
+        }
+        this.topic = topic;
+        this.configurations = List.copyOf(configurations);
+        this.rules = List.copyOf(rules);
+        this.projection = projection;
+        this.prefilter = prefilter;
+        this.discriminationIndex = DiscriminationIndex.build(this.rules);
+        this.sharedConditions = SharedConditions.build(this.rules);
+        this.stateful = this.rules.stream().anyMatch(CompiledRule::isStateful);
+    }
+
+    /**
+     * Check whether a raw record value may match one of the configurations, before decoding it
+     */
+    public boolean mayMatch(byte[] value) {
+        return prefilter == null || prefilter.mayMatch(value);
+    }
+
+    /**
+     * Positions of the configurations that may match the record; the others certainly do not
+     */
+    public BitSet candidates(MessageContext context) {
+        return select(context).candidates();
+    }
+
+    /**
+     * Positions of the configurations the record is known to match and of those still to evaluate
+     */
+    public DiscriminationIndex.Selection select(MessageContext context) {
+        return discriminationIndex.select(context.ruleNode());
+    }
+
+    /**
+     * Create the memo of shared condition outcomes for one record
+     */
+    public SharedConditions.Memo newMemo() {
+        return new SharedConditions.Memo();
+    }
+
+    /**
+     * Evaluate the rule at the given position against a record, sharing conditions it has in
+     * common with the other rules through the record's memo. Stateful rules and rules running a
+     * generated class or adaptive evaluator use their own evaluator instead.
+     */
+    public boolean matches(int position, JsonNode message, SharedConditions.Memo memo) {
+        CompiledRule rule = rules.get(position);
+        if (sharedConditions.sharedCount() == 0 || rule.isStateful() || rule.evaluator() != rule.predicate()) {
+            return rule.matches(message);
+        }
+        return sharedConditions.test(position, message, memo);
+    }
+
+    /**
+     * Sequence number of this snapshot, different for every snapshot built
+     */
+    public long version() {
+        return version;
+    }
+
+    public String topic() {
+        return topic;
+    }
+
+    public List<NotifierConfiguration> configurations() {
+        return configurations;
+    }
+
+    public CompiledRule rule(int position) {
+        return rules.get(position);
+    }
+
+    public int size() {
+        return rules.size();
+    }
+
+    public boolean isEmpty() {
+        return rules.isEmpty();
+    }
+
+    /**
+     * Projection of the fields read by the rules, null when messages are parsed in full
+     */
+    public FieldProjection projection() {
+        return projection;
+    }
+
+    /**
+     * Prefilter of raw record values, null when every record is decoded
+     */
+    public RecordPrefilter prefilter() {
+        return prefilter;
+    }
+
+    public int indexedFieldCount() {
+        return discriminationIndex.indexedFieldCount();
+    }
+
+    /**
+     * Whether a rule keeps state across records, so every record must be evaluated rather than
+     * answered from cached matches
+     */
+    public boolean isStateful() {
+        return stateful;
+    }
+
+    public int sharedConditionCount() {
+        return sharedConditions.sharedCount();
+    }
+}
@@ -0,0 +1,140 @@
+package com.hoatv.kafka.notifier.service;
+
+import com.hoatv.kafka.notifier.model.NotificationAction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the actions of matched configurations, on the thread processing the record by default.
+ * <p>
+ * With {@code notifier.actions.virtual-threads}, every action runs on its own virtual thread,
+ * so a slow webhook call no longer stalls the consumption of its topic and no platform thread
+ * pool has to be sized for blocking calls. Actions in flight are bounded per topic by
+ * {@code notifier.actions.max-in-flight-per-topic}, the record's thread waiting for a permit
+ * once its topic reaches it, and per webhook by {@code notifier.actions.max-in-flight-per-webhook},
+ * the extra actions of a webhook waiting on their virtual thread. Actions of successive records
+ * may then complete in any order.
+ */
+@Component
+public class ActionDispatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ActionDispatcher.class);
+    private static final String WEBHOOK_URL = "webhookURL";
+
+    private final Map<String, Semaphore> topicPermits = new ConcurrentHashMap<>();
+    private final Map<String, Semaphore> webhookPermits = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+
+    @Value("${notifier.actions.virtual-threads:false}")
+    private boolean virtualThreads;
+
+    @Value("${notifier.actions.max-in-flight-per-topic:256}")
+    private int maxInFlightPerTopic;
+
+    @Value("${notifier.actions.max-in-flight-per-webhook:16}")
+    private int maxInFlightPerWebhook;
+
+    @Value("${notifier.actions.shutdown-timeout-seconds:10}")
+    private long shutdownTimeoutSeconds;
+
+    @PostConstruct
+    public void start() {
+        if (virtualThreads) {
+            executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("notifier-action-", 0).factory());
+            LOGGER.info("Running actions on virtual threads, at most {} in flight per topic and {} per webhook",
+                    maxInFlightPerTopic, maxInFlightPerWebhook);
+        }
+    }
+
+    /**
+     * Run an action of a configuration matched on the topic, right away or on a virtual thread
+     */
+    public void dispatch(String topic, NotificationAction action, Runnable task) {
+        if (executor == null) {
+            task.run();
+            return;
+        }
+
+        Semaphore permits = topicPermits.computeIfAbsent(topic, key -> new Semaphore(maxInFlightPerTopic));
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted waiting for an action permit of topic '{}', skipping the action", topic);
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    runPerWebhook(action, task);
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            LOGGER.warn("Action of topic '{}' rejected while shutting down", topic);
+        }
+    }
+
+    /**
+     * Actions of the topic running or waiting for their webhook
+     */
+    int inFlight(String topic) {
+        Semaphore permits = topicPermits.get(topic);
+        return permits != null ? maxInFlightPerTopic - permits.availablePermits() : 0;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownTimeoutSeconds, TimeUnit.SECONDS)) {
+                LOGGER.warn("Actions still running after {}s, interrupting them", shutdownTimeoutSeconds);
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+
+    private void runPerWebhook(NotificationAction action, Runnable task) {
+        Object webhookUrl = action.getParams() != null ? action.getParams().get(WEBHOOK_URL) : null;
+        if (!(webhookUrl instanceof String url)) {
+            task.run();
+            return;
+        }
+
+        Semaphore permits = webhookPermits.computeIfAbsent(url, key -> new Semaphore(maxInFlightPerWebhook));
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted waiting for a permit of webhook: {}, skipping the action", url);
+            return;
+        }
+        try {
+            task.run();
+        } finally {
+            permits.release();
+        }
+    }
+}
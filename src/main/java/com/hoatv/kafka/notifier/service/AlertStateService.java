@@ -0,0 +1,254 @@
+package com.hoatv.kafka.notifier.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.hoatv.kafka.notifier.model.NotifierConfiguration;
+import com.hoatv.kafka.notifier.rule.FieldPath;
+import com.hoatv.kafka.notifier.rule.MessageContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import static com.hoatv.fwk.common.ultilities.StringCommonUtils.removeInvalidUserData;
+
+/**
+ * Alert state of the configurations setting {@code alertFingerprint} or {@code alertForSeconds},
+ * so a condition that keeps matching notifies once when it fires and once when it resolves
+ * instead of on every matching record.
+ * <p>
+ * Alerts are tracked per configuration and fingerprint, the value of the configured
+ * fingerprint field (a single alert per configuration without one). A first match makes the
+ * alert pending; a match at least {@code alertForSeconds} later makes it due, and it becomes
+ * firing once that match's notification actually goes out, which is the only match that
+ * notifies. A due alert whose notification is throttled stays pending, so a later match can
+ * fire it. A record of the same fingerprint that no longer matches drops a pending alert
+ * silently and resolves a firing one, which notifies once more. The duration is checked as
+ * records arrive, so an alert fires on the first notified match after it elapsed.
+ * <p>
+ * Each alert keeps two timestamps and a flag in a per-configuration LRU map capped at
+ * {@code notifier.alerts.maximum-fingerprints}; alerts without a record of their fingerprint
+ * for {@code notifier.alerts.idle-timeout-minutes} are forgotten without notifying, and the
+ * alerts of a configuration are dropped when it is updated or deleted.
+ */
+@Service
+public class AlertStateService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AlertStateService.class);
+
+    public static final String FIRING = "firing";
+    public static final String RESOLVED = "resolved";
+
+    private final Map<String, Alerts> alerts = new ConcurrentHashMap<>();
+    private final Map<String, FieldPath> fingerprintPaths = new ConcurrentHashMap<>();
+    private final AtomicInteger liveAlerts = new AtomicInteger();
+    private final LongSupplier clock;
+
+    @Value("${notifier.alerts.maximum-fingerprints:10000}")
+    private int maximumFingerprints;
+
+    @Value("${notifier.alerts.idle-timeout-minutes:1440}")
+    private long idleTimeoutMinutes;
+
+    public AlertStateService() {
+        this(System::currentTimeMillis);
+    }
+
+    AlertStateService(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Check whether matches of the configuration go through the alert state machine
+     */
+    public static boolean isAlerting(NotifierConfiguration config) {
+        return config.getAlertFingerprint() != null || config.getAlertForSeconds() != null;
+    }
+
+    /**
+     * Record a match of an alerting configuration
+     *
+     * @return true when the alert is due to fire and its notification should be sent
+     */
+    public boolean onMatch(NotifierConfiguration config, MessageContext context) {
+        String fingerprint = fingerprint(config, context);
+        long now = clock.getAsLong();
+        long forMillis = config.getAlertForSeconds() != null ? config.getAlertForSeconds() * 1000L : 0L;
+
+        Alerts configurationAlerts = alerts.computeIfAbsent(key(config), key -> new Alerts(maximumFingerprints, liveAlerts));
+        synchronized (configurationAlerts) {
+            configurationAlerts.evictIdle(now, idleTimeoutMinutes * 60_000L);
+            Alert alert = configurationAlerts.get(fingerprint);
+            if (alert == null) {
+                alert = new Alert(now);
+                configurationAlerts.put(fingerprint, alert);
+                liveAlerts.incrementAndGet();
+            }
+            alert.lastSeen = now;
+            return !alert.firing && now - alert.pendingSince >= forMillis;
+        }
+    }
+
+    /**
+     * Make the alert of a due match firing, once its notification is sent
+     *
+     * @return false when the alert already fired or was dropped meanwhile
+     */
+    public boolean fire(NotifierConfiguration config, MessageContext context) {
+        Alerts configurationAlerts = alerts.get(key(config));
+        if (configurationAlerts == null) {
+            return false;
+        }
+        String fingerprint = fingerprint(config, context);
+        synchronized (configurationAlerts) {
+            Alert alert = configurationAlerts.get(fingerprint);
+            if (alert == null || alert.firing) {
+                return false;
+            }
+            alert.firing = true;
+        }
+        LOGGER.info("Alert firing for configuration: {} (fingerprint: {})",
+                config.getNotifier(), removeInvalidUserData(fingerprint));
+        return true;
+    }
+
+    /**
+     * Record a record of a topic that did not match the given alerting configurations
+     *
+     * @return the configurations whose firing alert for the record's fingerprint resolved
+     */
+    public List<NotifierConfiguration> onMisses(List<NotifierConfiguration> configurations, MessageContext context) {
+        List<NotifierConfiguration> resolved = new ArrayList<>();
+        for (NotifierConfiguration config : configurations) {
+            Alerts configurationAlerts = alerts.get(key(config));
+            if (configurationAlerts != null && onMiss(config, configurationAlerts, context)) {
+                resolved.add(config);
+            }
+        }
+        return resolved;
+    }
+
+    private boolean onMiss(NotifierConfiguration config, Alerts configurationAlerts, MessageContext context) {
+        Alert alert;
+        String fingerprint;
+        synchronized (configurationAlerts) {
+            if (configurationAlerts.isEmpty()) {
+                return false;
+            }
+            configurationAlerts.evictIdle(clock.getAsLong(), idleTimeoutMinutes * 60_000L);
+            fingerprint = fingerprint(config, context);
+            alert = configurationAlerts.remove(fingerprint);
+            if (alert != null) {
+                liveAlerts.decrementAndGet();
+            }
+        }
+        if (alert == null || !alert.firing) {
+            return false;
+        }
+        LOGGER.info("Alert resolved for configuration: {} (fingerprint: {})",
+                config.getNotifier(), removeInvalidUserData(fingerprint));
+        return true;
+    }
+
+    /**
+     * Check whether any configuration has a pending or firing alert, so records not matching may resolve one
+     */
+    public boolean hasAlerts() {
+        return liveAlerts.get() > 0;
+    }
+
+    /**
+     * Forget the alerts of a configuration without notifying, once it is updated or deleted
+     */
+    public void evict(String key) {
+        Alerts configurationAlerts = alerts.remove(key);
+        if (configurationAlerts != null) {
+            synchronized (configurationAlerts) {
+                liveAlerts.addAndGet(-configurationAlerts.size());
+                configurationAlerts.clear();
+            }
+        }
+    }
+
+    /**
+     * Number of pending or firing alerts of a configuration
+     */
+    public int alertCount(NotifierConfiguration config) {
+        Alerts configurationAlerts = alerts.get(key(config));
+        if (configurationAlerts == null) {
+            return 0;
+        }
+        synchronized (configurationAlerts) {
+            return configurationAlerts.size();
+        }
+    }
+
+    private String fingerprint(NotifierConfiguration config, MessageContext context) {
+        if (config.getAlertFingerprint() == null) {
+            return "";
+        }
+        FieldPath path = fingerprintPaths.computeIfAbsent(config.getAlertFingerprint(), FieldPath::parse);
+        JsonNode node = path.resolve(context.ruleNode());
+        if (node == null || node.isNull()) {
+            return "";
+        }
+        return node.isValueNode() ? node.asText() : node.toString();
+    }
+
+    private static String key(NotifierConfiguration config) {
+        return config.getId() != null ? config.getId() : config.getNotifier();
+    }
+
+    /**
+     * Alerts of one configuration by fingerprint, least recently seen first
+     */
+    private static final class Alerts extends LinkedHashMap<String, Alert> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maximumSize;
+        private final AtomicInteger liveAlerts;
+
+        Alerts(int maximumSize, AtomicInteger liveAlerts) {
+            super(16, 0.75f, true);
+            this.maximumSize = maximumSize;
+            this.liveAlerts = liveAlerts;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Alert> eldest) {
+            if (size() > maximumSize) {
+                liveAlerts.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        void evictIdle(long now, long idleTimeoutMillis) {
+            Iterator<Alert> iterator = values().iterator();
+            while (iterator.hasNext() && now - iterator.next().lastSeen >= idleTimeoutMillis) {
+                iterator.remove();
+                liveAlerts.decrementAndGet();
+            }
+        }
+    }
+
+    private static final class Alert {
+
+        private final long pendingSince;
+        private long lastSeen;
+        private boolean firing;
+
+        Alert(long pendingSince) {
+            this.pendingSince = pendingSince;
+        }
+    }
+}
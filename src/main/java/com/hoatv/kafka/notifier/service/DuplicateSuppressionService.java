@@ -0,0 +1,124 @@
+package com.hoatv.kafka.notifier.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.hoatv.kafka.notifier.model.NotifierConfiguration;
+import com.hoatv.kafka.notifier.rule.FieldPath;
+import com.hoatv.kafka.notifier.rule.MessageContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Suppression of repeated notifications of the configurations setting {@code dedupFields}.
+ * <p>
+ * A matched record is fingerprinted by its configuration and the values of those fields, and
+ * its notification is suppressed when the same fingerprint was notified within the
+ * configuration's {@code dedupTtlSeconds} (or {@code notifier.dedup.default-ttl-seconds}).
+ * Fingerprints are remembered in a {@link TimeBucketedBloomFilter} per time to live sized by
+ * {@code notifier.dedup.expected-keys} and {@code notifier.dedup.false-positive-rate}, so memory
+ * stays fixed however many distinct incidents occur, and a new incident is suppressed with at
+ * most that probability. A fingerprint is only remembered once its notification is sent, so a
+ * throttled notification does not suppress the next one. Suppressed and passed notifications
+ * are counted per notifier in the {@code notifier.notifications.dedup} meter.
+ */
+@Service
+public class DuplicateSuppressionService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DuplicateSuppressionService.class);
+    private static final String METER_NAME = "notifier.notifications.dedup";
+
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier clock;
+    private final Map<Long, TimeBucketedBloomFilter> filters = new ConcurrentHashMap<>();
+    private final Map<String, FieldPath> fieldPaths = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    @Value("${notifier.dedup.default-ttl-seconds:300}")
+    private long defaultTtlSeconds;
+
+    @Value("${notifier.dedup.expected-keys:250000}")
+    private int expectedKeys;
+
+    @Value("${notifier.dedup.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    @Autowired
+    public DuplicateSuppressionService(ObjectProvider<MeterRegistry> meterRegistry) {
+        this(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry), System::currentTimeMillis);
+    }
+
+    DuplicateSuppressionService(MeterRegistry meterRegistry, LongSupplier clock) {
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+
+    /**
+     * Check whether notifications of the configuration are deduplicated
+     */
+    public static boolean isDeduplicating(NotifierConfiguration config) {
+        return config.getDedupFields() != null && !config.getDedupFields().isEmpty();
+    }
+
+    /**
+     * Check whether the notification of a matched record repeats one sent within the time to live
+     */
+    public boolean isDuplicate(NotifierConfiguration config, MessageContext context) {
+        boolean duplicate = filter(config).contains(fingerprint(config, context), clock.getAsLong());
+        if (duplicate) {
+            counter(config.getNotifier(), "suppressed").increment();
+        }
+        return duplicate;
+    }
+
+    /**
+     * Remember the fingerprint of a matched record once its notification is sent
+     */
+    public void record(NotifierConfiguration config, MessageContext context) {
+        filter(config).add(fingerprint(config, context), clock.getAsLong());
+        counter(config.getNotifier(), "passed").increment();
+    }
+
+    private TimeBucketedBloomFilter filter(NotifierConfiguration config) {
+        long ttlMillis = (config.getDedupTtlSeconds() != null ? config.getDedupTtlSeconds() : defaultTtlSeconds) * 1000L;
+        return filters.computeIfAbsent(ttlMillis, this::newFilter);
+    }
+
+    private TimeBucketedBloomFilter newFilter(long ttlMillis) {
+        TimeBucketedBloomFilter filter = new TimeBucketedBloomFilter(ttlMillis, expectedKeys, falsePositiveRate);
+        LOGGER.info("Created duplicate filter of {} byte(s) for a time to live of {} ms",
+                filter.sizeInBytes(), ttlMillis);
+        return filter;
+    }
+
+    private String fingerprint(NotifierConfiguration config, MessageContext context) {
+        StringBuilder fingerprint = new StringBuilder(config.getId() != null ? config.getId() : config.getNotifier());
+        List<String> fields = config.getDedupFields();
+        for (String field : fields) {
+            JsonNode node = fieldPaths.computeIfAbsent(field, FieldPath::parse).resolve(context.ruleNode());
+            fingerprint.append('\u0000');
+            if (node != null && !node.isNull()) {
+                fingerprint.append(node.isValueNode() ? node.asText() : node.toString());
+            }
+        }
+        return fingerprint.toString();
+    }
+
+    private Counter counter(String notifier, String result) {
+        return counters.computeIfAbsent(notifier + '\u0000' + result, key -> Counter.builder(METER_NAME)
+                .description("Notifications checked for repeats of a recent notification")
+                .tag("notifier", notifier)
+                .tag("result", result)
+                .register(meterRegistry));
+    }
+}
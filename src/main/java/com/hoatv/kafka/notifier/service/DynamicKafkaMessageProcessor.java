@@ -3,11 +3,22 @@ package com.hoatv.kafka.notifier.service;
 import com.hoatv.kafka.notifier.model.NotifierConfiguration;
 import com.hoatv.kafka.notifier.model.NotificationAction;
 import com.hoatv.kafka.notifier.repository.NotifierConfigurationRepository;
+import com.hoatv.kafka.notifier.rule.MessageContext;
+import com.hoatv.kafka.notifier.rule.TopicRuleSet;
 import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.event.ConsumerStoppingEvent;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.AcknowledgingConsumerAwareMessageListener;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
 import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.KafkaMessageListenerContainer;
 import org.springframework.kafka.listener.MessageListener;
@@ -16,11 +27,20 @@ import org.springframework.stereotype.Service;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,29 +52,98 @@ public class DynamicKafkaMessageProcessor {
     private final NotifierConfigurationRepository repository;
     private final RuleEvaluationService ruleEvaluationService;
     private final NotificationService notificationService;
+    private final ActionDispatcher actionDispatcher;
     private final NotificationThrottlingService throttlingService;
-    private final ConsumerFactory<String, String> consumerFactory;
+    private final AlertStateService alertStateService;
+    private final DuplicateSuppressionService duplicateSuppressionService;
+    private final RecordResultCache resultCache;
+    private final ConsumerFactory<String, byte[]> consumerFactory;
     private final Set<String> subscribedTopics = new CopyOnWriteArraySet<>();
-    private final Map<String, KafkaMessageListenerContainer<String, String>> topicContainers = new ConcurrentHashMap<>();
+    private final Map<String, KafkaMessageListenerContainer<String, byte[]>> topicContainers = new ConcurrentHashMap<>();
+    private final Map<String, TopicRuleSet> topicRuleSets = new ConcurrentHashMap<>();
+    private final Map<String, Properties> topicConsumerTuning = new ConcurrentHashMap<>();
+    private MultiplexedTopicConsumer multiplexedConsumer;
+    private ShardedRecordExecutor recordExecutor;
 
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${notifier.kafka.multiplexed.enabled:false}")
+    private boolean multiplexed;
+
+    @Value("${notifier.kafka.multiplexed.consumers:1}")
+    private int multiplexedConsumers;
+
+    @Value("${notifier.kafka.multiplexed.poll-timeout-millis:1000}")
+    private long multiplexedPollTimeoutMillis;
+
+    @Value("${notifier.kafka.batch.enabled:false}")
+    private boolean batchListener;
+
+    @Value("${notifier.kafka.workers.shards:0}")
+    private int workerShards;
+
+    @Value("${notifier.kafka.workers.queue-capacity:1000}")
+    private int workerQueueCapacity;
+
+    @Value("${notifier.kafka.workers.commit-interval-millis:1000}")
+    private long workerCommitIntervalMillis;
+
+    @Value("${notifier.kafka.workers.drain-timeout-millis:5000}")
+    private long workerDrainTimeoutMillis;
+
     @PostConstruct
     public void initializeSubscriptions() {
         LOGGER.info("Initializing dynamic Kafka subscriptions");
+        if (workerShards > 0) {
+            if (batchListener) {
+                LOGGER.warn("Record workers are enabled, records are handed to them instead of a batch listener");
+            }
+            recordExecutor = new ShardedRecordExecutor(workerShards, workerQueueCapacity, workerCommitIntervalMillis,
+                    workerDrainTimeoutMillis, (topic, value) -> processRecord(value, topicRuleSets.get(topic)));
+        }
+        if (multiplexed) {
+            if (batchListener && workerShards <= 0) {
+                LOGGER.warn("Multiplexed consumers process records one at a time, notifier.kafka.batch.enabled is ignored");
+            }
+            multiplexedConsumer = new MultiplexedTopicConsumer(this::createMultiplexedConsumer, multiplexedConsumers,
+                    Duration.ofMillis(multiplexedPollTimeoutMillis),
+                    (topic, value) -> processRecord(value, topicRuleSets.get(topic)), recordExecutor);
+            multiplexedConsumer.start();
+        }
         refreshTopicSubscriptions();
     }
 
+    /**
+     * Create a consumer of the multiplexed pool, leaving commits to the record workers when they are enabled
+     */
+    private Consumer<String, byte[]> createMultiplexedConsumer() {
+        if (recordExecutor == null) {
+            return consumerFactory.createConsumer();
+        }
+        Properties properties = new Properties();
+        properties.setProperty(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        return consumerFactory.createConsumer(groupId, null, null, properties);
+    }
+
     @PreDestroy
     public void cleanup() {
         LOGGER.info("Cleaning up Kafka listeners");
+        // Consumers stop first, committing what the record workers processed before they stop too
+        if (multiplexedConsumer != null) {
+            multiplexedConsumer.stop();
+        }
         topicContainers.values().forEach(container -> {
             if (container.isRunning()) {
                 container.stop();
             }
         });
+        if (recordExecutor != null) {
+            recordExecutor.stop();
+        }
         topicContainers.clear();
+        topicRuleSets.clear();
+        topicConsumerTuning.clear();
         subscribedTopics.clear();
     }
 
@@ -90,7 +179,21 @@ public class DynamicKafkaMessageProcessor {
      */
     public void subscribeToTopic(String topic) {
         if (subscribedTopics.contains(topic)) {
-            LOGGER.debug("Already subscribed to topic: {}", topic);
+            LOGGER.debug("Already subscribed to topic: {}, refreshing its configurations", topic);
+            refreshTopicRuleSet(topic);
+            if (topicContainers.containsKey(topic) && !consumerTuning(topic).equals(topicConsumerTuning.get(topic))) {
+                LOGGER.info("Consumer tuning of topic: {} changed, restarting its listener container", topic);
+                unsubscribeFromTopic(topic);
+                subscribeToTopic(topic);
+            }
+            return;
+        }
+
+        if (multiplexedConsumer != null) {
+            LOGGER.info("Adding topic: {} to the multiplexed consumers", topic);
+            refreshTopicRuleSet(topic);
+            subscribedTopics.add(topic);
+            multiplexedConsumer.subscribe(subscribedTopics);
             return;
         }
 
@@ -99,16 +202,31 @@ public class DynamicKafkaMessageProcessor {
             ContainerProperties containerProps = new ContainerProperties(topic);
             containerProps.setGroupId(groupId);
 
-            List<NotifierConfiguration> configurations = repository.findByTopicAndEnabledTrue(topic);
-            containerProps.setMessageListener((MessageListener<String, String>) record -> {
-                processMessage(record.value(), record.topic(), configurations);
-            });
+            refreshTopicRuleSet(topic);
+            Properties tuning = consumerTuning(topic);
+            if (!tuning.isEmpty()) {
+                LOGGER.info("Tuning the consumer of topic: {} with {}", topic, tuning);
+                containerProps.getKafkaConsumerProperties().putAll(tuning);
+            }
+            if (recordExecutor != null) {
+                useRecordWorkers(containerProps);
+            } else if (batchListener) {
+                containerProps.setMessageListener((BatchMessageListener<String, byte[]>) this::processBatch);
+            } else {
+                containerProps.setMessageListener((MessageListener<String, byte[]>) record -> {
+                    processRecord(record.value(), topicRuleSets.get(record.topic()));
+                });
+            }
 
-            KafkaMessageListenerContainer<String, String> container =
+            KafkaMessageListenerContainer<String, byte[]> container =
                     new KafkaMessageListenerContainer<>(consumerFactory, containerProps);
+            if (recordExecutor != null) {
+                container.setApplicationEventPublisher(this::onRecordWorkersEvent);
+            }
             container.start();
 
             topicContainers.put(topic, container);
+            topicConsumerTuning.put(topic, tuning);
             subscribedTopics.add(topic);
             LOGGER.info("Successfully subscribed to topic: {}", topic);
         } catch (Exception e) {
@@ -116,6 +234,66 @@ public class DynamicKafkaMessageProcessor {
         }
     }
 
+    /**
+     * Consumer properties tuned by the configurations of a topic, the largest value of each applying
+     */
+    private Properties consumerTuning(String topic) {
+        List<NotifierConfiguration> configurations = topicRuleSets.get(topic).configurations();
+        Properties tuning = new Properties();
+        putLargest(tuning, ConsumerConfig.MAX_POLL_RECORDS_CONFIG, configurations, NotifierConfiguration::getMaxPollRecords);
+        putLargest(tuning, ConsumerConfig.FETCH_MIN_BYTES_CONFIG, configurations, NotifierConfiguration::getFetchMinBytes);
+        putLargest(tuning, ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, configurations,
+                NotifierConfiguration::getMaxPartitionFetchBytes);
+        return tuning;
+    }
+
+    private static void putLargest(Properties tuning, String property, List<NotifierConfiguration> configurations,
+                                   Function<NotifierConfiguration, Integer> value) {
+        configurations.stream()
+                .map(value)
+                .filter(Objects::nonNull)
+                .max(Integer::compare)
+                .ifPresent(largest -> tuning.setProperty(property, String.valueOf(largest)));
+    }
+
+    /**
+     * Hand the records of a container to the record workers, which commit the offsets they processed
+     * in place of the container, as records arrive or once the container is idle for a commit interval
+     */
+    private void useRecordWorkers(ContainerProperties containerProps) {
+        containerProps.setAckMode(ContainerProperties.AckMode.MANUAL);
+        containerProps.setIdleEventInterval(workerCommitIntervalMillis);
+        containerProps.getKafkaConsumerProperties().setProperty(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        containerProps.setConsumerRebalanceListener(new ConsumerAwareRebalanceListener() {
+            @Override
+            public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+                recordExecutor.revoked(consumer, partitions);
+            }
+        });
+        containerProps.setMessageListener((AcknowledgingConsumerAwareMessageListener<String, byte[]>)
+                (record, acknowledgment, consumer) -> {
+                    try {
+                        recordExecutor.submit(record);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        LOGGER.warn("Interrupted handing a record of topic '{}' to the record workers", record.topic());
+                    }
+                    recordExecutor.commit(consumer);
+                });
+    }
+
+    /**
+     * Commit what the record workers processed when a container's consumer is idle or about to close,
+     * these events being published on the consumer's thread
+     */
+    private void onRecordWorkersEvent(Object event) {
+        if (event instanceof ListenerContainerIdleEvent idleEvent) {
+            recordExecutor.commit(idleEvent.getConsumer());
+        } else if (event instanceof ConsumerStoppingEvent stoppingEvent) {
+            recordExecutor.release(stoppingEvent.getConsumer());
+        }
+    }
+
     /**
      * Unsubscribe from a specific topic
      */
@@ -125,14 +303,24 @@ public class DynamicKafkaMessageProcessor {
             return;
         }
 
+        if (multiplexedConsumer != null) {
+            LOGGER.info("Removing topic: {} from the multiplexed consumers", topic);
+            subscribedTopics.remove(topic);
+            multiplexedConsumer.subscribe(subscribedTopics);
+            topicRuleSets.remove(topic);
+            return;
+        }
+
         try {
             LOGGER.info("Unsubscribing from topic: {}", topic);
-            KafkaMessageListenerContainer<String, String> container = topicContainers.get(topic);
+            KafkaMessageListenerContainer<String, byte[]> container = topicContainers.get(topic);
             if (container != null && container.isRunning()) {
                 container.stop();
             }
 
             topicContainers.remove(topic);
+            topicRuleSets.remove(topic);
+            topicConsumerTuning.remove(topic);
             subscribedTopics.remove(topic);
             LOGGER.info("Successfully unsubscribed from topic: {}", topic);
 
@@ -141,53 +329,203 @@ public class DynamicKafkaMessageProcessor {
         }
     }
 
+    /**
+     * Rebuild the rule set of a topic from its current enabled configurations.
+     * Records already being processed keep the snapshot they started with.
+     */
+    public void refreshTopicRuleSet(String topic) {
+        TopicRuleSet ruleSet = ruleEvaluationService.compileTopic(topic, repository.findByTopicAndEnabledTrue(topic));
+        topicRuleSets.put(topic, ruleSet);
+        LOGGER.info("Loaded {} configuration(s) for topic: {} ({} indexed field(s), {} shared condition(s))",
+                ruleSet.size(), topic, ruleSet.indexedFieldCount(), ruleSet.sharedConditionCount());
+        if (ruleSet.projection() != null) {
+            LOGGER.info("Reading {} projected field(s) from messages on topic: {}",
+                    ruleSet.projection().pathCount(), topic);
+        }
+        if (resultCache.isEnabled(topic) && ruleSet.isStateful()) {
+            LOGGER.info("Not caching matches on topic: {}, its windowed rules must see every record", topic);
+        } else if (resultCache.isEnabled(topic)) {
+            LOGGER.info("Caching the matches of repeated records on topic: {}", topic);
+        }
+        if (ruleSet.prefilter() != null) {
+            LOGGER.info("Prefiltering raw records on topic: {} with {} literal(s)",
+                    topic, ruleSet.prefilter().literalCount());
+        }
+    }
+
+    /**
+     * Process a raw record value, dropping it undecoded when no configuration of the topic can match it
+     */
+    public void processRecord(byte[] value, TopicRuleSet ruleSet) {
+        if (ruleSet != null && !ruleSet.mayMatch(value)) {
+            LOGGER.debug("Dropping record of {} byte(s) that no configuration of topic '{}' can match",
+                    value.length, ruleSet.topic());
+            return;
+        }
+        processMessage(value != null ? new String(value, StandardCharsets.UTF_8) : null, value, ruleSet);
+    }
+
+    /**
+     * Process the records of a poll as a unit: the rule set snapshot of each topic is looked up
+     * once and its records are evaluated together, then their matches are dispatched in record order
+     */
+    public void processBatch(List<ConsumerRecord<String, byte[]>> records) {
+        Map<String, List<byte[]>> valuesByTopic = new LinkedHashMap<>();
+        for (ConsumerRecord<String, byte[]> consumerRecord : records) {
+            valuesByTopic.computeIfAbsent(consumerRecord.topic(), topic -> new ArrayList<>()).add(consumerRecord.value());
+        }
+        LOGGER.debug("Received a batch of {} record(s) from {} topic(s)", records.size(), valuesByTopic.size());
+        valuesByTopic.forEach((topic, values) -> processBatch(values, topicRuleSets.get(topic)));
+    }
+
+    /**
+     * Evaluate every configuration of a topic over its records of a poll at once, dropping
+     * undecoded the records that no configuration can match and taking the matches of cached
+     * repeats from the result cache. Windowed rules keep being fed record by record.
+     */
+    private void processBatch(List<byte[]> values, TopicRuleSet ruleSet) {
+        if (ruleSet == null || ruleSet.isEmpty() || ruleSet.isStateful() || values.size() == 1) {
+            values.forEach(value -> processRecord(value, ruleSet));
+            return;
+        }
+
+        String topic = ruleSet.topic();
+        try {
+            boolean caching = resultCache.isEnabled(topic);
+            List<MessageContext> contexts = new ArrayList<>(values.size());
+            List<List<NotifierConfiguration>> matches = new ArrayList<>(values.size());
+            List<MessageContext> uncachedContexts = new ArrayList<>(values.size());
+            List<byte[]> uncachedValues = new ArrayList<>(values.size());
+            for (byte[] value : values) {
+                if (ruleSet.mayMatch(value)) {
+                    String message = value != null ? new String(value, StandardCharsets.UTF_8) : null;
+                    MessageContext context = ruleEvaluationService.createContext(message, ruleSet.projection());
+                    List<NotifierConfiguration> cached = caching && value != null ? resultCache.lookup(ruleSet, value) : null;
+                    contexts.add(context);
+                    matches.add(cached);
+                    if (cached == null) {
+                        uncachedContexts.add(context);
+                        uncachedValues.add(value);
+                    }
+                }
+            }
+            LOGGER.debug("Evaluating {} of {} record(s) from topic '{}' as one batch", uncachedContexts.size(),
+                    values.size(), topic);
+            if (contexts.isEmpty()) {
+                return;
+            }
+
+            List<BitSet> matchedRows = uncachedContexts.isEmpty()
+                    ? List.of() : ruleEvaluationService.evaluateBatch(ruleSet, uncachedContexts);
+            int row = 0;
+            for (int record = 0; record < contexts.size(); record++) {
+                if (matches.get(record) != null) {
+                    continue;
+                }
+                List<NotifierConfiguration> rowMatches = new ArrayList<>();
+                for (int i = 0; i < matchedRows.size(); i++) {
+                    if (matchedRows.get(i).get(row)) {
+                        rowMatches.add(ruleSet.configurations().get(i));
+                    }
+                }
+                byte[] value = uncachedValues.get(row++);
+                matches.set(record, caching && value != null ? resultCache.put(ruleSet, value, rowMatches) : rowMatches);
+            }
+            for (int record = 0; record < contexts.size(); record++) {
+                dispatchMatches(ruleSet, matches.get(record), contexts.get(record));
+            }
+        } catch (Exception e) {
+            LOGGER.error("Error processing a batch of {} record(s) from topic '{}': {}",
+                    values.size(), topic, e.getMessage(), e);
+        }
+    }
 
     /**
      * Process incoming Kafka message (same logic as the original processor)
      */
     public void processMessage(String message, String topic, List<NotifierConfiguration> configurations) {
+        processMessage(message, ruleEvaluationService.compileTopic(topic, configurations));
+    }
+
+    /**
+     * Process incoming Kafka message against the rule set snapshot of its topic
+     */
+    public void processMessage(String message, TopicRuleSet ruleSet) {
+        processMessage(message, null, ruleSet);
+    }
+
+    /**
+     * Process a message whose raw value, when known, lets repeated payloads reuse cached matches
+     */
+    private void processMessage(String message, byte[] value, TopicRuleSet ruleSet) {
+        if (ruleSet == null) {
+            LOGGER.debug("No rule set loaded, skipping message: {}", message);
+            return;
+        }
+
+        String topic = ruleSet.topic();
         LOGGER.debug("Received message from topic '{}': {}", topic, message);
 
         try {
-            if (configurations.isEmpty()) {
+            if (ruleSet.isEmpty()) {
                 LOGGER.debug("No enabled configurations found for topic: {}", topic);
                 return;
             }
 
-            LOGGER.debug("Processing {} configurations for topic: {}", configurations.size(), topic);
-            configurations.forEach(config -> processConfigurationForMessage(config, message, topic));
+            LOGGER.debug("Processing {} configurations for topic: {}", ruleSet.size(), topic);
+            MessageContext context = ruleEvaluationService.createContext(message, ruleSet.projection());
+            List<NotifierConfiguration> matches = value != null && resultCache.isEnabled(topic) && !ruleSet.isStateful()
+                    ? resultCache.getOrEvaluate(ruleSet, value, () -> ruleEvaluationService.findMatches(ruleSet, context))
+                    : ruleEvaluationService.findMatches(ruleSet, context);
+            dispatchMatches(ruleSet, matches, context);
         } catch (Exception e) {
             LOGGER.error("Error processing message from topic '{}': {}", topic, e.getMessage(), e);
         }
     }
 
-    private void processConfigurationForMessage(NotifierConfiguration config,
-                                                String message, String topic) {
+    private void dispatchMatches(TopicRuleSet ruleSet, List<NotifierConfiguration> matches, MessageContext context) {
+        matches.forEach(config -> processMatchedConfiguration(config, context, ruleSet.topic()));
+        resolveAlerts(ruleSet, matches, context);
+    }
+
+    private void processMatchedConfiguration(NotifierConfiguration config,
+                                             MessageContext context, String topic) {
         try {
-            LOGGER.debug("Evaluating rules for configuration: {} on topic: {}",
+            LOGGER.info("Rules matched for configuration: {} on topic: {}. Checking throttling.",
                     config.getNotifier(), topic);
 
-            boolean rulesMatch = ruleEvaluationService.evaluateRules(
-                    config.getRules(), message);
+            // Alerting configurations only notify when their alert is due to fire
+            boolean alerting = AlertStateService.isAlerting(config);
+            if (alerting && !alertStateService.onMatch(config, context)) {
+                LOGGER.debug("Alert of configuration: {} on topic: {} is pending or already firing",
+                        config.getNotifier(), topic);
+                return;
+            }
 
-            if (rulesMatch) {
-                LOGGER.info("Rules matched for configuration: {} on topic: {}. Checking throttling.",
+            boolean deduplicating = DuplicateSuppressionService.isDeduplicating(config);
+            if (deduplicating && duplicateSuppressionService.isDuplicate(config, context)) {
+                LOGGER.info("Notification suppressed as a repeat for configuration: {} on topic: {}",
                         config.getNotifier(), topic);
+                return;
+            }
 
-                // Check if notification should be sent based on throttling rules
-                if (throttlingService.shouldSendNotification(config)) {
-                    LOGGER.info("Executing actions for configuration: {} on topic: {}",
-                            config.getNotifier(), topic);
+            // Check if notification should be sent based on throttling rules
+            if (throttlingService.shouldSendNotification(config)) {
+                // The alert only becomes firing once its notification goes out, a throttled one fires later
+                if (alerting && !alertStateService.fire(config, context)) {
+                    return;
+                }
+                if (deduplicating) {
+                    duplicateSuppressionService.record(config, context);
+                }
+                LOGGER.info("Executing actions for configuration: {} on topic: {}",
+                        config.getNotifier(), topic);
 
-                    for (NotificationAction action : config.getActions()) {
-                        executeAction(action, message, config);
-                    }
-                } else {
-                    LOGGER.info("Notification throttled for configuration: {} on topic: {}",
-                            config.getNotifier(), topic);
+                for (NotificationAction action : config.getActions()) {
+                    executeAction(action, context, config, alerting ? AlertStateService.FIRING : null);
                 }
             } else {
-                LOGGER.debug("Rules did not match for configuration: {} on topic: {}",
+                LOGGER.info("Notification throttled for configuration: {} on topic: {}",
                         config.getNotifier(), topic);
             }
 
@@ -197,14 +535,37 @@ public class DynamicKafkaMessageProcessor {
         }
     }
 
-    private void executeAction(NotificationAction action, String message,
-                               NotifierConfiguration config) {
+    /**
+     * Resolve the firing alerts of the configurations the record no longer matches, sending
+     * their resolve notification regardless of throttling
+     */
+    private void resolveAlerts(TopicRuleSet ruleSet, List<NotifierConfiguration> matches, MessageContext context) {
+        if (!alertStateService.hasAlerts()) {
+            return;
+        }
+
+        List<NotifierConfiguration> misses = ruleSet.configurations().stream()
+                .filter(AlertStateService::isAlerting)
+                .filter(config -> matches.stream().noneMatch(match -> match == config))
+                .toList();
+        for (NotifierConfiguration config : alertStateService.onMisses(misses, context)) {
+            LOGGER.info("Executing resolve actions for configuration: {} on topic: {}",
+                    config.getNotifier(), ruleSet.topic());
+            for (NotificationAction action : config.getActions()) {
+                executeAction(action, context, config, AlertStateService.RESOLVED);
+            }
+        }
+    }
+
+    private void executeAction(NotificationAction action, MessageContext context,
+                               NotifierConfiguration config, String alertStatus) {
         try {
             LOGGER.debug("Executing action of type: {} for configuration: {}",
                     action.getType(), config.getNotifier());
 
             if (action.getType().equalsIgnoreCase("call")) {
-                notificationService.executeNotificationAction(action, message, config);
+                actionDispatcher.dispatch(config.getTopic(), action,
+                        () -> notificationService.executeNotificationAction(action, context, config, alertStatus));
             } else {
                 LOGGER.warn("Unsupported action type: {} for configuration: {}",
                         action.getType(), config.getNotifier());
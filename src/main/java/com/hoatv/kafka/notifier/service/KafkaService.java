@@ -33,6 +33,8 @@ public class KafkaService {
         if (enabledConfigs.isEmpty()) {
             LOGGER.info("No enabled configurations found for topic '{}', removing subscription", topic);
             dynamicKafkaMessageProcessor.unsubscribeFromTopic(topic);
+        } else {
+            dynamicKafkaMessageProcessor.refreshTopicRuleSet(topic);
         }
     }
 }
@@ -0,0 +1,183 @@
+package com.hoatv.kafka.notifier.service;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Fixed pool of consumers all subscribed to the whole set of notifier topics, handing every
+ * record to a handler that routes it by topic.
+ * <p>
+ * Each consumer is owned by its poll thread. Changing the topic set only publishes the new
+ * subscription and wakes the consumers up, which resubscribe before their next poll, so adding
+ * or removing a topic costs one rebalance of the pool instead of a consumer, thread and
+ * rebalance per topic. Offsets are committed by the consumers as configured by their factory,
+ * unless records are handed to a {@link ShardedRecordExecutor}, which then commits them as
+ * they are processed.
+ */
+class MultiplexedTopicConsumer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MultiplexedTopicConsumer.class);
+
+    private final Supplier<Consumer<String, byte[]>> consumerFactory;
+    private final int consumerCount;
+    private final Duration pollTimeout;
+    private final BiConsumer<String, byte[]> handler;
+    private final ShardedRecordExecutor executor;
+    private final List<Worker> workers = new ArrayList<>();
+    private volatile Set<String> topics = Set.of();
+    private volatile boolean running;
+
+    /**
+     * @param handler receives the topic and value of every record
+     */
+    MultiplexedTopicConsumer(Supplier<Consumer<String, byte[]>> consumerFactory, int consumerCount,
+                             Duration pollTimeout, BiConsumer<String, byte[]> handler) {
+        this(consumerFactory, consumerCount, pollTimeout, handler, null);
+    }
+
+    /**
+     * @param executor workers processing the records instead of the poll threads, may be null
+     */
+    MultiplexedTopicConsumer(Supplier<Consumer<String, byte[]>> consumerFactory, int consumerCount,
+                             Duration pollTimeout, BiConsumer<String, byte[]> handler, ShardedRecordExecutor executor) {
+        this.consumerFactory = consumerFactory;
+        this.consumerCount = consumerCount;
+        this.pollTimeout = pollTimeout;
+        this.handler = handler;
+        this.executor = executor;
+    }
+
+    synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < consumerCount; i++) {
+            Worker worker = new Worker(consumerFactory.get());
+            Thread thread = new Thread(worker, "notifier-consumer-" + i);
+            thread.setDaemon(true);
+            workers.add(worker);
+            thread.start();
+        }
+        LOGGER.info("Started {} multiplexed consumer(s)", consumerCount);
+    }
+
+    /**
+     * Replace the subscribed topics of every consumer of the pool
+     */
+    void subscribe(Set<String> topics) {
+        this.topics = Set.copyOf(topics);
+        LOGGER.info("Updating multiplexed consumer subscription to topics: {}", this.topics);
+        synchronized (this) {
+            workers.forEach(worker -> worker.consumer.wakeup());
+        }
+    }
+
+    Set<String> topics() {
+        return topics;
+    }
+
+    synchronized void stop() {
+        running = false;
+        workers.forEach(worker -> worker.consumer.wakeup());
+        for (Worker worker : workers) {
+            try {
+                worker.stopped.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        workers.clear();
+        LOGGER.info("Stopped multiplexed consumers");
+    }
+
+    private final class Worker implements Runnable {
+
+        private final Consumer<String, byte[]> consumer;
+        private final CountDownLatch stopped = new CountDownLatch(1);
+        private Set<String> subscribed = Set.of();
+
+        private Worker(Consumer<String, byte[]> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    pollOnce();
+                }
+            } finally {
+                if (executor != null) {
+                    executor.release(consumer);
+                }
+                consumer.close();
+                stopped.countDown();
+            }
+        }
+
+        private void pollOnce() {
+            try {
+                Set<String> current = topics;
+                if (!current.equals(subscribed)) {
+                    if (current.isEmpty()) {
+                        consumer.unsubscribe();
+                    } else if (executor != null) {
+                        consumer.subscribe(current, new ConsumerRebalanceListener() {
+                            @Override
+                            public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+                                executor.revoked(consumer, partitions);
+                            }
+
+                            @Override
+                            public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+                                // Positions of newly assigned partitions come from their committed offsets
+                            }
+                        });
+                    } else {
+                        consumer.subscribe(current);
+                    }
+                    subscribed = current;
+                }
+                if (subscribed.isEmpty()) {
+                    Thread.sleep(pollTimeout.toMillis());
+                    return;
+                }
+
+                ConsumerRecords<String, byte[]> records = consumer.poll(pollTimeout);
+                for (ConsumerRecord<String, byte[]> consumerRecord : records) {
+                    if (executor != null) {
+                        executor.submit(consumerRecord);
+                    } else {
+                        handler.accept(consumerRecord.topic(), consumerRecord.value());
+                    }
+                }
+                if (executor != null) {
+                    executor.commit(consumer);
+                }
+            } catch (WakeupException e) {
+                LOGGER.debug("Multiplexed consumer woken up to resubscribe or stop");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (Exception e) {
+                LOGGER.error("Error polling multiplexed consumer: {}", e.getMessage(), e);
+            }
+        }
+    }
+}
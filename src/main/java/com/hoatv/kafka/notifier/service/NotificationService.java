@@ -4,6 +4,7 @@ import com.hoatv.kafka.notifier.client.SlackWebhookClient;
 import com.hoatv.kafka.notifier.dto.SlackMessage;
 import com.hoatv.kafka.notifier.model.NotifierConfiguration;
 import com.hoatv.kafka.notifier.model.NotificationAction;
+import com.hoatv.kafka.notifier.rule.MessageContext;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -22,15 +23,34 @@ import java.util.Map;
 public class NotificationService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(NotificationService.class);
+    private static final String ALERT_STATUS = "alertStatus";
 
     private final ObjectMapper objectMapper;
     private final SlackWebhookClient slackWebhookClient;
 
     public void executeNotificationAction(NotificationAction action, String message, NotifierConfiguration config) {
+        executeNotificationAction(action, new MessageContext(objectMapper, message), config);
+    }
+
+    /**
+     * Execute a notification action for a record whose context is shared with rule evaluation,
+     * so the message is not parsed again for every action
+     */
+    public void executeNotificationAction(NotificationAction action, MessageContext context, NotifierConfiguration config) {
+        executeNotificationAction(action, context, config, null);
+    }
+
+    /**
+     * Execute a notification action for a transition of an alert, whose status is available to
+     * templates as {@code ${alertStatus}}. Resolve notifications of templates not using it are
+     * prefixed with "Resolved: ".
+     */
+    public void executeNotificationAction(NotificationAction action, MessageContext context,
+                                          NotifierConfiguration config, String alertStatus) {
         try {
             String provider = (String) action.getParams().get("provider");
             if (provider.equals("SLACK")) {
-                sendSlackNotification(action, message, config);
+                sendSlackNotification(action, context, config, alertStatus);
                 return;
             }
             LOGGER.warn("Unsupported notification provider: {}", provider);
@@ -40,7 +60,8 @@ public class NotificationService {
         }
     }
 
-    private void sendSlackNotification(NotificationAction action, String message, NotifierConfiguration config) {
+    private void sendSlackNotification(NotificationAction action, MessageContext context,
+                                       NotifierConfiguration config, String alertStatus) {
         try {
             String webhookUrl = (String) action.getParams().get("webhookURL");
             String messageTemplate = (String) action.getParams().get("message");
@@ -51,8 +72,7 @@ public class NotificationService {
                 return;
             }
 
-            JsonNode messageNode = getMessageNode(message);
-            String finalMessage = replaceVariables(messageTemplate, messageNode);
+            String finalMessage = replaceVariables(messageTemplate, context, alertStatus);
             SlackMessage slackMessage = SlackMessage.of(finalMessage);
             slackWebhookClient.sendMessage(webhookUrl, slackMessage);
             LOGGER.info("Successfully sent Slack notification for notifier: {}", config.getNotifier());
@@ -61,20 +81,17 @@ public class NotificationService {
         }
     }
 
-    private JsonNode getMessageNode(String message) {
-        JsonNode messageNode;
-        try {
-            messageNode = objectMapper.readTree(message);
-        } catch (Exception e) {
-            messageNode = objectMapper.valueToTree(message);
+    private String replaceVariables(String template, MessageContext context, String alertStatus) {
+        Map<String, String> variableMap = context.templateVariables(this::createVariableMap);
+        if (alertStatus == null) {
+            return new StringSubstitutor(variableMap).replace(template);
         }
-        return messageNode;
-    }
 
-    private String replaceVariables(String template, JsonNode messageNode) {
-        Map<String, String> variableMap = createVariableMap(messageNode);
-        StringSubstitutor substitutor = new StringSubstitutor(variableMap);
-        return substitutor.replace(template);
+        Map<String, String> alertVariables = new HashMap<>(variableMap);
+        alertVariables.put(ALERT_STATUS, alertStatus);
+        String message = new StringSubstitutor(alertVariables).replace(template);
+        boolean showsStatus = template.contains("${" + ALERT_STATUS + "}");
+        return AlertStateService.RESOLVED.equals(alertStatus) && !showsStatus ? "Resolved: " + message : message;
     }
 
     /**
@@ -88,15 +105,13 @@ public class NotificationService {
             return variableMap;
         }
 
-        if (messageNode.isObject()) {
-            flattenJsonToMap(messageNode, "", variableMap);
-        }
-
+        flattenJsonToMap(messageNode, "", variableMap);
         return variableMap;
     }
 
     /**
-     * Recursively flatten JSON object into a map with dot-notation keys
+     * Recursively flatten JSON objects and arrays into a map with dot-notation keys,
+     * array elements being keyed by index such as {@code disks[0].used}
      */
     private void flattenJsonToMap(JsonNode node, String prefix, Map<String, String> map) {
         if (node.isObject()) {
@@ -105,12 +120,21 @@ public class NotificationService {
                 Map.Entry<String, JsonNode> field = fields.next();
                 String key = prefix.isEmpty() ? field.getKey() : prefix + "." + field.getKey();
 
-                if (field.getValue().isObject()) {
+                if (field.getValue().isContainerNode()) {
                     flattenJsonToMap(field.getValue(), key, map);
                 } else {
                     map.put(key, field.getValue().asText());
                 }
             }
+        } else if (node.isArray()) {
+            for (int i = 0; i < node.size(); i++) {
+                String key = prefix + "[" + i + "]";
+                if (node.get(i).isContainerNode()) {
+                    flattenJsonToMap(node.get(i), key, map);
+                } else {
+                    map.put(key, node.get(i).asText());
+                }
+            }
         }
     }
 
@@ -6,6 +6,8 @@ import com.hoatv.kafka.notifier.dto.NotifierConfigurationRequest;
 import com.hoatv.kafka.notifier.dto.NotifierConfigurationResponse;
 import com.hoatv.kafka.notifier.model.NotifierConfiguration;
 import com.hoatv.kafka.notifier.repository.NotifierConfigurationRepository;
+import com.hoatv.kafka.notifier.rule.InvalidRulesException;
+import com.hoatv.kafka.notifier.rule.RuleExpressionParser;
 
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -26,6 +28,8 @@ public class NotifierConfigurationService {
 
     private final KafkaService kafkaService;
     private final NotifierConfigurationRepository repository;
+    private final RuleEvaluationService ruleEvaluationService;
+    private final AlertStateService alertStateService;
 
     public NotifierConfigurationResponse create(NotifierConfigurationRequest request) {
         LOGGER.info("Creating notifier configuration for notifier: {}, topic: {}",
@@ -37,20 +41,32 @@ public class NotifierConfigurationService {
                             request.getNotifier(), request.getTopic()));
         }
 
+        validateRules(request);
         NotifierConfiguration config = NotifierConfiguration.builder()
                 .notifier(request.getNotifier())
                 .topic(request.getTopic())
                 .rules(request.getRules())
+                .expression(request.getExpression())
+                .version(1L)
                 .actions(request.getActions())
                 .enabled(request.getEnabled() != null ? request.getEnabled() : true)
                 .description(request.getDescription())
                 .throttlePeriodMinutes(request.getThrottlePeriodMinutes())
                 .throttlePermitsPerPeriod(request.getThrottlePermitsPerPeriod())
+                .alertFingerprint(request.getAlertFingerprint())
+                .alertForSeconds(request.getAlertForSeconds())
+                .dedupFields(request.getDedupFields())
+                .dedupTtlSeconds(request.getDedupTtlSeconds())
+                .maxPollRecords(request.getMaxPollRecords())
+                .fetchMinBytes(request.getFetchMinBytes())
+                .maxPartitionFetchBytes(request.getMaxPartitionFetchBytes())
+                .generateBytecode(request.isGenerateBytecode())
                 .createdAt(LocalDateTime.now())
                 .build();
 
         NotifierConfiguration savedNotifierConfiguration = repository.save(config);
         LOGGER.info("Successfully created notifier configuration with ID: {}", savedNotifierConfiguration.getId());
+        ruleEvaluationService.compile(savedNotifierConfiguration);
         if (savedNotifierConfiguration.isEnabled()) {
             kafkaService.addTopicSubscription(savedNotifierConfiguration.getTopic());
         }
@@ -75,22 +91,38 @@ public class NotifierConfigurationService {
             }
         }
 
+        validateRules(request);
         existingConfig.setNotifier(request.getNotifier());
         existingConfig.setTopic(request.getTopic());
         existingConfig.setRules(request.getRules());
+        existingConfig.setExpression(request.getExpression());
+        existingConfig.setVersion(existingConfig.getVersion() != null ? existingConfig.getVersion() + 1 : 1L);
         existingConfig.setActions(request.getActions());
         existingConfig.setEnabled(request.getEnabled() != null ? request.getEnabled() : existingConfig.isEnabled());
         existingConfig.setDescription(request.getDescription());
         existingConfig.setThrottlePeriodMinutes(request.getThrottlePeriodMinutes());
         existingConfig.setThrottlePermitsPerPeriod(request.getThrottlePermitsPerPeriod());
+        existingConfig.setAlertFingerprint(request.getAlertFingerprint());
+        existingConfig.setAlertForSeconds(request.getAlertForSeconds());
+        existingConfig.setDedupFields(request.getDedupFields());
+        existingConfig.setDedupTtlSeconds(request.getDedupTtlSeconds());
+        existingConfig.setMaxPollRecords(request.getMaxPollRecords());
+        existingConfig.setFetchMinBytes(request.getFetchMinBytes());
+        existingConfig.setMaxPartitionFetchBytes(request.getMaxPartitionFetchBytes());
+        existingConfig.setGenerateBytecode(request.isGenerateBytecode());
         existingConfig.setUpdatedAt(LocalDateTime.now());
 
         NotifierConfiguration updated = repository.save(existingConfig);
         LOGGER.info("Successfully updated notifier configuration with ID: {}", id);
+        ruleEvaluationService.compile(updated);
+        alertStateService.evict(id);
 
         // Handle topic subscription changes
         if (updated.isEnabled()) {
             kafkaService.addTopicSubscription(updated.getTopic());
+        } else {
+            List<NotifierConfiguration> enabledConfigs = findEnabledConfigurationsByTopic(updated.getTopic());
+            kafkaService.removeTopicSubscriptionIfUnused(updated.getTopic(), enabledConfigs);
         }
         // Check if old topic still has enabled configurations
         if (!topic.equals(updated.getTopic())) {
@@ -147,6 +179,8 @@ public class NotifierConfigurationService {
 
         String topic = config.getTopic();
         repository.deleteById(id);
+        ruleEvaluationService.evict(id);
+        alertStateService.evict(id);
 
         List<NotifierConfiguration> enabledConfigs = findEnabledConfigurationsByTopic(topic);
         kafkaService.removeTopicSubscriptionIfUnused(topic, enabledConfigs);
@@ -179,17 +213,40 @@ public class NotifierConfigurationService {
         return mapToResponse(updated);
     }
 
+    /**
+     * Check that exactly one of rules and expression is given and that the expression parses,
+     * so a malformed expression is rejected instead of failing every record of the topic
+     */
+    private void validateRules(NotifierConfigurationRequest request) {
+        if ((request.getRules() == null) == (request.getExpression() == null)) {
+            throw new InvalidRulesException("Either rules or expression is required");
+        }
+        if (request.getExpression() != null) {
+            RuleExpressionParser.parse(request.getExpression());
+        }
+    }
+
     private NotifierConfigurationResponse mapToResponse(NotifierConfiguration config) {
         return NotifierConfigurationResponse.builder()
                 .id(config.getId())
                 .notifier(config.getNotifier())
                 .topic(config.getTopic())
                 .rules(config.getRules())
+                .expression(config.getExpression())
+                .version(config.getVersion())
                 .actions(config.getActions())
                 .enabled(config.isEnabled())
                 .description(config.getDescription())
                 .throttlePeriodMinutes(config.getThrottlePeriodMinutes())
                 .throttlePermitsPerPeriod(config.getThrottlePermitsPerPeriod())
+                .alertFingerprint(config.getAlertFingerprint())
+                .alertForSeconds(config.getAlertForSeconds())
+                .dedupFields(config.getDedupFields())
+                .dedupTtlSeconds(config.getDedupTtlSeconds())
+                .maxPollRecords(config.getMaxPollRecords())
+                .fetchMinBytes(config.getFetchMinBytes())
+                .maxPartitionFetchBytes(config.getMaxPartitionFetchBytes())
+                .generateBytecode(config.isGenerateBytecode())
                 .createdAt(config.getCreatedAt())
                 .updatedAt(config.getUpdatedAt())
                 .createdBy(config.getCreatedBy())
@@ -0,0 +1,116 @@
+package com.hoatv.kafka.notifier.service;
+
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Offsets of the records handed to workers, per partition, giving the offset up to which
+ * every record was processed.
+ * <p>
+ * Records of a partition are dispatched in offset order but may complete out of order when
+ * their keys run on different workers; the committable offset of a partition is its lowest
+ * record still in flight, or the one after the last dispatched record when none is, so a
+ * commit never skips a record that was not processed.
+ */
+final class OffsetTracker {
+
+    private final Map<TopicPartition, Partition> partitions = new HashMap<>();
+
+    synchronized void dispatched(TopicPartition partition, long offset) {
+        Partition tracked = partitions.computeIfAbsent(partition, key -> new Partition());
+        tracked.inFlight.add(offset);
+        tracked.next = Math.max(tracked.next, offset + 1);
+    }
+
+    synchronized void completed(TopicPartition partition, long offset) {
+        Partition tracked = partitions.get(partition);
+        if (tracked != null) {
+            tracked.inFlight.remove(offset);
+        }
+        notifyAll();
+    }
+
+    /**
+     * Wait until no record of the given partitions is in flight
+     *
+     * @return false when records were still in flight after the timeout
+     */
+    synchronized boolean awaitCompleted(Set<TopicPartition> assignment, long timeoutMillis) throws InterruptedException {
+        return awaitUntil(() -> inFlight(assignment) == 0, timeoutMillis);
+    }
+
+    /**
+     * Wait until at most the given number of records of any partition is in flight
+     *
+     * @return false when more records were still in flight after the timeout
+     */
+    synchronized boolean awaitInFlight(int count, long timeoutMillis) throws InterruptedException {
+        return awaitUntil(() -> inFlight() <= count, timeoutMillis);
+    }
+
+    private boolean awaitUntil(BooleanSupplier condition, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!condition.getAsBoolean()) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            wait(remaining);
+        }
+        return true;
+    }
+
+    /**
+     * Offsets of the given partitions that advanced since they were last returned
+     */
+    synchronized Map<TopicPartition, OffsetAndMetadata> committable(Set<TopicPartition> assignment) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        for (TopicPartition partition : assignment) {
+            Partition tracked = partitions.get(partition);
+            if (tracked == null) {
+                continue;
+            }
+            long offset = tracked.inFlight.isEmpty() ? tracked.next : tracked.inFlight.first();
+            if (offset > tracked.committed) {
+                tracked.committed = offset;
+                offsets.put(partition, new OffsetAndMetadata(offset));
+            }
+        }
+        return offsets;
+    }
+
+    /**
+     * Stop tracking partitions assigned to another consumer, whose records still in flight
+     * will be redelivered there
+     */
+    synchronized void revoked(Collection<TopicPartition> revoked) {
+        revoked.forEach(partitions::remove);
+    }
+
+    synchronized int inFlight() {
+        return partitions.values().stream().mapToInt(partition -> partition.inFlight.size()).sum();
+    }
+
+    private int inFlight(Set<TopicPartition> assignment) {
+        return assignment.stream()
+                .map(partitions::get)
+                .filter(Objects::nonNull)
+                .mapToInt(partition -> partition.inFlight.size())
+                .sum();
+    }
+
+    private static final class Partition {
+
+        private final TreeSet<Long> inFlight = new TreeSet<>();
+        private long next;
+        private long committed = -1;
+    }
+}
@@ -0,0 +1,168 @@
+package com.hoatv.kafka.notifier.service;
+
+import com.hoatv.kafka.notifier.model.NotifierConfiguration;
+import com.hoatv.kafka.notifier.rule.TopicRuleSet;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of the configurations matched by raw record values, for topics whose
+ * producers repeat identical payloads such as heartbeats.
+ * <p>
+ * Entries are keyed by topic, rule set snapshot version and a 64-bit hash of the payload, and
+ * keep the payload to confirm a hit, so an exact repeat skips parsing and rule evaluation and
+ * a changed configuration never reuses an older result. Only the topics listed in
+ * {@code notifier.rules.result-cache.topics} are cached; hits and misses are counted per topic
+ * in the {@code notifier.rules.result.cache} meter.
+ */
+@Component
+public class RecordResultCache {
+
+    private static final String METER_NAME = "notifier.rules.result.cache";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> hits = new ConcurrentHashMap<>();
+    private final Map<String, Counter> misses = new ConcurrentHashMap<>();
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > maximumSize;
+        }
+    };
+
+    @Value("${notifier.rules.result-cache.topics:}")
+    private Set<String> topics;
+
+    @Value("${notifier.rules.result-cache.maximum-size:10000}")
+    private int maximumSize;
+
+    @Value("${notifier.rules.result-cache.maximum-payload-bytes:4096}")
+    private int maximumPayloadBytes;
+
+    @Autowired
+    public RecordResultCache(ObjectProvider<MeterRegistry> meterRegistry) {
+        this(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    RecordResultCache(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void registerMeters() {
+        Gauge.builder(METER_NAME + ".size", this, RecordResultCache::size)
+                .description("Record values cached with their matching configurations")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Check whether records of the topic are cached
+     */
+    public boolean isEnabled(String topic) {
+        return topics.contains(topic);
+    }
+
+    /**
+     * Get the configurations a record value matched under the same rule set snapshot,
+     * evaluating and caching them when the value was not seen yet
+     */
+    public List<NotifierConfiguration> getOrEvaluate(TopicRuleSet ruleSet, byte[] value,
+                                                     Supplier<List<NotifierConfiguration>> evaluation) {
+        if (value.length > maximumPayloadBytes) {
+            return evaluation.get();
+        }
+
+        List<NotifierConfiguration> matches = lookup(ruleSet, value);
+        if (matches == null) {
+            matches = put(ruleSet, value, evaluation.get());
+        }
+        return matches;
+    }
+
+    /**
+     * Get the configurations a record value matched under the same rule set snapshot
+     *
+     * @return null when the value was not seen yet or is too large to be cached
+     */
+    public List<NotifierConfiguration> lookup(TopicRuleSet ruleSet, byte[] value) {
+        if (value.length > maximumPayloadBytes) {
+            return null;
+        }
+
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(new Key(ruleSet.topic(), ruleSet.version(), hash(value)));
+        }
+        if (entry != null && Arrays.equals(entry.value(), value)) {
+            counter(hits, ruleSet.topic(), "hit").increment();
+            return entry.matches();
+        }
+        counter(misses, ruleSet.topic(), "miss").increment();
+        return null;
+    }
+
+    /**
+     * Cache the configurations a record value matched, unless it is too large
+     *
+     * @return the cached, unmodifiable matches
+     */
+    public List<NotifierConfiguration> put(TopicRuleSet ruleSet, byte[] value, List<NotifierConfiguration> matches) {
+        List<NotifierConfiguration> cached = List.copyOf(matches);
+        if (value.length <= maximumPayloadBytes) {
+            synchronized (entries) {
+                entries.put(new Key(ruleSet.topic(), ruleSet.version(), hash(value)), new Entry(value.clone(), cached));
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Number of cached record values
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private Counter counter(Map<String, Counter> counters, String topic, String result) {
+        return counters.computeIfAbsent(topic, key -> Counter.builder(METER_NAME)
+                .description("Record values looked up in the result cache")
+                .tag("topic", topic)
+                .tag("result", result)
+                .register(meterRegistry));
+    }
+
+    /**
+     * 64-bit FNV-1a hash of a record value
+     */
+    static long hash(byte[] value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private record Key(String topic, long version, long hash) {
+    }
+
+    private record Entry(byte[] value, List<NotifierConfiguration> matches) {
+    }
+}
@@ -2,14 +2,37 @@ package com.hoatv.kafka.notifier.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.*;
+import com.hoatv.kafka.notifier.model.NotifierConfiguration;
+import com.hoatv.kafka.notifier.rule.AdaptiveJunctionPredicate;
+import com.hoatv.kafka.notifier.rule.ColumnarEvaluator;
+import com.hoatv.kafka.notifier.rule.CompiledRule;
+import com.hoatv.kafka.notifier.rule.DiscriminationIndex;
+import com.hoatv.kafka.notifier.rule.FieldPath;
+import com.hoatv.kafka.notifier.rule.FieldProjection;
+import com.hoatv.kafka.notifier.rule.MessageContext;
+import com.hoatv.kafka.notifier.rule.RecordBatch;
+import com.hoatv.kafka.notifier.rule.RecordPrefilter;
+import com.hoatv.kafka.notifier.rule.RuleClassGenerator;
+import com.hoatv.kafka.notifier.rule.RuleCompiler;
+import com.hoatv.kafka.notifier.rule.SharedConditions;
+import com.hoatv.kafka.notifier.rule.TopicRuleSet;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
 
 /**
  * Enhanced Rule Evaluation Service that handles both simple values and JSON objects
@@ -20,6 +43,18 @@ import java.util.Map;
  * 3. JSON arrays: [1, 2, 3]
  * <p>
  * For simple values, rules can use direct value comparison without field references.
+ * <p>
+ * Rules are compiled into a predicate tree by {@link RuleCompiler} and cached per
+ * configuration id and version, so records are evaluated without re-reading the rule map.
+ * Hot rules can be turned into generated classes by {@link RuleClassGenerator}, either per
+ * configuration or once a rule has been evaluated {@code notifier.rules.bytecode.threshold} times.
+ * With {@code notifier.rules.adaptive-ordering.enabled}, cached rules check their conditions in
+ * the order learned by {@link AdaptiveJunctionPredicate} until a generated class takes over.
+ * With {@code notifier.rules.prefilter.enabled}, topic rule sets carry a {@link RecordPrefilter}
+ * that drops raw records none of their rules can match, unless a configuration of the topic is
+ * alerting and must see the records that stop matching.
+ * With {@code notifier.rules.parallel.threshold}, records with many configurations to evaluate
+ * are evaluated on the common fork-join pool, matches still reported in configuration order.
  */
 @Service("enhancedRuleEvaluationService")
 @RequiredArgsConstructor
@@ -28,329 +63,299 @@ public class RuleEvaluationService {
     private static final Logger LOGGER = LoggerFactory.getLogger(RuleEvaluationService.class);
 
     private final ObjectMapper objectMapper;
+    private final RuleCompiler ruleCompiler = new RuleCompiler();
+    private final RuleClassGenerator ruleClassGenerator = new RuleClassGenerator();
+    private final ColumnarEvaluator columnarEvaluator = new ColumnarEvaluator();
+    private final Map<String, CompiledRule> compiledRules = new ConcurrentHashMap<>();
+    private final Map<String, Long> ruleCosts = new ConcurrentHashMap<>();
+
+    @Value("${notifier.rules.projection.enabled:false}")
+    private boolean projectionEnabled;
+
+    @Value("${notifier.rules.bytecode.threshold:0}")
+    private long bytecodeThreshold;
+
+    @Value("${notifier.rules.adaptive-ordering.enabled:false}")
+    private boolean adaptiveOrdering;
+
+    @Value("${notifier.rules.prefilter.enabled:false}")
+    private boolean prefilterEnabled;
+
+    @Value("${notifier.rules.parallel.threshold:0}")
+    private int parallelThreshold;
+
+    @Value("${notifier.rules.parallel.task-micros:50}")
+    private long parallelTaskMicros;
 
     /**
      * Evaluate rules against a Kafka message
      * Handles both simple values and complex JSON objects
      */
     public boolean evaluateRules(Map<String, Object> rules, String message) {
-        try {
-            LOGGER.debug("Evaluating rules against message: {}", message);
-
-            JsonNode messageNode = parseMessage(message);
-            return evaluateNode(rules, messageNode);
-
-        } catch (Exception e) {
-            LOGGER.error("Error evaluating rules: {}", e.getMessage(), e);
-            return false;
-        }
+        return evaluate(new CompiledRule(null, 0L, ruleCompiler.compile(rules)), createContext(message));
     }
 
     /**
-     * Parse message into JsonNode, handling both simple values and JSON objects
+     * Evaluate the cached compiled rules of a configuration against a Kafka message
      */
-    private JsonNode parseMessage(String message) {
-        if (message == null || message.trim().isEmpty()) {
-            return NullNode.getInstance();
-        }
-
-        String trimmedMessage = message.trim();
-
-        try {
-            return objectMapper.readTree(trimmedMessage);
-        } catch (Exception e) {
-            LOGGER.debug("Message is not valid JSON, treating as simple value: {}", trimmedMessage);
-            return parseAsSimpleValue(trimmedMessage);
-        }
+    public boolean evaluateRules(NotifierConfiguration config, String message) {
+        return evaluateRules(config, createContext(message));
     }
 
     /**
-     * Parse simple values into appropriate JsonNode types
+     * Evaluate the cached compiled rules of a configuration against a record context.
+     * The record is parsed once no matter how many configurations are evaluated against it.
      */
-    private JsonNode parseAsSimpleValue(String value) {
-        try {
-            if (value.contains(".")) {
-                double doubleValue = Double.parseDouble(value);
-                return DoubleNode.valueOf(doubleValue);
-            } else {
-                long longValue = Long.parseLong(value);
-                if (longValue >= Integer.MIN_VALUE && longValue <= Integer.MAX_VALUE) {
-                    return IntNode.valueOf((int) longValue);
-                } else {
-                    return LongNode.valueOf(longValue);
-                }
-            }
-        } catch (NumberFormatException e) {
-            // Not a number, continue with other types
-        }
+    public boolean evaluateRules(NotifierConfiguration config, MessageContext context) {
+        return evaluate(compile(config), context);
+    }
 
-        // Try to parse as boolean
-        if ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)) {
-            return BooleanNode.valueOf(Boolean.parseBoolean(value));
+    /**
+     * Find the configurations of a topic whose rules match the record, in configuration order.
+     * Configurations decided by the rule set's discrimination index are not evaluated, and
+     * conditions shared by several configurations are evaluated once for the record.
+     */
+    public List<NotifierConfiguration> findMatches(TopicRuleSet ruleSet, MessageContext context) {
+        DiscriminationIndex.Selection selection = ruleSet.select(context);
+        BitSet matched = selection.matched();
+        BitSet undecided = selection.undecided();
+        LOGGER.debug("Matched {} and evaluating {} of {} configurations for topic: {}",
+                matched.cardinality(), undecided.cardinality(), ruleSet.size(), ruleSet.topic());
+
+        BitSet results = (BitSet) matched.clone();
+        results.or(evaluateAll(ruleSet, undecided.stream().toArray(), context));
+
+        List<NotifierConfiguration> matches = new ArrayList<>(results.cardinality());
+        for (int i = results.nextSetBit(0); i >= 0; i = results.nextSetBit(i + 1)) {
+            matches.add(ruleSet.configurations().get(i));
         }
-
-        // Default to string
-        return TextNode.valueOf(value);
+        return matches;
     }
 
     /**
-     * Evaluate a rule node against the message
+     * Evaluate the rules at the given positions, splitting them across the shared fork-join
+     * pool when there are at least {@code notifier.rules.parallel.threshold} of them and the
+     * cost learned for the topic makes each task worth {@code notifier.rules.parallel.task-micros}
      */
-    @SuppressWarnings("unchecked")
-    private boolean evaluateNode(Map<String, Object> rules, JsonNode messageNode) {
-        for (Map.Entry<String, Object> entry : rules.entrySet()) {
-            String operator = entry.getKey();
-            Object value = entry.getValue();
-
-            switch (operator) {
-                case "$and":
-                    if (!evaluateAndOperator((List<Map<String, Object>>) value, messageNode)) {
-                        return false;
-                    }
-                    break;
-
-                case "$or":
-                    if (!evaluateOrOperator((List<Map<String, Object>>) value, messageNode)) {
-                        return false;
-                    }
-                    break;
-
-                case "$gt":
-                    if (!evaluateGreaterThan((Map<String, Object>) value, messageNode)) {
-                        return false;
-                    }
-                    break;
-
-                case "$gte":
-                    if (!evaluateGreaterThanOrEqual((Map<String, Object>) value, messageNode)) {
-                        return false;
-                    }
-                    break;
-
-                case "$lt":
-                    if (!evaluateLessThan((Map<String, Object>) value, messageNode)) {
-                        return false;
-                    }
-                    break;
-
-                case "$lte":
-                    if (!evaluateLessThanOrEqual((Map<String, Object>) value, messageNode)) {
-                        return false;
-                    }
-                    break;
-
-                case "$eq":
-                    if (!evaluateEquals((Map<String, Object>) value, messageNode)) {
-                        return false;
-                    }
-                    break;
-
-                case "$ne":
-                    if (!evaluateNotEquals((Map<String, Object>) value, messageNode)) {
-                        return false;
-                    }
-                    break;
-
-                case "$in":
-                    if (!evaluateIn((Map<String, Object>) value, messageNode)) {
-                        return false;
-                    }
-                    break;
-
-                case "$contains":
-                    if (!evaluateContains((Map<String, Object>) value, messageNode)) {
-                        return false;
-                    }
-                    break;
-
-                default:
-                    LOGGER.warn("Unsupported operator: {}", operator);
-                    return false;
-            }
+    private BitSet evaluateAll(TopicRuleSet ruleSet, int[] positions, MessageContext context) {
+        int chunkSize = chunkSize(ruleSet.topic(), positions.length);
+        if (chunkSize >= positions.length) {
+            return evaluateRange(ruleSet, positions, 0, positions.length, context);
         }
 
-        return true;
+        // Parse before forking so the subtasks don't all wait on the same lazy parse
+        context.ruleNode();
+        LOGGER.debug("Evaluating {} configurations in tasks of {} for topic: {}",
+                positions.length, chunkSize, ruleSet.topic());
+        return ForkJoinPool.commonPool().invoke(
+                new EvaluationTask(ruleSet, positions, 0, positions.length, chunkSize, context));
     }
 
-    private boolean evaluateAndOperator(List<Map<String, Object>> conditions, JsonNode messageNode) {
-        for (Map<String, Object> condition : conditions) {
-            if (!evaluateNode(condition, messageNode)) {
-                return false;
-            }
+    private int chunkSize(String topic, int count) {
+        if (parallelThreshold <= 0 || count < parallelThreshold) {
+            return count;
+        }
+        Long nanosPerRule = ruleCosts.get(topic);
+        if (nanosPerRule == null) {
+            // Evaluate serially until the cost of the topic's rules has been measured
+            return count;
         }
-        return true;
+        long rulesPerTask = Math.max(1, parallelTaskMicros * 1000 / Math.max(1, nanosPerRule));
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        return (int) Math.min(count, Math.max(rulesPerTask, (count + parallelism - 1) / parallelism));
     }
 
-    private boolean evaluateOrOperator(List<Map<String, Object>> conditions, JsonNode messageNode) {
-        for (Map<String, Object> condition : conditions) {
-            if (evaluateNode(condition, messageNode)) {
-                return true;
+    private BitSet evaluateRange(TopicRuleSet ruleSet, int[] positions, int from, int to, MessageContext context) {
+        long start = parallelThreshold > 0 ? System.nanoTime() : 0L;
+        SharedConditions.Memo memo = ruleSet.newMemo();
+        BitSet results = new BitSet();
+        for (int i = from; i < to; i++) {
+            int position = positions[i];
+            if (evaluate(ruleSet.rule(position), context, message -> ruleSet.matches(position, message, memo))) {
+                results.set(position);
             }
         }
-        return false;
+        if (parallelThreshold > 0 && to > from) {
+            long nanosPerRule = (System.nanoTime() - start) / (to - from);
+            ruleCosts.merge(ruleSet.topic(), nanosPerRule, (learned, measured) -> (learned * 7 + measured) / 8);
+        }
+        return results;
     }
 
-    private boolean evaluateGreaterThan(Map<String, Object> condition, JsonNode messageNode) {
-        return evaluateComparison(condition, messageNode, (messageValue, conditionValue) ->
-                messageValue > conditionValue);
+    /**
+     * Evaluate every configuration of a topic over a poll's worth of records at once.
+     * The rules run column by column over the records' fields; the result holds, per
+     * configuration in rule set order, the positions of the records it matches.
+     */
+    public List<BitSet> evaluateBatch(TopicRuleSet ruleSet, List<MessageContext> contexts) {
+        RecordBatch batch = RecordBatch.of(contexts.stream().map(MessageContext::ruleNode).toList());
+        List<BitSet> matches = new ArrayList<>(ruleSet.size());
+        for (int i = 0; i < ruleSet.size(); i++) {
+            matches.add(columnarEvaluator.evaluate(ruleSet.rule(i).predicate(), batch));
+        }
+        LOGGER.debug("Evaluated {} configurations over {} records for topic: {}",
+                ruleSet.size(), batch.size(), ruleSet.topic());
+        return matches;
     }
 
-    private boolean evaluateGreaterThanOrEqual(Map<String, Object> condition, JsonNode messageNode) {
-        return evaluateComparison(condition, messageNode, (messageValue, conditionValue) ->
-                messageValue >= conditionValue);
+    /**
+     * Compile the enabled configurations of a topic into an indexed rule set
+     */
+    public TopicRuleSet compileTopic(String topic, List<NotifierConfiguration> configurations) {
+        List<CompiledRule> rules = configurations.stream()
+                .map(this::compile)
+                .toList();
+        // Alerts resolve on records that stop matching, so those cannot be dropped before decoding
+        RecordPrefilter prefilter = prefilterEnabled && configurations.stream().noneMatch(AlertStateService::isAlerting)
+                ? RecordPrefilter.of(rules) : null;
+        return new TopicRuleSet(topic, configurations, rules, projectionFor(configurations), prefilter);
     }
 
-    private boolean evaluateLessThan(Map<String, Object> condition, JsonNode messageNode) {
-        return evaluateComparison(condition, messageNode, (messageValue, conditionValue) ->
-                messageValue < conditionValue);
+    /**
+     * Create the per-record context shared by rule evaluation and notification templates
+     */
+    public MessageContext createContext(String message) {
+        return new MessageContext(objectMapper, message);
     }
 
-    private boolean evaluateLessThanOrEqual(Map<String, Object> condition, JsonNode messageNode) {
-        return evaluateComparison(condition, messageNode, (messageValue, conditionValue) ->
-                messageValue <= conditionValue);
+    /**
+     * Create a record context whose rule view is limited to the given projection (may be null)
+     */
+    public MessageContext createContext(String message, FieldProjection projection) {
+        return new MessageContext(objectMapper, message, projection);
     }
 
-    private boolean evaluateEquals(Map<String, Object> condition, JsonNode messageNode) {
-        String field = (String) condition.get("$field");
-        Object expectedValue = condition.get("$value");
+    /**
+     * Build the streaming projection of every field the given configurations read.
+     * Returns null when projection is disabled or a rule reads the whole message.
+     */
+    public FieldProjection projectionFor(List<NotifierConfiguration> configurations) {
+        if (!projectionEnabled) {
+            return null;
+        }
 
-        if (field != null) {
-            // Field-based comparison for JSON objects
-            JsonNode fieldNode = getFieldValue(messageNode, field);
-            if (fieldNode == null) return false;
+        Set<FieldPath> paths = new LinkedHashSet<>();
+        configurations.forEach(config -> paths.addAll(compile(config).fieldPaths()));
+        configurations.stream()
+                .map(NotifierConfiguration::getAlertFingerprint)
+                .filter(Objects::nonNull)
+                .forEach(fingerprint -> paths.add(FieldPath.parse(fingerprint)));
+        configurations.stream()
+                .filter(DuplicateSuppressionService::isDeduplicating)
+                .forEach(config -> config.getDedupFields().forEach(field -> paths.add(FieldPath.parse(field))));
+        return FieldProjection.of(paths);
+    }
 
-            return compareValues(fieldNode, expectedValue) == 0;
+    /**
+     * Get the compiled rules of a configuration, compiling them when the configuration
+     * is new or its version changed since the last compilation
+     */
+    public CompiledRule compile(NotifierConfiguration config) {
+        long version = config.getVersion() != null ? config.getVersion() : 0L;
+        if (config.getId() == null) {
+            return compile(null, version, config);
         }
 
-        // Direct value comparison for simple values
-        Object directValue = condition.get("$value");
-        if (directValue != null) {
-            return compareValues(messageNode, directValue) == 0;
+        CompiledRule compiledRule = compiledRules.get(config.getId());
+        if (compiledRule != null && compiledRule.version() == version) {
+            return compiledRule;
         }
 
-        return false;
+        LOGGER.debug("Compiling rules for configuration: {} (version {})", config.getNotifier(), version);
+        CompiledRule compiled = compile(config.getId(), version, config);
+        if (adaptiveOrdering) {
+            compiled.useEvaluator(AdaptiveJunctionPredicate.wrap(compiled.predicate()));
+        }
+        if (config.isGenerateBytecode()) {
+            generateClass(compiled);
+        }
+        compiledRules.put(config.getId(), compiled);
+        return compiled;
     }
 
-    private boolean evaluateNotEquals(Map<String, Object> condition, JsonNode messageNode) {
-        return !evaluateEquals(condition, messageNode);
+    private CompiledRule compile(String configurationId, long version, NotifierConfiguration config) {
+        if (config.getExpression() != null) {
+            return ruleCompiler.compileExpression(configurationId, version, config.getExpression());
+        }
+        return ruleCompiler.compile(configurationId, version, config.getRules());
     }
 
-    @SuppressWarnings("unchecked")
-    private boolean evaluateIn(Map<String, Object> condition, JsonNode messageNode) {
-        String field = (String) condition.get("$field");
-        List<Object> values = (List<Object>) condition.get("$values");
-
-        if (field != null && values != null) {
-            // Field-based comparison
-            JsonNode fieldNode = getFieldValue(messageNode, field);
-            if (fieldNode == null) return false;
+    private boolean evaluate(CompiledRule rule, MessageContext context) {
+        return evaluate(rule, context, rule::matches);
+    }
 
-            for (Object value : values) {
-                if (compareValues(fieldNode, value) == 0) {
-                    return true;
-                }
-            }
-        } else if (values != null) {
-            // Direct value comparison for simple values
-            for (Object value : values) {
-                if (compareValues(messageNode, value) == 0) {
-                    return true;
-                }
-            }
+    private boolean evaluate(CompiledRule rule, MessageContext context, Predicate<JsonNode> evaluator) {
+        if (bytecodeThreshold > 0 && !rule.isGenerated() && rule.countEvaluation() == bytecodeThreshold) {
+            generateClass(rule);
         }
 
-        return false;
-    }
+        try {
+            LOGGER.debug("Evaluating rules against message: {}", context.message());
 
-    private boolean evaluateContains(Map<String, Object> condition, JsonNode messageNode) {
-        String field = (String) condition.get("$field");
-        String searchValue = (String) condition.get("$value");
-
-        if (field != null && searchValue != null) {
-            JsonNode fieldNode = getFieldValue(messageNode, field);
-            if (fieldNode == null || !fieldNode.isTextual()) return false;
-            return fieldNode.asText().toLowerCase().contains(searchValue.toLowerCase());
-        } else if (searchValue != null) {
-            if (messageNode.isTextual()) {
-                return messageNode.asText().toLowerCase().contains(searchValue.toLowerCase());
-            }
-        }
+            return evaluator.test(context.ruleNode());
 
-        return false;
+        } catch (Exception e) {
+            LOGGER.error("Error evaluating rules: {}", e.getMessage(), e);
+            return false;
+        }
     }
 
     /**
-     * Enhanced comparison method that handles numeric comparisons
+     * Switch a rule to a generated class, keeping the interpreter when generation fails
      */
-    private boolean evaluateComparison(Map<String, Object> condition, JsonNode messageNode,
-                                       ComparisonOperator operator) {
-        String field = (String) condition.get("$field");
-        Object compareValue = condition.get("$value");
-
-        if (field != null && compareValue != null) {
-            JsonNode fieldNode = getFieldValue(messageNode, field);
-            if (fieldNode == null || !fieldNode.isNumber()) return false;
-            double messageValue = fieldNode.asDouble();
-            double conditionValue = Double.parseDouble(compareValue.toString());
-            return operator.compare(messageValue, conditionValue);
-        }
-
-        // Direct value comparison for simple values
-        Object directValue = condition.get("$value");
-        if (directValue != null && messageNode.isNumber()) {
-            double messageValue = messageNode.asDouble();
-            double conditionValue = Double.parseDouble(directValue.toString());
-            return operator.compare(messageValue, conditionValue);
+    private void generateClass(CompiledRule rule) {
+        try {
+            rule.useGeneratedClass(ruleClassGenerator.generate(rule.predicate()));
+            LOGGER.debug("Generated rule class for configuration: {}", rule.configurationId());
+        } catch (Exception e) {
+            LOGGER.warn("Failed to generate rule class for configuration '{}', keeping the interpreter: {}",
+                    rule.configurationId(), e.getMessage());
         }
-
-        return false;
     }
 
     /**
-     * Get field value from JSON object, supporting nested fields
+     * Drop the compiled rules of a configuration (called when it is deleted)
      */
-    private JsonNode getFieldValue(JsonNode messageNode, String field) {
-        if (field.contains(".")) {
-            // Handle nested field access like "system.cpu.usage"
-            String[] parts = field.split("\\.");
-            JsonNode current = messageNode;
-
-            for (String part : parts) {
-                if (current == null || !current.has(part)) {
-                    return null;
-                }
-                current = current.get(part);
-            }
-
-            return current;
-        } else {
-            return messageNode.get(field);
-        }
+    public void evict(String configurationId) {
+        compiledRules.remove(configurationId);
     }
 
     /**
-     * Compare JsonNode with expected value
+     * Rules of a range of positions, split in halves down to the chunk size; each leaf keeps
+     * its own memo of shared conditions
      */
-    private int compareValues(JsonNode messageNode, Object expectedValue) {
-        if (messageNode.isNumber() && expectedValue instanceof Number) {
-            double messageValue = messageNode.asDouble();
-            double expectedDouble = ((Number) expectedValue).doubleValue();
-            return Double.compare(messageValue, expectedDouble);
-        } else if (messageNode.isTextual()) {
-            String messageText = messageNode.asText();
-            String expectedText = expectedValue.toString();
-            return messageText.compareTo(expectedText);
-        } else if (messageNode.isBoolean()) {
-            boolean messageBoolean = messageNode.asBoolean();
-            boolean expectedBoolean = Boolean.parseBoolean(expectedValue.toString());
-            return Boolean.compare(messageBoolean, expectedBoolean);
+    private final class EvaluationTask extends RecursiveTask<BitSet> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final TopicRuleSet ruleSet;
+        private final int[] positions;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+        private final MessageContext context;
+
+        private EvaluationTask(TopicRuleSet ruleSet, int[] positions, int from, int to,
+                               int chunkSize, MessageContext context) {
+            this.ruleSet = ruleSet;
+            this.positions = positions;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.context = context;
         }
 
-        return messageNode.toString().compareTo(expectedValue.toString());
-    }
-
-    @FunctionalInterface
-    private interface ComparisonOperator {
-        boolean compare(double messageValue, double conditionValue);
+        @Override
+        protected BitSet compute() {
+            if (to - from <= chunkSize) {
+                return evaluateRange(ruleSet, positions, from, to, context);
+            }
+            int middle = (from + to) >>> 1;
+            EvaluationTask first = new EvaluationTask(ruleSet, positions, from, middle, chunkSize, context);
+            first.fork();
+            BitSet results = new EvaluationTask(ruleSet, positions, middle, to, chunkSize, context).compute();
+            results.or(first.join());
+            return results;
+        }
     }
 }
@@ -0,0 +1,187 @@
+package com.hoatv.kafka.notifier.service;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Fixed pool of workers processing consumed records in parallel, each worker taking the records
+ * of its shard of keys in order.
+ * <p>
+ * Records are sharded by key, or by partition for records without a key, so records with the
+ * same key keep their order while different keys use every worker. Each worker has a bounded
+ * queue; a full queue blocks the consumer thread handing records off, which holds back polling.
+ * Since records complete out of order, automatic commits must be disabled: the consumer thread
+ * commits through {@link #commit(Consumer)} the offsets up to which every record of its
+ * partitions was processed, tracked by an {@link OffsetTracker}, also while no record arrives.
+ * Records of revoked partitions not yet committed are processed again by their new consumer,
+ * and a consumer about to close waits through {@link #release(Consumer)} for the records of
+ * its partitions still in flight before its last commit.
+ */
+final class ShardedRecordExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardedRecordExecutor.class);
+
+    private final BiConsumer<String, byte[]> handler;
+    private final long commitIntervalMillis;
+    private final long drainTimeoutMillis;
+    private final List<BlockingQueue<Runnable>> queues = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private final OffsetTracker offsets = new OffsetTracker();
+    private final Map<Consumer<?, ?>, Long> lastCommits = new ConcurrentHashMap<>();
+
+    /**
+     * @param drainTimeoutMillis how long a closing consumer waits for its records in flight
+     * @param handler            receives the topic and value of every record, on the worker of its shard
+     */
+    ShardedRecordExecutor(int shards, int queueCapacity, long commitIntervalMillis, long drainTimeoutMillis,
+                          BiConsumer<String, byte[]> handler) {
+        this.handler = handler;
+        this.commitIntervalMillis = commitIntervalMillis;
+        this.drainTimeoutMillis = drainTimeoutMillis;
+        for (int i = 0; i < shards; i++) {
+            BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(queueCapacity);
+            Thread worker = new Thread(() -> work(queue), "notifier-worker-" + i);
+            worker.setDaemon(true);
+            queues.add(queue);
+            workers.add(worker);
+            worker.start();
+        }
+        LOGGER.info("Started {} record worker(s) with queues of {} record(s)", shards, queueCapacity);
+    }
+
+    /**
+     * Hand a record to the worker of its shard, waiting while that worker's queue is full
+     */
+    void submit(ConsumerRecord<String, byte[]> consumerRecord) throws InterruptedException {
+        TopicPartition partition = new TopicPartition(consumerRecord.topic(), consumerRecord.partition());
+        Object key = consumerRecord.key() != null ? consumerRecord.key() : partition;
+        BlockingQueue<Runnable> queue = queues.get(Math.floorMod(Objects.hashCode(key), queues.size()));
+
+        offsets.dispatched(partition, consumerRecord.offset());
+        queue.put(() -> {
+            try {
+                handler.accept(consumerRecord.topic(), consumerRecord.value());
+            } finally {
+                offsets.completed(partition, consumerRecord.offset());
+            }
+        });
+    }
+
+    /**
+     * Commit the processed offsets of the consumer's partitions, at most once per commit interval.
+     * Must be called on the consumer's thread.
+     */
+    void commit(Consumer<?, ?> consumer) {
+        long now = System.currentTimeMillis();
+        Long lastCommit = lastCommits.get(consumer);
+        if (lastCommit != null && now - lastCommit < commitIntervalMillis) {
+            return;
+        }
+        lastCommits.put(consumer, now);
+
+        Map<TopicPartition, OffsetAndMetadata> committable = offsets.committable(consumer.assignment());
+        if (!committable.isEmpty()) {
+            consumer.commitAsync(committable, (committed, e) -> {
+                if (e != null) {
+                    LOGGER.warn("Failed to commit processed offsets {}: {}", committed, e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Commit what was processed of partitions about to be revoked from the consumer, then stop
+     * tracking them. Must be called on the consumer's thread.
+     */
+    void revoked(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        Map<TopicPartition, OffsetAndMetadata> committable = offsets.committable(Set.copyOf(partitions));
+        try {
+            if (!committable.isEmpty()) {
+                commitSync(consumer, committable);
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Failed to commit processed offsets of revoked partitions {}: {}", partitions, e.getMessage());
+        }
+        offsets.revoked(partitions);
+    }
+
+    /**
+     * Commit synchronously, retrying once when a wakeup meant for the poll loop was still pending,
+     * such as the one stopping the consumer while it handed records off; it is cleared once thrown
+     */
+    private static void commitSync(Consumer<?, ?> consumer, Map<TopicPartition, OffsetAndMetadata> committable) {
+        try {
+            consumer.commitSync(committable);
+        } catch (WakeupException e) {
+            consumer.commitSync(committable);
+        }
+    }
+
+    /**
+     * Wait for the records of the consumer's partitions still in flight, commit what was processed
+     * and forget the consumer, which is about to be closed. Must be called on the consumer's thread.
+     */
+    void release(Consumer<?, ?> consumer) {
+        Set<TopicPartition> assignment = Set.copyOf(consumer.assignment());
+        try {
+            if (!offsets.awaitCompleted(assignment, drainTimeoutMillis)) {
+                LOGGER.warn("Records of partitions {} still in flight after {} ms, they will be delivered again",
+                        assignment, drainTimeoutMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        revoked(consumer, assignment);
+        lastCommits.remove(consumer);
+    }
+
+    /**
+     * Records handed to workers and not processed yet
+     */
+    int inFlight() {
+        return offsets.inFlight();
+    }
+
+    /**
+     * Wait until at most the given number of records handed to workers is not processed yet
+     *
+     * @return false when more records were still in flight after the timeout
+     */
+    boolean awaitInFlight(int count, long timeoutMillis) throws InterruptedException {
+        return offsets.awaitInFlight(count, timeoutMillis);
+    }
+
+    void stop() {
+        workers.forEach(Thread::interrupt);
+        lastCommits.clear();
+        LOGGER.info("Stopped {} record worker(s)", workers.size());
+    }
+
+    private void work(BlockingQueue<Runnable> queue) {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                queue.take().run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                LOGGER.error("Error processing record on worker: {}", e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.hoatv.kafka.notifier.service;
+
+import java.util.Arrays;
+
+/**
+ * Bloom filter remembering keys for a time to live, kept as a ring of {@value #GENERATIONS}
+ * generations of fixed size.
+ * <p>
+ * Keys are added to the generation of the current time slot, a third of the time to live long,
+ * and looked up in every generation still in the window; the generation whose slot is reused
+ * is cleared. A key is therefore remembered for at least the time to live and at most a third
+ * longer, in constant memory whatever the number of distinct keys, at the cost of a false
+ * positive rate that grows once a generation receives more keys than it was sized for. Since a
+ * lookup may hit any live generation, each is sized for a {@value #GENERATIONS}th of the rate.
+ */
+final class TimeBucketedBloomFilter {
+
+    static final int GENERATIONS = 4;
+
+    private final long generationMillis;
+    private final long bitCount;
+    private final int hashCount;
+    private final long[][] generations;
+    private final long[] epochs = new long[GENERATIONS];
+
+    /**
+     * @param expectedKeys      keys added per generation for which the false positive rate holds
+     * @param falsePositiveRate probability of reporting an absent key as seen, across all generations
+     */
+    TimeBucketedBloomFilter(long ttlMillis, int expectedKeys, double falsePositiveRate) {
+        this.generationMillis = Math.max(1, (ttlMillis + GENERATIONS - 2) / (GENERATIONS - 1));
+        double generationFalsePositiveRate = falsePositiveRate / GENERATIONS;
+        long bits = (long) Math.ceil(-expectedKeys * Math.log(generationFalsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = Math.max(64, (bits + 63) / 64 * 64);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedKeys * Math.log(2)));
+        this.generations = new long[GENERATIONS][(int) (bitCount / 64)];
+        Arrays.fill(epochs, Long.MIN_VALUE);
+    }
+
+    /**
+     * Add a key unless it was added within the time to live
+     *
+     * @return true when the key was not seen
+     */
+    synchronized boolean add(String key, long now) {
+        long hash = hash(key);
+        long increment = mix(hash ^ 0x9e3779b97f4a7c15L) | 1;
+        long current = now / generationMillis;
+        if (contains(hash, increment, current)) {
+            return false;
+        }
+
+        int slot = (int) Math.floorMod(current, (long) GENERATIONS);
+        if (epochs[slot] != current) {
+            Arrays.fill(generations[slot], 0L);
+            epochs[slot] = current;
+        }
+        long[] bits = generations[slot];
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash + i * increment, bitCount);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+        return true;
+    }
+
+    /**
+     * Check whether a key was added within the time to live, without adding it
+     */
+    synchronized boolean contains(String key, long now) {
+        long hash = hash(key);
+        return contains(hash, mix(hash ^ 0x9e3779b97f4a7c15L) | 1, now / generationMillis);
+    }
+
+    private boolean contains(long hash, long increment, long current) {
+        for (int generation = 0; generation < GENERATIONS; generation++) {
+            if (epochs[generation] > current - GENERATIONS && epochs[generation] <= current
+                    && contains(generations[generation], hash, increment)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean contains(long[] bits, long hash, long increment) {
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash + i * increment, bitCount);
+            if ((bits[(int) (bit >>> 6)] & 1L << bit) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Memory held by the bits of every generation
+     */
+    long sizeInBytes() {
+        return GENERATIONS * bitCount / 8;
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the key's characters, mixed so that every bit depends on every character
+     */
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
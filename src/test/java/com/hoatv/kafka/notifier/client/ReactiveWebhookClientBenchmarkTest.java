@@ -0,0 +1,122 @@
+package com.hoatv.kafka.notifier.client;
+
+import com.hoatv.kafka.notifier.dto.SlackMessage;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark for ReactiveWebhookClient, excluded from the default build and run with {@code mvn test -Pbenchmark}
+ * Measures sending webhooks to a slow local server with RestTemplate and with the pooled WebClient
+ */
+@Tag("benchmark")
+@DisplayName("Reactive Webhook Client Benchmark")
+class ReactiveWebhookClientBenchmarkTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReactiveWebhookClientBenchmarkTest.class);
+
+    private static final long LATENCY_MILLIS = 20;
+    private static final int WEBHOOKS = 200;
+
+    private final AtomicReference<CountDownLatch> received = new AtomicReference<>(new CountDownLatch(0));
+    private HttpServer server;
+    private String url;
+    private ReactiveWebhookClient reactiveClient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", exchange -> {
+            try {
+                exchange.getRequestBody().readAllBytes();
+                Thread.sleep(LATENCY_MILLIS);
+                byte[] body = "ok".getBytes();
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+                received.get().countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/services/ok";
+
+        reactiveClient = new ReactiveWebhookClient(WebClient.builder());
+        ReflectionTestUtils.setField(reactiveClient, "enabled", true);
+        ReflectionTestUtils.setField(reactiveClient, "maxConnectionsPerHost", 100);
+        ReflectionTestUtils.setField(reactiveClient, "maxPendingPerHost", 10_000);
+        ReflectionTestUtils.setField(reactiveClient, "pendingTimeoutMillis", 10_000L);
+        ReflectionTestUtils.setField(reactiveClient, "connectTimeoutMillis", 1000);
+        ReflectionTestUtils.setField(reactiveClient, "readTimeoutMillis", 5000L);
+        ReflectionTestUtils.setField(reactiveClient, "maxIdleSeconds", 30L);
+        reactiveClient.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reactiveClient.stop();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should report the time to send webhooks with RestTemplate and with WebClient")
+    void measureWebhookClients() throws Exception {
+        // Given
+        SlackWebhookClient blockingClient = new SlackWebhookClient(new RestTemplate());
+        SlackWebhookClient nonBlockingClient = new SlackWebhookClient(new RestTemplate(), reactiveClient);
+        blockingClient.sendMessage(url, SlackMessage.of("warm-up"));
+        reactiveClient.post(url, SlackMessage.of("warm-up")).get(10, TimeUnit.SECONDS);
+
+        // When
+        long blockingNanos = send(blockingClient);
+        CountDownLatch done = expect();
+        long start = System.nanoTime();
+        for (int i = 0; i < WEBHOOKS; i++) {
+            nonBlockingClient.sendMessage(url, SlackMessage.of("CPU high on db-" + i));
+        }
+        long submitNanos = System.nanoTime() - start;
+        boolean completed = done.await(60, TimeUnit.SECONDS);
+        long reactiveNanos = System.nanoTime() - start;
+
+        // Then
+        LOGGER.info("{} webhooks with {} ms latency: RestTemplate {} ms, WebClient {} ms ({} ms on the caller)",
+                WEBHOOKS, LATENCY_MILLIS, blockingNanos / 1_000_000, reactiveNanos / 1_000_000,
+                submitNanos / 1_000_000);
+        assertTrue(completed);
+    }
+
+    private long send(SlackWebhookClient client) throws InterruptedException {
+        CountDownLatch done = expect();
+        long start = System.nanoTime();
+        for (int i = 0; i < WEBHOOKS; i++) {
+            client.sendMessage(url, SlackMessage.of("CPU high on db-" + i));
+        }
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        return System.nanoTime() - start;
+    }
+
+    private CountDownLatch expect() {
+        CountDownLatch latch = new CountDownLatch(WEBHOOKS);
+        received.set(latch);
+        return latch;
+    }
+}
@@ -0,0 +1,99 @@
+package com.hoatv.kafka.notifier.client;
+
+import com.hoatv.kafka.notifier.dto.SlackMessage;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for ReactiveWebhookClient against a local stub webhook server
+ * Tests cover completion callbacks and the per-host connection bound
+ */
+@DisplayName("Reactive Webhook Client Tests")
+class ReactiveWebhookClientTest {
+
+    private static final long LATENCY_MILLIS = 20;
+
+    private final AtomicInteger received = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private HttpServer server;
+    private String baseUrl;
+    private ReactiveWebhookClient reactiveClient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                exchange.getRequestBody().readAllBytes();
+                Thread.sleep(LATENCY_MILLIS);
+                byte[] body = "ok".getBytes();
+                exchange.sendResponseHeaders(exchange.getRequestURI().getPath().endsWith("/fail") ? 500 : 200, body.length);
+                exchange.getResponseBody().write(body);
+                received.incrementAndGet();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+                exchange.close();
+            }
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/services";
+
+        reactiveClient = new ReactiveWebhookClient(WebClient.builder());
+        ReflectionTestUtils.setField(reactiveClient, "enabled", true);
+        ReflectionTestUtils.setField(reactiveClient, "maxConnectionsPerHost", 50);
+        ReflectionTestUtils.setField(reactiveClient, "maxPendingPerHost", 10_000);
+        ReflectionTestUtils.setField(reactiveClient, "pendingTimeoutMillis", 10_000L);
+        ReflectionTestUtils.setField(reactiveClient, "connectTimeoutMillis", 1000);
+        ReflectionTestUtils.setField(reactiveClient, "readTimeoutMillis", 5000L);
+        ReflectionTestUtils.setField(reactiveClient, "maxIdleSeconds", 30L);
+        reactiveClient.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reactiveClient.stop();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should complete posts asynchronously within the per-host connection bound")
+    void shouldPostWithinHostBound() throws Exception {
+        // Given
+        List<CompletableFuture<Void>> posts = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 200; i++) {
+            posts.add(reactiveClient.post(baseUrl + "/ok", SlackMessage.of("CPU high on db-" + i)));
+        }
+        CompletableFuture.allOf(posts.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+        CompletableFuture<Void> failed = reactiveClient.post(baseUrl + "/fail", SlackMessage.of("CPU high"));
+
+        // Then
+        assertTrue(reactiveClient.isEnabled());
+        assertTrue(maxInFlight.get() > 1);
+        assertTrue(maxInFlight.get() <= 50);
+        assertThrows(ExecutionException.class, () -> failed.get(10, TimeUnit.SECONDS));
+        assertEquals(201, received.get());
+    }
+}
@@ -0,0 +1,76 @@
+package com.hoatv.kafka.notifier.client;
+
+import com.hoatv.kafka.notifier.dto.SlackMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test cases for SlackWebhookClient
+ * Tests cover grouping the messages of a webhook during a window into one message
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Slack Webhook Client Tests")
+class SlackWebhookClientTest {
+
+    private static final String WEBHOOK_URL = "https://hooks.slack.com/services/test";
+    private static final String OTHER_WEBHOOK_URL = "https://hooks.slack.com/services/other";
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Captor
+    private ArgumentCaptor<SlackMessage> slackMessageCaptor;
+
+    private SlackWebhookClient slackWebhookClient;
+
+    @BeforeEach
+    void setUp() {
+        slackWebhookClient = new SlackWebhookClient(restTemplate);
+        ReflectionTestUtils.setField(slackWebhookClient, "groupingTopMessages", 2);
+    }
+
+    @Test
+    @DisplayName("Should post every message right away when grouping is disabled")
+    void shouldPostImmediatelyWithoutGrouping() {
+        // When
+        slackWebhookClient.sendMessage(WEBHOOK_URL, SlackMessage.of("CPU high on db-1"));
+        slackWebhookClient.sendMessage(WEBHOOK_URL, SlackMessage.of("CPU high on db-1"));
+
+        // Then
+        verify(restTemplate, times(2)).postForObject(eq(WEBHOOK_URL), any(SlackMessage.class), eq(String.class));
+    }
+
+    @Test
+    @DisplayName("Should merge the messages of a webhook into one message with counts and top texts")
+    void shouldGroupMessagesPerWebhook() {
+        // Given
+        ReflectionTestUtils.setField(slackWebhookClient, "groupingWindowMillis", 60_000L);
+
+        // When
+        slackWebhookClient.sendMessage(WEBHOOK_URL, SlackMessage.of("CPU high on db-1"));
+        slackWebhookClient.sendMessage(WEBHOOK_URL, SlackMessage.of("Disk full on db-2"));
+        slackWebhookClient.sendMessage(WEBHOOK_URL, SlackMessage.of("CPU high on db-1"));
+        slackWebhookClient.sendMessage(WEBHOOK_URL, SlackMessage.of("Service down: api"));
+        slackWebhookClient.sendMessage(OTHER_WEBHOOK_URL, SlackMessage.of("Queue lag on orders"));
+        verifyNoInteractions(restTemplate);
+        slackWebhookClient.flushAll();
+
+        // Then
+        verify(restTemplate).postForObject(eq(WEBHOOK_URL), slackMessageCaptor.capture(), eq(String.class));
+        verify(restTemplate).postForObject(eq(OTHER_WEBHOOK_URL), slackMessageCaptor.capture(), eq(String.class));
+        assertEquals("*4 notifications* in the last 60s\n• CPU high on db-1 (×2)\n• Disk full on db-2\n_and 1 more_",
+                slackMessageCaptor.getAllValues().get(0).getText());
+        assertEquals("Queue lag on orders", slackMessageCaptor.getAllValues().get(1).getText());
+    }
+}
@@ -0,0 +1,91 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for AdaptiveJunctionPredicate
+ * Tests cover learning the order of conditions and leaving order-sensitive rules untouched
+ */
+@DisplayName("Adaptive Junction Predicate Tests")
+class AdaptiveJunctionPredicateTest {
+
+    private RuleCompiler ruleCompiler;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        ruleCompiler = new RuleCompiler();
+        objectMapper = new ObjectMapper();
+    }
+
+    @Test
+    @DisplayName("Should move the condition that usually fails to the front of an $and")
+    void shouldCheckFailingConditionFirst() throws Exception {
+        // Given
+        RulePredicate rarelyDecisive = ruleCompiler.compile(Map.of("$contains", Map.of("$field", "msg", "$value", "a")));
+        RulePredicate usuallyDecisive = ruleCompiler.compile(Map.of("$eq", Map.of("$field", "status", "$value", "error")));
+        AdaptiveJunctionPredicate predicate = assertInstanceOf(AdaptiveJunctionPredicate.class,
+            AdaptiveJunctionPredicate.wrap(new AndPredicate(List.of(rarelyDecisive, usuallyDecisive))));
+        JsonNode message = objectMapper.readTree("{\"msg\": \"all good\", \"status\": \"ok\"}");
+
+        // When
+        for (int i = 0; i < AdaptiveJunctionPredicate.SAMPLE_INTERVAL * AdaptiveJunctionPredicate.SAMPLES_PER_REORDER; i++) {
+            assertFalse(predicate.test(message));
+        }
+
+        // Then
+        assertEquals(List.of(usuallyDecisive, rarelyDecisive), predicate.currentOrder());
+        assertEquals(List.of(rarelyDecisive, usuallyDecisive), predicate.children());
+    }
+
+    @Test
+    @DisplayName("Should move the condition that usually holds to the front of an $or")
+    void shouldCheckPassingConditionFirst() throws Exception {
+        // Given
+        RulePredicate rarelyPasses = ruleCompiler.compile(Map.of("$gt", Map.of("$field", "cpu", "$value", 90)));
+        RulePredicate usuallyPasses = ruleCompiler.compile(Map.of("$lt", Map.of("$field", "cpu", "$value", 50)));
+        AdaptiveJunctionPredicate predicate = assertInstanceOf(AdaptiveJunctionPredicate.class,
+            AdaptiveJunctionPredicate.wrap(new OrPredicate(List.of(rarelyPasses, usuallyPasses))));
+        JsonNode message = objectMapper.readTree("{\"cpu\": 20}");
+
+        // When
+        for (int i = 0; i < AdaptiveJunctionPredicate.SAMPLE_INTERVAL * AdaptiveJunctionPredicate.SAMPLES_PER_REORDER; i++) {
+            assertTrue(predicate.test(message));
+        }
+
+        // Then
+        assertEquals(List.of(usuallyPasses, rarelyPasses), predicate.currentOrder());
+    }
+
+    @Test
+    @DisplayName("Should not reorder conditions that can fail the evaluation")
+    void shouldKeepOrderOfConditionsThatCanThrow() {
+        // Given
+        RulePredicate rules = ruleCompiler.compile(Map.of(
+            "$or", List.of(
+                Map.of("$gt", Map.of("$field", "cpu", "$value", "high")),
+                Map.of("$and", List.of(
+                    Map.of("$eq", Map.of("$field", "status", "$value", "error")),
+                    Map.of("$contains", Map.of("$field", "msg", "$value", "timeout"))
+                ))
+            )
+        ));
+
+        // When
+        RulePredicate wrapped = AdaptiveJunctionPredicate.wrap(rules);
+
+        // Then
+        OrPredicate or = assertInstanceOf(OrPredicate.class, wrapped);
+        assertInstanceOf(MalformedComparisonPredicate.class, or.children().get(0));
+        assertInstanceOf(AdaptiveJunctionPredicate.class, or.children().get(1));
+    }
+}
@@ -0,0 +1,125 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for AggregatePredicate
+ * Tests cover windowed aggregates per group, eviction of idle groups and bypassing stateless optimizations
+ */
+@DisplayName("Aggregate Predicate Tests")
+class AggregatePredicateTest {
+
+    private RuleCompiler ruleCompiler;
+    private ObjectMapper objectMapper;
+    private AtomicLong clock;
+
+    @BeforeEach
+    void setUp() {
+        ruleCompiler = new RuleCompiler();
+        objectMapper = new ObjectMapper();
+        clock = new AtomicLong(1_000_000L);
+    }
+
+    @Test
+    @DisplayName("Should compare the average of the window of each group")
+    void shouldCompareWindowedAveragePerGroup() throws Exception {
+        // Given
+        AggregatePredicate predicate = new AggregatePredicate(AggregateFunction.AVG, FieldPath.parse("latency"),
+            60_000L, FieldPath.parse("service"), ComparisonOperator.GT, 500, clock::get);
+
+        // When
+        boolean first = predicate.test(record("api", 900));
+        boolean second = predicate.test(record("api", 300));
+        boolean third = predicate.test(record("api", 150));
+        boolean otherGroup = predicate.test(record("web", 700));
+        clock.addAndGet(61_000L);
+        boolean afterWindow = predicate.test(record("api", 450));
+
+        // Then
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(third);
+        assertTrue(otherGroup);
+        assertFalse(afterWindow);
+        assertFalse(predicate.test(objectMapper.readTree("{\"service\": \"db\"}")));
+    }
+
+    @Test
+    @DisplayName("Should count records and evict groups whose samples left the window")
+    void shouldCountRecordsAndEvictIdleGroups() throws Exception {
+        // Given
+        AggregatePredicate count = new AggregatePredicate(AggregateFunction.COUNT, null,
+            10_000L, FieldPath.parse("service"), ComparisonOperator.GTE, 3, clock::get);
+        AggregatePredicate max = new AggregatePredicate(AggregateFunction.MAX, FieldPath.parse("latency"),
+            10_000L, null, ComparisonOperator.GTE, 900, clock::get);
+
+        // When
+        boolean[] counted = new boolean[3];
+        for (int i = 0; i < 3; i++) {
+            counted[i] = count.test(record("api", 100));
+            clock.addAndGet(1_000L);
+        }
+        count.test(record("web", 100));
+        int groupsBefore = count.groupCount();
+        clock.addAndGet(12_000L);
+        count.test(record("db", 100));
+
+        // Then
+        assertFalse(counted[1]);
+        assertTrue(counted[2]);
+        assertEquals(2, groupsBefore);
+        assertEquals(1, count.groupCount());
+        assertTrue(max.test(record("api", 950)));
+        assertTrue(max.test(record("api", 10)));
+        clock.addAndGet(11_000L);
+        assertFalse(max.test(record("api", 10)));
+    }
+
+    @Test
+    @DisplayName("Should compile aggregates and keep stateful rules out of indexes, prefilters and reordering")
+    void shouldBypassStatelessOptimizationsForStatefulRules() throws Exception {
+        // Given
+        Map<String, Object> rules = Map.of("$and", List.of(
+            Map.of("$avg", Map.of("$field", "latency", "$window", "1m", "$groupBy", "service", "$gt", 500)),
+            Map.of("$eq", Map.of("$field", "env", "$value", "prod"))));
+        CompiledRule stateful = ruleCompiler.compile("windowed", 1L, rules);
+        CompiledRule stateless = ruleCompiler.compile("plain", 1L, Map.of("$eq", Map.of("$field", "env", "$value", "prod")));
+        AggregatePredicate aggregate = (AggregatePredicate) stateful.predicate().children().get(0);
+        AggregatePredicate parsed = (AggregatePredicate) RuleExpressionParser.parse("avg(latency, '1m', service) > 500");
+
+        // When
+        DiscriminationIndex index = DiscriminationIndex.build(List.of(stateful, stateless));
+        JsonNode staging = objectMapper.readTree("{\"env\": \"staging\", \"service\": \"api\", \"latency\": 900}");
+
+        // Then
+        assertTrue(stateful.isStateful());
+        assertFalse(stateless.isStateful());
+        assertEquals(60_000L, aggregate.windowMillis());
+        assertEquals(List.of(aggregate.function(), aggregate.path(), aggregate.windowMillis(), aggregate.groupBy(), aggregate.operator()),
+            List.of(parsed.function(), parsed.path(), parsed.windowMillis(), parsed.groupBy(), parsed.operator()));
+        assertTrue(stateful.fieldPaths().contains(FieldPath.parse("service")));
+        assertTrue(index.candidates(staging).get(0));
+        assertFalse(index.candidates(staging).get(1));
+        assertNull(RecordPrefilter.of(List.of(stateful, stateless)));
+        assertSame(stateful.predicate(), AdaptiveJunctionPredicate.wrap(stateful.predicate()));
+        assertInstanceOf(InvalidPredicate.class,
+            ruleCompiler.compile(Map.of("$avg", Map.of("$field", "latency", "$window", "soon", "$gt", 500))));
+        assertInstanceOf(InvalidPredicate.class,
+            ruleCompiler.compile(Map.of("$max", Map.of("$field", "latency", "$window", 60))));
+        assertThrows(RuleExpressionException.class, () -> RuleExpressionParser.parse("count('1m') == 5"));
+    }
+
+    private JsonNode record(String service, int latency) throws Exception {
+        return objectMapper.readTree("{\"service\": \"" + service + "\", \"latency\": " + latency + "}");
+    }
+}
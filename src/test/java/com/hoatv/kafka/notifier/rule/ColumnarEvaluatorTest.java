@@ -0,0 +1,113 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for ColumnarEvaluator
+ * Tests compare column-wise evaluation of a batch with evaluating each record
+ */
+@DisplayName("Columnar Evaluator Tests")
+class ColumnarEvaluatorTest {
+
+    private static final List<String> MESSAGES = List.of(
+        "{\"cpu\": 85, \"status\": \"error\", \"msg\": \"Connection TIMEOUT\", \"system\": {\"cpu\": {\"usage\": 90}}}",
+        "{\"cpu\": \"85\", \"status\": \"ERR\", \"msg\": null, \"flag\": true}",
+        "{\"cpu\": 80.0, \"status\": 85, \"msg\": \"timeout again\", \"system\": {\"cpu\": 5}}",
+        "{\"cpu\": 20, \"status\": \"error\"}",
+        "{\"status\": true}",
+        "[1, 2, 3]"
+    );
+
+    private RuleCompiler ruleCompiler;
+    private ColumnarEvaluator columnarEvaluator;
+    private RecordBatch batch;
+    private List<JsonNode> rows;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ruleCompiler = new RuleCompiler();
+        columnarEvaluator = new ColumnarEvaluator();
+        rows = new ArrayList<>();
+        for (String message : MESSAGES) {
+            rows.add(objectMapper.readTree(message));
+        }
+        batch = RecordBatch.of(rows);
+    }
+
+    @Test
+    @DisplayName("Should evaluate leaf conditions over whole columns")
+    void shouldEvaluateLeafConditions() {
+        // When & Then
+        assertEquals(bits(0, 2), evaluate(Map.of("$gte", Map.of("$field", "cpu", "$value", 80))));
+        assertEquals(bits(0, 3), evaluate(Map.of("$eq", Map.of("$field", "status", "$value", "error"))));
+        assertEquals(bits(1, 2), evaluate(Map.of("$in", Map.of("$field", "status", "$values", List.of("ERR", 85)))));
+        assertEquals(bits(0, 2), evaluate(Map.of("$contains", Map.of("$field", "msg", "$value", "Timeout"))));
+        assertEquals(bits(1, 2, 3, 4, 5), evaluate(Map.of("$ne", Map.of("$field", "system.cpu.usage", "$value", 90))));
+        assertEquals(bits(0), evaluate(Map.of("$gt", Map.of("$field", "system.cpu.usage", "$value", 85))));
+    }
+
+    @Test
+    @DisplayName("Should give every record the outcome of evaluating it alone")
+    void shouldMatchRecordByRecordEvaluation() {
+        Map<String, Object> nullValue = new HashMap<>();
+        nullValue.put("$field", "flag");
+        nullValue.put("$value", null);
+
+        assertMatchesRowWise(Map.of(
+            "$and", List.of(
+                Map.of("$gt", Map.of("$field", "cpu", "$value", 50)),
+                Map.of("$or", List.of(
+                    Map.of("$contains", Map.of("$field", "msg", "$value", "timeout")),
+                    Map.of("$eq", Map.of("$field", "status", "$value", 85))
+                ))
+            )
+        ));
+        assertMatchesRowWise(Map.of("$or", List.of(
+            Map.of("$eq", Map.of("$field", "status", "$value", "error")),
+            Map.of("$gt", Map.of("$field", "cpu", "$value", "high")),
+            Map.of("$eq", nullValue)
+        )));
+        assertMatchesRowWise(Map.of("$ne", nullValue));
+        assertMatchesRowWise(Map.of("$and", List.of("not a condition")));
+    }
+
+    private BitSet evaluate(Map<String, Object> rules) {
+        return columnarEvaluator.evaluate(ruleCompiler.compile(rules), batch);
+    }
+
+    private void assertMatchesRowWise(Map<String, Object> rules) {
+        RulePredicate predicate = ruleCompiler.compile(rules);
+        BitSet expected = new BitSet();
+        for (int row = 0; row < rows.size(); row++) {
+            try {
+                if (predicate.test(rows.get(row))) {
+                    expected.set(row);
+                }
+            } catch (Exception e) {
+                // A failed evaluation does not match
+            }
+        }
+        assertEquals(expected, columnarEvaluator.evaluate(predicate, batch), "Rules " + rules);
+    }
+
+    private static BitSet bits(int... positions) {
+        BitSet bits = new BitSet();
+        for (int position : positions) {
+            bits.set(position);
+        }
+        return bits;
+    }
+}
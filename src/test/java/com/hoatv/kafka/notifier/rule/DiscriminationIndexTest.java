@@ -0,0 +1,188 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for DiscriminationIndex
+ * Tests cover candidate selection for equality, membership, threshold and keyword rules
+ */
+@DisplayName("Discrimination Index Tests")
+class DiscriminationIndexTest {
+
+    private RuleCompiler ruleCompiler;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        ruleCompiler = new RuleCompiler();
+        objectMapper = new ObjectMapper();
+    }
+
+    @Test
+    @DisplayName("Should only select rules whose required equality constant matches")
+    void shouldSelectRulesByEqualityConstant() throws Exception {
+        // Given
+        DiscriminationIndex index = DiscriminationIndex.build(List.of(
+            compile(Map.of("$eq", Map.of("$field", "service", "$value", "payment"))),
+            compile(Map.of("$and", List.of(
+                Map.of("$eq", Map.of("$field", "service", "$value", "billing")),
+                Map.of("$gt", Map.of("$field", "latency", "$value", 500))
+            ))),
+            compile(Map.of("$in", Map.of("$field", "service", "$values", List.of("payment", "orders"))))
+        ));
+
+        // When
+        BitSet candidates = index.candidates(objectMapper.readTree("{\"service\": \"payment\"}"));
+
+        // Then
+        assertEquals(1, index.indexedFieldCount());
+        assertEquals(bits(0, 2), candidates);
+        assertEquals(bits(1), index.candidates(objectMapper.readTree("{\"service\": \"billing\"}")));
+        assertEquals(new BitSet(), index.candidates(objectMapper.readTree("{\"latency\": 900}")));
+    }
+
+    @Test
+    @DisplayName("Should match numeric constants numerically and by text")
+    void shouldMatchNumericConstants() throws Exception {
+        // Given
+        DiscriminationIndex index = DiscriminationIndex.build(List.of(
+            compile(Map.of("$eq", Map.of("$field", "code", "$value", 500))),
+            compile(Map.of("$eq", Map.of("$field", "code", "$value", "500")))
+        ));
+
+        // When & Then
+        assertEquals(bits(0, 1), index.candidates(objectMapper.readTree("{\"code\": 500}")));
+        assertEquals(bits(0), index.candidates(objectMapper.readTree("{\"code\": 500.0}")));
+        assertEquals(bits(0, 1), index.candidates(objectMapper.readTree("{\"code\": \"500\"}")));
+    }
+
+    @Test
+    @DisplayName("Should keep rules without indexable conditions and fall back for other value types")
+    void shouldKeepUnindexedRulesAsCandidates() throws Exception {
+        // Given
+        DiscriminationIndex index = DiscriminationIndex.build(List.of(
+            compile(Map.of("$eq", Map.of("$field", "status", "$value", "error"))),
+            compile(Map.of("$or", List.of(
+                Map.of("$eq", Map.of("$field", "status", "$value", "error")),
+                Map.of("$gt", Map.of("$field", "cpu", "$value", 80))
+            ))),
+            compile(Map.of("$eq", Map.of("$field", "status", "$value", true)))
+        ));
+
+        // When
+        BitSet candidates = index.candidates(objectMapper.readTree("{\"status\": true}"));
+
+        // Then
+        assertEquals(bits(0, 1, 2), candidates);
+        assertEquals(bits(1, 2), index.candidates(objectMapper.readTree("{\"status\": \"ok\"}")));
+    }
+
+    @Test
+    @DisplayName("Should resolve threshold rules on a shared field with one search")
+    void shouldResolveThresholdRules() throws Exception {
+        // Given
+        DiscriminationIndex index = DiscriminationIndex.build(List.of(
+            compile(Map.of("$gt", Map.of("$field", "cpu", "$value", 70))),
+            compile(Map.of("$gt", Map.of("$field", "cpu", "$value", 90))),
+            compile(Map.of("$gt", Map.of("$field", "cpu", "$value", 80))),
+            compile(Map.of("$lte", Map.of("$field", "cpu", "$value", 80))),
+            compile(Map.of("$gt", Map.of("$field", "cpu", "$value", "NaN")))
+        ));
+
+        // When
+        DiscriminationIndex.Selection selection = index.select(objectMapper.readTree("{\"cpu\": 80}"));
+
+        // Then
+        assertEquals(2, index.indexedFieldCount());
+        assertEquals(bits(0, 3), selection.matched());
+        assertTrue(selection.undecided().isEmpty());
+        assertEquals(bits(0, 1, 2), index.select(objectMapper.readTree("{\"cpu\": 95.5}")).matched());
+        assertEquals(new BitSet(), index.candidates(objectMapper.readTree("{\"cpu\": \"95\"}")));
+    }
+
+    @Test
+    @DisplayName("Should leave rules with further conditions to full evaluation")
+    void shouldLeaveCompoundRulesUndecided() throws Exception {
+        // Given
+        DiscriminationIndex index = DiscriminationIndex.build(List.of(
+            compile(Map.of("$and", List.of(
+                Map.of("$gte", Map.of("$field", "cpu", "$value", 80)),
+                Map.of("$contains", Map.of("$field", "host", "$value", "prod"))
+            ))),
+            compile(Map.of("$gte", Map.of("$field", "cpu", "$value", 80)))
+        ));
+
+        // When
+        DiscriminationIndex.Selection selection = index.select(objectMapper.readTree("{\"cpu\": 80, \"host\": \"dev\"}"));
+
+        // Then
+        assertEquals(bits(1), selection.matched());
+        assertEquals(bits(0), selection.undecided());
+        assertEquals(bits(0, 1), selection.candidates());
+    }
+
+    @Test
+    @DisplayName("Should find every keyword rule of a field in one case-insensitive scan")
+    void shouldMatchContainsPatternsInOneScan() throws Exception {
+        // Given
+        DiscriminationIndex index = DiscriminationIndex.build(List.of(
+            compile(Map.of("$contains", Map.of("$field", "log", "$value", "TIMEOUT"))),
+            compile(Map.of("$contains", Map.of("$field", "log", "$value", "out"))),
+            compile(Map.of("$or", List.of(
+                Map.of("$contains", Map.of("$field", "log", "$value", "fatal")),
+                Map.of("$contains", Map.of("$field", "log", "$value", "panic"))
+            ))),
+            compile(Map.of("$contains", Map.of("$field", "log", "$value", "refused")))
+        ));
+
+        // When
+        DiscriminationIndex.Selection selection = index.select(
+            objectMapper.readTree("{\"log\": \"Kernel PANIC after read timeout\"}"));
+
+        // Then
+        assertEquals(1, index.indexedFieldCount());
+        assertEquals(bits(0, 1, 2), selection.matched());
+        assertTrue(selection.undecided().isEmpty());
+        assertEquals(new BitSet(), index.candidates(objectMapper.readTree("{\"log\": 42}")));
+    }
+
+    @Test
+    @DisplayName("Should prefer equality conditions over keyword conditions")
+    void shouldPreferEqualityOverContains() throws Exception {
+        // Given
+        DiscriminationIndex index = DiscriminationIndex.build(List.of(
+            compile(Map.of("$and", List.of(
+                Map.of("$contains", Map.of("$field", "log", "$value", "error")),
+                Map.of("$eq", Map.of("$field", "service", "$value", "payment"))
+            )))
+        ));
+
+        // When
+        BitSet candidates = index.candidates(objectMapper.readTree("{\"log\": \"error\", \"service\": \"billing\"}"));
+
+        // Then
+        assertTrue(candidates.isEmpty());
+        assertEquals(bits(0), index.select(objectMapper.readTree("{\"log\": \"ok\", \"service\": \"payment\"}")).undecided());
+    }
+
+    private CompiledRule compile(Map<String, Object> rules) {
+        return ruleCompiler.compile("config", 1L, rules);
+    }
+
+    private static BitSet bits(int... positions) {
+        BitSet bits = new BitSet();
+        for (int position : positions) {
+            bits.set(position);
+        }
+        return bits;
+    }
+}
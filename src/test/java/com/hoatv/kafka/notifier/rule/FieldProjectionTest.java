@@ -0,0 +1,101 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for FieldProjection
+ * Tests verify that projected fields resolve like in a fully parsed message
+ */
+@DisplayName("Field Projection Tests")
+class FieldProjectionTest {
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+    }
+
+    @Test
+    @DisplayName("Should keep only the referenced fields")
+    void shouldKeepOnlyReferencedFields() throws Exception {
+        // Given
+        FieldProjection projection = FieldProjection.of(List.of(FieldPath.parse("system.cpu.usage")));
+        String message = "{\"host\": \"server1\", \"system\": {\"cpu\": {\"usage\": 92, \"idle\": 8}, \"disk\": [1, 2]}}";
+
+        // When
+        JsonNode projected = projection.read(objectMapper, message);
+
+        // Then
+        assertEquals("{\"system\":{\"cpu\":{\"usage\":92}}}", projected.toString());
+    }
+
+    @Test
+    @DisplayName("Should read a referenced object field in full")
+    void shouldReadReferencedObjectInFull() throws Exception {
+        // Given
+        FieldPath metrics = FieldPath.parse("metrics");
+        FieldProjection projection = FieldProjection.of(List.of(metrics, FieldPath.parse("metrics.cpu")));
+        String message = "{\"metrics\": {\"cpu\": 92, \"memory\": {\"used\": 75}}, \"host\": \"server1\"}";
+
+        // When
+        JsonNode projected = projection.read(objectMapper, message);
+
+        // Then
+        assertEquals(objectMapper.readTree(message).get("metrics"), metrics.resolve(projected));
+    }
+
+    @Test
+    @DisplayName("Should let a repeated key replace the earlier value like a full parse")
+    void shouldLetRepeatedKeyReplaceEarlierValue() throws Exception {
+        // Given
+        FieldPath cpu = FieldPath.parse("system.cpu");
+        FieldProjection projection = FieldProjection.of(List.of(cpu));
+        String message = "{\"system\": {\"cpu\": 92}, \"system\": \"down\"}";
+
+        // When
+        JsonNode projected = projection.read(objectMapper, message);
+
+        // Then
+        assertNull(cpu.resolve(projected));
+        assertNull(cpu.resolve(objectMapper.readTree(message)));
+    }
+
+    @Test
+    @DisplayName("Should not project messages that are not JSON objects")
+    void shouldNotProjectNonObjectMessages() throws Exception {
+        // Given
+        FieldProjection projection = FieldProjection.of(List.of(FieldPath.parse("cpu")));
+
+        // When & Then
+        assertNull(projection.read(objectMapper, "[1, 2, 3]"));
+        assertNull(projection.read(objectMapper, "42"));
+    }
+
+    @Test
+    @DisplayName("Should reject invalid JSON even inside skipped fields")
+    void shouldRejectInvalidJsonInsideSkippedFields() {
+        // Given
+        FieldProjection projection = FieldProjection.of(List.of(FieldPath.parse("cpu")));
+
+        // When & Then
+        assertThrows(JsonProcessingException.class,
+            () -> projection.read(objectMapper, "{\"cpu\": 90, \"payload\": {\"broken\": }"));
+    }
+
+    @Test
+    @DisplayName("Should not build a projection for rules reading the whole message")
+    void shouldNotBuildProjectionForRootRules() {
+        // When & Then
+        assertNull(FieldProjection.of(List.of(FieldPath.parse("cpu"), FieldPath.ROOT)));
+    }
+}
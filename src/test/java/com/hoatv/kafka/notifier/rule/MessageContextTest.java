@@ -0,0 +1,140 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for MessageContext
+ * Tests focus on parsing each record at most once, also when rules and templates read it concurrently
+ */
+@DisplayName("Message Context Tests")
+class MessageContextTest {
+
+    private CountingObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new CountingObjectMapper();
+    }
+
+    @Test
+    @DisplayName("Should parse a JSON record once for rules and templates")
+    void shouldParseJsonRecordOnce() {
+        // Given
+        MessageContext context = new MessageContext(objectMapper, "{\"cpu\": 85}");
+
+        // When
+        JsonNode ruleNode = context.ruleNode();
+        JsonNode templateNode = context.templateNode();
+        context.ruleNode();
+
+        // Then
+        assertSame(ruleNode, templateNode, "Rules and templates should share the parsed tree");
+        assertEquals(1, objectMapper.parseCount);
+    }
+
+    @Test
+    @DisplayName("Should build template variables once per record")
+    void shouldBuildTemplateVariablesOnce() {
+        // Given
+        MessageContext context = new MessageContext(objectMapper, "{\"cpu\": 85}");
+        int[] builds = {0};
+
+        // When
+        Map<String, String> first = context.templateVariables(node -> {
+            builds[0]++;
+            return Map.of("cpu", node.get("cpu").asText());
+        });
+        Map<String, String> second = context.templateVariables(node -> {
+            builds[0]++;
+            return Map.of();
+        });
+
+        // Then
+        assertSame(first, second);
+        assertEquals(1, builds[0]);
+    }
+
+    @Test
+    @DisplayName("Should read non-JSON text as simple value for rules but keep it verbatim for templates")
+    void shouldKeepNonJsonTextVerbatimForTemplates() {
+        // Given
+        MessageContext context = new MessageContext(objectMapper, "007");
+
+        // When & Then
+        assertEquals(7, context.ruleNode().asInt());
+        assertEquals("007", context.templateNode().asText());
+    }
+
+    @Test
+    @DisplayName("Should treat blank message as null for rules")
+    void shouldTreatBlankMessageAsNullForRules() {
+        // Given
+        MessageContext context = new MessageContext(objectMapper, "   ");
+
+        // When & Then
+        assertTrue(context.ruleNode().isNull());
+        assertEquals(0, objectMapper.parseCount);
+    }
+
+    @Test
+    @DisplayName("Should parse a record once when rules and templates read it on different threads")
+    void shouldParseOnceAcrossThreads() throws Exception {
+        // Given
+        MessageContext context = new MessageContext(objectMapper, "disk full");
+        CountDownLatch start = new CountDownLatch(1);
+        Set<JsonNode> ruleNodes = ConcurrentHashMap.newKeySet();
+        Set<String> templateTexts = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 8; i++) {
+            boolean rules = i % 2 == 0;
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (rules) {
+                    ruleNodes.add(context.ruleNode());
+                } else {
+                    templateTexts.add(context.templateNode().asText());
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+
+        // Then
+        assertEquals(1, ruleNodes.size());
+        assertEquals(Set.of("disk full"), templateTexts);
+        assertEquals(1, objectMapper.parseCount);
+    }
+
+    private static class CountingObjectMapper extends ObjectMapper {
+
+        private int parseCount;
+
+        @Override
+        public JsonNode readTree(String content) throws JsonProcessingException {
+            parseCount++;
+            return super.readTree(content);
+        }
+    }
+}
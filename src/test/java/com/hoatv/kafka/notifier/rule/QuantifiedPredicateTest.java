@@ -0,0 +1,106 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for QuantifiedPredicate
+ * Tests cover [*] wildcard paths, $any/$all quantifiers and stopping at the deciding element
+ */
+@DisplayName("Quantified Predicate Tests")
+class QuantifiedPredicateTest {
+
+    private RuleCompiler ruleCompiler;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        ruleCompiler = new RuleCompiler();
+        objectMapper = new ObjectMapper();
+    }
+
+    @Test
+    @DisplayName("Should match a wildcard path when any element matches")
+    void shouldMatchWildcardPathOnAnyElement() throws Exception {
+        // Given
+        RulePredicate predicate = ruleCompiler.compile(Map.of("$gt", Map.of("$field", "disks[*].used", "$value", 90)));
+        RulePredicate nested = ruleCompiler.compile(Map.of("$eq", Map.of("$field", "hosts[*].disks[*].state", "$value", "failed")));
+        JsonNode full = objectMapper.readTree("{\"disks\": [{\"used\": 40}, {\"used\": 95}]}");
+        JsonNode healthy = objectMapper.readTree("{\"disks\": [{\"used\": 40}, {\"used\": 60}], \"hosts\": []}");
+        JsonNode failed = objectMapper.readTree("{\"hosts\": [{\"disks\": [{\"state\": \"ok\"}]}, {\"disks\": [{\"state\": \"failed\"}]}]}");
+
+        // When / Then
+        assertEquals(new QuantifiedPredicate(FieldPath.parse("disks"), false,
+            new ComparisonPredicate(FieldPath.parse("used"), ComparisonOperator.GT, 90)), predicate);
+        assertEquals(predicate, RuleExpressionParser.parse("disks[*].used > 90"));
+        assertEquals(Set.of(FieldPath.parse("disks")), new CompiledRule("test", 0L, predicate).fieldPaths());
+        assertTrue(predicate.test(full));
+        assertFalse(predicate.test(healthy));
+        assertFalse(predicate.test(objectMapper.readTree("{\"disks\": {\"used\": 95}}")));
+        assertTrue(nested.test(failed));
+        assertFalse(nested.test(healthy));
+        assertTrue(RuleExpressionParser.parse("$value[*] == 'critical'").test(objectMapper.readTree("[\"info\", \"critical\"]")));
+    }
+
+    @Test
+    @DisplayName("Should apply $any and $all conditions to each element of an array")
+    void shouldQuantifyConditionsOverElements() throws Exception {
+        // Given
+        Map<String, Object> anyRules = Map.of("$any", Map.of("$field", "disks", "$where", Map.of("$and", List.of(
+            Map.of("$gt", Map.of("$field", "used", "$value", 90)),
+            Map.of("$eq", Map.of("$field", "mount", "$value", "/"))))));
+        Map<String, Object> allRules = Map.of("$all", Map.of("$field", "disks", "$where",
+            Map.of("$lt", Map.of("$field", "used", "$value", 90))));
+        RulePredicate any = ruleCompiler.compile(anyRules);
+        RulePredicate all = ruleCompiler.compile(allRules);
+        JsonNode dataFull = objectMapper.readTree("{\"disks\": [{\"mount\": \"/\", \"used\": 40}, {\"mount\": \"/data\", \"used\": 95}]}");
+        JsonNode rootFull = objectMapper.readTree("{\"disks\": [{\"mount\": \"/\", \"used\": 95}]}");
+        JsonNode noDisks = objectMapper.readTree("{\"disks\": []}");
+
+        // When / Then
+        assertEquals(any, RuleExpressionParser.parse("any(disks, used > 90 && mount == '/')"));
+        assertEquals(all, RuleExpressionParser.parse("all(disks, used < 90)"));
+        assertFalse(any.test(dataFull));
+        assertTrue(any.test(rootFull));
+        assertFalse(any.test(noDisks));
+        assertFalse(all.test(dataFull));
+        assertTrue(all.test(objectMapper.readTree("{\"disks\": [{\"used\": 40}, {\"used\": 60}]}")));
+        assertTrue(all.test(noDisks));
+        assertFalse(all.test(objectMapper.readTree("{}")));
+        assertInstanceOf(InvalidPredicate.class, ruleCompiler.compile(Map.of("$any", Map.of("$field", "disks"))));
+    }
+
+    @Test
+    @DisplayName("Should stop at the first element deciding the outcome")
+    void shouldStopAtDecidingElement() throws Exception {
+        // Given
+        AtomicInteger evaluations = new AtomicInteger();
+        RulePredicate full = new ComparisonPredicate(FieldPath.parse("used"), ComparisonOperator.GT, 90);
+        RulePredicate counting = message -> {
+            evaluations.incrementAndGet();
+            return full.test(message);
+        };
+        JsonNode message = objectMapper.readTree("{\"disks\": [{\"used\": 40}, {\"used\": 95}, {\"used\": 20}, {\"used\": 99}]}");
+
+        // When
+        boolean any = new QuantifiedPredicate(FieldPath.parse("disks"), false, counting).test(message);
+        int anyEvaluations = evaluations.getAndSet(0);
+        boolean all = new QuantifiedPredicate(FieldPath.parse("disks"), true, counting).test(message);
+
+        // Then
+        assertTrue(any);
+        assertEquals(2, anyEvaluations);
+        assertFalse(all);
+        assertEquals(1, evaluations.get());
+    }
+}
@@ -0,0 +1,105 @@
+package com.hoatv.kafka.notifier.rule;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for RecordPrefilter
+ * Tests cover rejecting raw records that lack required field names and literals
+ */
+@DisplayName("Record Prefilter Tests")
+class RecordPrefilterTest {
+
+    private RuleCompiler ruleCompiler;
+
+    @BeforeEach
+    void setUp() {
+        ruleCompiler = new RuleCompiler();
+    }
+
+    @Test
+    @DisplayName("Should reject records missing a required field name or string constant")
+    void shouldRejectRecordsMissingRequiredLiterals() {
+        // Given
+        RecordPrefilter prefilter = RecordPrefilter.of(List.of(
+            compile(Map.of("$and", List.of(
+                Map.of("$eq", Map.of("$field", "service", "$value", "payment")),
+                Map.of("$gt", Map.of("$field", "latency", "$value", 500))
+            ))),
+            compile(Map.of("$contains", Map.of("$field", "message", "$value", "Timeout")))
+        ));
+
+        // When & Then
+        assertNotNull(prefilter);
+        assertTrue(prefilter.mayMatch(bytes("{\"service\": \"payment\", \"latency\": 900}")));
+        assertTrue(prefilter.mayMatch(bytes("{\"message\": \"Read TIMEOUT\"}")));
+        assertFalse(prefilter.mayMatch(bytes("{\"service\": \"billing\", \"latency\": 900}")));
+        assertFalse(prefilter.mayMatch(bytes("{\"service\": \"payment\"}")));
+        assertFalse(prefilter.mayMatch(bytes("{\"message\": \"Connection refused\"}")));
+    }
+
+    @Test
+    @DisplayName("Should let through records the rules may match without the literal")
+    void shouldPassRecordsMatchingWithoutLiteral() {
+        // Given
+        RecordPrefilter prefilter = RecordPrefilter.of(List.of(
+            compile(Map.of("$eq", Map.of("$field", "status", "$value", "error"))),
+            compile(Map.of("$contains", Map.of("$field", "message", "$value", "k")))
+        ));
+
+        // When & Then
+        // "error" is not true, so it equals a false boolean
+        assertTrue(prefilter.mayMatch(bytes("{\"status\": false}")));
+        assertTrue(prefilter.mayMatch(bytes("{\"status\": \"err\\u006fr\"}")));
+        // The Kelvin sign lower-cases to an ASCII k
+        assertTrue(prefilter.mayMatch(bytes("{\"message\": \"5 \u212A\"}")));
+        assertTrue(prefilter.mayMatch(null));
+        assertTrue(prefilter.mayMatch(bytes("  ")));
+        assertFalse(prefilter.mayMatch(bytes("{\"status\": true, \"message\": \"5 C\"}")));
+    }
+
+    @Test
+    @DisplayName("Should not build a prefilter when a rule may match any record")
+    void shouldNotBuildPrefilterForUnconstrainedRule() {
+        // Given
+        List<CompiledRule> rules = List.of(
+            compile(Map.of("$eq", Map.of("$field", "service", "$value", "payment"))),
+            compile(Map.of("$ne", Map.of("$field", "status", "$value", "ok")))
+        );
+
+        // When
+        RecordPrefilter prefilter = RecordPrefilter.of(rules);
+
+        // Then
+        assertNull(prefilter);
+    }
+
+    @Test
+    @DisplayName("Should only require the field name of numeric constants")
+    void shouldOnlyRequireFieldNameOfNumericConstants() {
+        // Given
+        RecordPrefilter prefilter = RecordPrefilter.of(List.of(
+            compile(Map.of("$eq", Map.of("$field", "code", "$value", 500)))
+        ));
+
+        // When & Then
+        assertTrue(prefilter.mayMatch(bytes("{\"code\": 5e2}")));
+        assertTrue(prefilter.mayMatch(bytes("{\"code\": \"500\"}")));
+        assertFalse(prefilter.mayMatch(bytes("{\"status\": 500}")));
+    }
+
+    private CompiledRule compile(Map<String, Object> rules) {
+        return ruleCompiler.compile("test", 0L, rules);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
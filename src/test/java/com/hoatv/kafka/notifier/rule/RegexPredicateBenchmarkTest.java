@@ -0,0 +1,52 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark for RegexPredicate, excluded from the default build and run with {@code mvn test -Pbenchmark}
+ * Measures the evaluation time of catastrophic backtracking patterns over long fields
+ */
+@Tag("benchmark")
+@DisplayName("Regex Predicate Benchmark")
+class RegexPredicateBenchmarkTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RegexPredicateBenchmarkTest.class);
+
+    private static final int WARM_UP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 50;
+
+    @Test
+    @DisplayName("Should report the evaluation time of hostile patterns over 100k characters")
+    void measureHostilePatterns() {
+        // Given
+        RulePredicate nested = RuleExpressionParser.parse("message matches '^(a+)+$'");
+        RulePredicate alternation = RuleExpressionParser.parse("message matches '(a|aa)*b'");
+        ObjectNode message = JsonNodeFactory.instance.objectNode().put("message", "a".repeat(100_000) + "!");
+        for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+            nested.test(message);
+            alternation.test(message);
+        }
+
+        // When
+        boolean matched = false;
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            matched |= nested.test(message);
+            matched |= alternation.test(message);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        // Then
+        LOGGER.info("Hostile pattern over 100k characters: {} us per evaluation",
+                elapsedNanos / (2_000L * MEASURED_ITERATIONS));
+        assertFalse(matched);
+    }
+}
@@ -0,0 +1,95 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for RegexPredicate
+ * Tests cover compiling $regex rules, the pattern cache and matching hostile patterns in bounded time
+ */
+@DisplayName("Regex Predicate Tests")
+class RegexPredicateTest {
+
+    private RuleCompiler ruleCompiler;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        ruleCompiler = new RuleCompiler();
+        objectMapper = new ObjectMapper();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RegexPredicate.clearCache();
+    }
+
+    @Test
+    @DisplayName("Should search text fields for $regex patterns and reject malformed patterns")
+    void shouldMatchRegexRules() throws Exception {
+        // Given
+        RulePredicate predicate = ruleCompiler.compile(Map.of(
+            "$regex", Map.of("$field", "message", "$value", "time(d)?out after \\d+ms")));
+        RulePredicate expression = RuleExpressionParser.parse("message matches 'time(d)?out after \\\\d+ms'");
+
+        // When
+        JsonNode timeout = objectMapper.readTree("{\"message\": \"request timedout after 300ms\"}");
+        JsonNode numeric = objectMapper.readTree("{\"message\": 300}");
+
+        // Then
+        assertInstanceOf(RegexPredicate.class, predicate);
+        assertEquals(predicate, expression);
+        assertTrue(predicate.test(timeout));
+        assertFalse(predicate.test(objectMapper.readTree("{\"message\": \"timeout after ms\"}")));
+        assertFalse(predicate.test(numeric));
+        assertInstanceOf(InvalidPredicate.class,
+            ruleCompiler.compile(Map.of("$regex", Map.of("$field", "message", "$value", "(unclosed"))));
+        assertThrows(RuleExpressionException.class, () -> RuleExpressionParser.parse("message matches '(unclosed'"));
+    }
+
+    @Test
+    @DisplayName("Should reuse compiled patterns and bound the pattern cache")
+    void shouldCachePatterns() {
+        // Given
+        RegexPredicate.clearCache();
+        RegexPredicate first = RegexPredicate.of(FieldPath.parse("message"), "disk (full|failure)");
+
+        // When
+        RegexPredicate second = RegexPredicate.of(FieldPath.parse("log.message"), "disk (full|failure)");
+        for (int i = 0; i <= RegexPredicate.MAXIMUM_CACHED_PATTERNS; i++) {
+            RegexPredicate.of(FieldPath.ROOT, "pattern-" + i);
+        }
+
+        // Then
+        assertSame(first.pattern(), second.pattern());
+        assertEquals(RegexPredicate.MAXIMUM_CACHED_PATTERNS, RegexPredicate.cachedPatterns());
+    }
+
+    @Test
+    @DisplayName("Should match catastrophic backtracking patterns in linear time")
+    void shouldMatchHostilePatternsInLinearTime() {
+        // Given
+        RulePredicate nested = RuleExpressionParser.parse("message matches '^(a+)+$'");
+        RulePredicate alternation = RuleExpressionParser.parse("message matches '(a|aa)*b'");
+        ObjectNode message = JsonNodeFactory.instance.objectNode().put("message", "a".repeat(100_000) + "!");
+
+        // When / Then
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            for (int i = 0; i < 10; i++) {
+                assertFalse(nested.test(message));
+                assertFalse(alternation.test(message));
+            }
+        });
+    }
+}
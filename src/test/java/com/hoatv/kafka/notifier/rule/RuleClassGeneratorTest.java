@@ -0,0 +1,105 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for RuleClassGenerator
+ * Tests compare generated classes with the interpreted rule tree
+ */
+@DisplayName("Rule Class Generator Tests")
+class RuleClassGeneratorTest {
+
+    private static final List<String> MESSAGES = List.of(
+        "{\"cpu\": 85, \"status\": \"error\", \"msg\": \"Connection TIMEOUT\", \"system\": {\"cpu\": {\"usage\": 90}}}",
+        "{\"cpu\": \"85\", \"status\": \"ERR\", \"msg\": null, \"flag\": true}",
+        "{\"cpu\": 80.0, \"status\": 85, \"system\": {\"cpu\": 5}}",
+        "{\"cpu\": -0.0, \"system\": null}",
+        "[1, 2, 3]",
+        "\"error\"",
+        "85"
+    );
+
+    private RuleCompiler ruleCompiler;
+    private RuleClassGenerator ruleClassGenerator;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        ruleCompiler = new RuleCompiler();
+        ruleClassGenerator = new RuleClassGenerator();
+        objectMapper = new ObjectMapper();
+    }
+
+    @Test
+    @DisplayName("Should match the interpreter for every operator")
+    void shouldMatchInterpreterForEveryOperator() throws Exception {
+        Map<String, Object> nullValue = new HashMap<>();
+        nullValue.put("$field", "status");
+        nullValue.put("$value", null);
+
+        assertMatchesInterpreter(Map.of("$gt", Map.of("$field", "cpu", "$value", 80)));
+        assertMatchesInterpreter(Map.of("$gte", Map.of("$field", "cpu", "$value", "80")));
+        assertMatchesInterpreter(Map.of("$lt", Map.of("$field", "system.cpu.usage", "$value", 95.5)));
+        assertMatchesInterpreter(Map.of("$lte", Map.of("$field", "cpu", "$value", 0)));
+        assertMatchesInterpreter(Map.of("$gt", Map.of("$value", 8)));
+        assertMatchesInterpreter(Map.of("$eq", Map.of("$field", "status", "$value", "error")));
+        assertMatchesInterpreter(Map.of("$eq", Map.of("$field", "cpu", "$value", 85)));
+        assertMatchesInterpreter(Map.of("$ne", Map.of("$field", "flag", "$value", true)));
+        assertMatchesInterpreter(Map.of("$in", Map.of("$field", "status", "$values", List.of("ERR", 85, "error"))));
+        assertMatchesInterpreter(Map.of("$contains", Map.of("$field", "msg", "$value", "timeout")));
+        assertMatchesInterpreter(Map.of("$contains", Map.of("$value", "ERR")));
+        assertMatchesInterpreter(Map.of("$eq", nullValue));
+    }
+
+    @Test
+    @DisplayName("Should match the interpreter for nested and malformed rules")
+    void shouldMatchInterpreterForNestedAndMalformedRules() throws Exception {
+        assertMatchesInterpreter(Map.of(
+            "$and", List.of(
+                Map.of("$gte", Map.of("$field", "cpu", "$value", 80)),
+                Map.of("$or", List.of(
+                    Map.of("$contains", Map.of("$field", "msg", "$value", "timeout")),
+                    Map.of("$eq", Map.of("$field", "status", "$value", 85))
+                ))
+            )
+        ));
+        assertMatchesInterpreter(Map.of("$and", List.of()));
+        assertMatchesInterpreter(Map.of("$or", List.of()));
+        assertMatchesInterpreter(Map.of("$gt", Map.of("$field", "cpu", "$value", "high")));
+        assertMatchesInterpreter(Map.of("$or", List.of(
+            Map.of("$eq", Map.of("$field", "status", "$value", "error")),
+            "not a condition"
+        )));
+        assertMatchesInterpreter(Map.of("$unknown", Map.of("$field", "cpu", "$value", 1)));
+    }
+
+    private void assertMatchesInterpreter(Map<String, Object> rules) throws Exception {
+        RulePredicate interpreted = ruleCompiler.compile(rules);
+        RulePredicate generated = ruleClassGenerator.generate(interpreted);
+        assertTrue(generated.getClass().isHidden());
+
+        for (String message : MESSAGES) {
+            JsonNode node = objectMapper.readTree(message);
+            assertEquals(outcome(interpreted, node), outcome(generated, node),
+                "Rules " + rules + " on " + message);
+        }
+    }
+
+    private static String outcome(RulePredicate predicate, JsonNode message) {
+        try {
+            return String.valueOf(predicate.test(message));
+        } catch (Exception e) {
+            return e.getClass().getSimpleName();
+        }
+    }
+}
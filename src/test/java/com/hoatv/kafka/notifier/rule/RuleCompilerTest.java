@@ -0,0 +1,126 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for RuleCompiler
+ * Tests cover the shape of the compiled tree and evaluation of malformed rules
+ */
+@DisplayName("Rule Compiler Tests")
+class RuleCompilerTest {
+
+    private RuleCompiler ruleCompiler;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        ruleCompiler = new RuleCompiler();
+        objectMapper = new ObjectMapper();
+    }
+
+    @Test
+    @DisplayName("Should parse numeric threshold and field path at compile time")
+    void shouldResolveThresholdAndFieldPathAtCompileTime() {
+        // Given
+        Map<String, Object> rules = Map.of(
+            "$gt", Map.of("$field", "system.cpu.usage", "$value", "85")
+        );
+
+        // When
+        RulePredicate predicate = ruleCompiler.compile(rules);
+
+        // Then
+        ComparisonPredicate comparison = assertInstanceOf(ComparisonPredicate.class, predicate);
+        assertEquals(ComparisonOperator.GT, comparison.operator());
+        assertEquals(85.0, comparison.threshold(), 0.0);
+        assertArrayEquals(new String[]{"system", "cpu", "usage"}, comparison.path().segments());
+    }
+
+    @Test
+    @DisplayName("Should compile nested logical operators into a tree")
+    void shouldCompileNestedLogicalOperators() throws Exception {
+        // Given
+        Map<String, Object> rules = Map.of(
+            "$and", List.of(
+                Map.of("$eq", Map.of("$field", "env", "$value", "prod")),
+                Map.of("$or", List.of(
+                    Map.of("$gt", Map.of("$field", "cpu", "$value", 80)),
+                    Map.of("$contains", Map.of("$field", "msg", "$value", "TIMEOUT"))
+                ))
+            )
+        );
+
+        // When
+        RulePredicate predicate = ruleCompiler.compile(rules);
+
+        // Then
+        assertInstanceOf(AndPredicate.class, predicate);
+        assertTrue(predicate.test(parse("{\"env\": \"prod\", \"cpu\": 10, \"msg\": \"Request timeout\"}")));
+        assertFalse(predicate.test(parse("{\"env\": \"dev\", \"cpu\": 90}")));
+    }
+
+    @Test
+    @DisplayName("Should compile identical rules into equal trees")
+    void shouldCompileIdenticalRulesIntoEqualTrees() {
+        // Given
+        Map<String, Object> rules = Map.of(
+            "$in", Map.of("$field", "level", "$values", List.of("error", "critical"))
+        );
+
+        // When & Then
+        assertEquals(ruleCompiler.compile(rules), ruleCompiler.compile(rules));
+    }
+
+    @Test
+    @DisplayName("Should compile unsupported operator to a false condition")
+    void shouldCompileUnsupportedOperatorToFalse() {
+        // Given
+        Map<String, Object> rules = Map.of("$unsupported", Map.of("$value", 8));
+
+        // When & Then
+        assertSame(ConstantPredicate.FALSE, ruleCompiler.compile(rules));
+    }
+
+    @Test
+    @DisplayName("Should only fail on a malformed condition when it is reached")
+    void shouldOnlyFailOnMalformedConditionWhenReached() throws Exception {
+        // Given
+        Map<String, Object> rules = Map.of(
+            "$or", List.of(
+                Map.of("$gt", Map.of("$field", "cpu", "$value", 80)),
+                Map.of("$contains", Map.of("$field", "msg", "$value", 42))
+            )
+        );
+        RulePredicate predicate = ruleCompiler.compile(rules);
+
+        // When & Then
+        assertTrue(predicate.test(parse("{\"cpu\": 90}")));
+        assertThrows(IllegalStateException.class, () -> predicate.test(parse("{\"cpu\": 10}")));
+    }
+
+    @Test
+    @DisplayName("Should keep non-numeric threshold false for non-numeric fields")
+    void shouldKeepNonNumericThresholdFalseForNonNumericFields() throws Exception {
+        // Given
+        RulePredicate predicate = ruleCompiler.compile(Map.of(
+            "$gt", Map.of("$field", "cpu", "$value", "high")
+        ));
+
+        // When & Then
+        assertFalse(predicate.test(parse("{\"cpu\": \"busy\"}")));
+        assertThrows(NumberFormatException.class, () -> predicate.test(parse("{\"cpu\": 90}")));
+    }
+
+    private JsonNode parse(String message) throws Exception {
+        return objectMapper.readTree(message);
+    }
+}
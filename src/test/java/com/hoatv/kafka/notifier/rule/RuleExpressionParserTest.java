@@ -0,0 +1,85 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for RuleExpressionParser
+ * Tests cover compiling expressions to the tree of the equivalent rule map and rejecting malformed ones
+ */
+@DisplayName("Rule Expression Parser Tests")
+class RuleExpressionParserTest {
+
+    private RuleCompiler ruleCompiler;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        ruleCompiler = new RuleCompiler();
+        objectMapper = new ObjectMapper();
+    }
+
+    @Test
+    @DisplayName("Should parse an expression into the tree of the equivalent rule map")
+    void shouldParseToTreeOfEquivalentRuleMap() {
+        // Given
+        String expression = "cpu > 80 && status in ('error', \"fatal\") && msg ~ 'Timeout'";
+        Map<String, Object> rules = Map.of("$and", List.of(
+            Map.of("$gt", Map.of("$field", "cpu", "$value", 80)),
+            Map.of("$in", Map.of("$field", "status", "$values", List.of("error", "fatal"))),
+            Map.of("$contains", Map.of("$field", "msg", "$value", "Timeout"))
+        ));
+
+        // When
+        RulePredicate predicate = RuleExpressionParser.parse(expression);
+
+        // Then
+        assertEquals(ruleCompiler.compile(rules), predicate);
+    }
+
+    @Test
+    @DisplayName("Should bind && tighter than || and support negations and raw values")
+    void shouldHonourPrecedence() throws Exception {
+        // Given
+        RulePredicate predicate = RuleExpressionParser.parse(
+            "env == 'prod' and not (server.cpu <= 80) || level not in (1, 2) && !(ok == true)");
+        RulePredicate rawValue = RuleExpressionParser.parse("$value >= 90.5 || $value != 'down'");
+        JsonNode production = objectMapper.readTree("{\"env\": \"prod\", \"server\": {\"cpu\": 90}, \"level\": 1, \"ok\": false}");
+        JsonNode staging = objectMapper.readTree("{\"env\": \"dev\", \"server\": {\"cpu\": 90}, \"level\": 3, \"ok\": true}");
+
+        // When / Then
+        assertInstanceOf(OrPredicate.class, predicate);
+        assertTrue(predicate.test(production));
+        assertFalse(predicate.test(staging));
+        assertTrue(rawValue.test(objectMapper.readTree("91")));
+        assertFalse(rawValue.test(objectMapper.readTree("\"down\"")));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed expressions with the position of the error")
+    void shouldRejectMalformedExpressions() {
+        // When
+        RuleExpressionException missingOperand = assertThrows(RuleExpressionException.class,
+            () -> RuleExpressionParser.parse("cpu > 80 &&"));
+        RuleExpressionException textThreshold = assertThrows(RuleExpressionException.class,
+            () -> RuleExpressionParser.parse("cpu > 'high'"));
+
+        // Then
+        assertEquals(11, missingOperand.getPosition());
+        assertEquals(12, textThreshold.getPosition());
+        assertThrows(RuleExpressionException.class, () -> RuleExpressionParser.parse("status in ('error'"));
+        assertThrows(RuleExpressionException.class, () -> RuleExpressionParser.parse("msg ~ 'unterminated"));
+        assertThrows(RuleExpressionException.class, () -> RuleExpressionParser.parse("(cpu > 80"));
+        assertThrows(RuleExpressionException.class, () -> RuleExpressionParser.parse("cpu > 80 status == 'x'"));
+        assertThrows(RuleExpressionException.class, () -> RuleExpressionParser.parse(" "));
+        assertInstanceOf(InvalidPredicate.class, ruleCompiler.compileExpression("id", 1L, "cpu >").predicate());
+    }
+}
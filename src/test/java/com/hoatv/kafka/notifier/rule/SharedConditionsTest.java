@@ -0,0 +1,119 @@
+package com.hoatv.kafka.notifier.rule;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for SharedConditions
+ * Tests cover evaluating conditions repeated across rules once per record
+ */
+@DisplayName("Shared Conditions Tests")
+class SharedConditionsTest {
+
+    private RuleCompiler ruleCompiler;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        ruleCompiler = new RuleCompiler();
+        objectMapper = new ObjectMapper();
+    }
+
+    @Test
+    @DisplayName("Should evaluate a condition shared by several rules once per record")
+    void shouldEvaluateSharedConditionOnce() throws Exception {
+        // Given
+        AtomicInteger evaluations = new AtomicInteger();
+        RulePredicate production = new CountingPredicate(
+            compile(Map.of("$eq", Map.of("$field", "env", "$value", "prod"))).predicate(), evaluations);
+        SharedConditions sharedConditions = SharedConditions.build(List.of(
+            rule(new AndPredicate(List.of(production, compile(Map.of("$gt", Map.of("$field", "cpu", "$value", 80))).predicate()))),
+            rule(new AndPredicate(List.of(production, compile(Map.of("$eq", Map.of("$field", "status", "$value", "error"))).predicate()))),
+            rule(production)
+        ));
+        JsonNode message = objectMapper.readTree("{\"env\": \"prod\", \"cpu\": 90, \"status\": \"ok\"}");
+
+        // When
+        SharedConditions.Memo memo = new SharedConditions.Memo();
+        boolean first = sharedConditions.test(0, message, memo);
+        boolean second = sharedConditions.test(1, message, memo);
+        boolean third = sharedConditions.test(2, message, memo);
+
+        // Then
+        assertEquals(1, sharedConditions.sharedCount());
+        assertTrue(first);
+        assertFalse(second);
+        assertTrue(third);
+        assertEquals(1, evaluations.get());
+    }
+
+    @Test
+    @DisplayName("Should merge structurally equal conditions of different rules")
+    void shouldMergeEqualConditions() throws Exception {
+        // Given
+        Map<String, Object> production = Map.of("$eq", Map.of("$field", "env", "$value", "prod"));
+        SharedConditions sharedConditions = SharedConditions.build(List.of(
+            compile(Map.of("$and", List.of(production, Map.of("$gt", Map.of("$field", "cpu", "$value", 80))))),
+            compile(Map.of("$or", List.of(production, Map.of("$eq", Map.of("$field", "status", "$value", "error"))))),
+            compile(Map.of("$lt", Map.of("$field", "cpu", "$value", 10)))
+        ));
+
+        // When
+        SharedConditions.Memo memo = new SharedConditions.Memo();
+        JsonNode message = objectMapper.readTree("{\"env\": \"dev\", \"cpu\": 5, \"status\": \"error\"}");
+
+        // Then
+        assertEquals(1, sharedConditions.sharedCount());
+        assertFalse(sharedConditions.test(0, message, memo));
+        assertTrue(sharedConditions.test(1, message, memo));
+        assertTrue(sharedConditions.test(2, message, memo));
+    }
+
+    @Test
+    @DisplayName("Should fail every rule reaching a shared condition that failed")
+    void shouldReplaySharedFailure() throws Exception {
+        // Given
+        Map<String, Object> invalid = Map.of("$gt", Map.of("$field", "cpu", "$value", "high"));
+        SharedConditions sharedConditions = SharedConditions.build(List.of(
+            compile(Map.of("$and", List.of(invalid, Map.of("$eq", Map.of("$field", "env", "$value", "prod"))))),
+            compile(Map.of("$or", List.of(invalid, Map.of("$eq", Map.of("$field", "env", "$value", "prod")))))
+        ));
+        JsonNode message = objectMapper.readTree("{\"env\": \"prod\", \"cpu\": 90}");
+
+        // When
+        SharedConditions.Memo memo = new SharedConditions.Memo();
+
+        // Then
+        assertThrows(NumberFormatException.class, () -> sharedConditions.test(0, message, memo));
+        assertThrows(NumberFormatException.class, () -> sharedConditions.test(1, message, memo));
+    }
+
+    private CompiledRule compile(Map<String, Object> rules) {
+        return ruleCompiler.compile("test", 0L, rules);
+    }
+
+    private static CompiledRule rule(RulePredicate predicate) {
+        return new CompiledRule("test", 0L, predicate);
+    }
+
+    /**
+     * Condition counting how often it is evaluated
+     */
+    private record CountingPredicate(RulePredicate delegate, AtomicInteger evaluations) implements RulePredicate {
+
+        @Override
+        public boolean test(JsonNode message) {
+            evaluations.incrementAndGet();
+            return delegate.test(message);
+        }
+    }
+}
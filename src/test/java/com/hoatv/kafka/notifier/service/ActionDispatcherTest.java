@@ -0,0 +1,111 @@
+package com.hoatv.kafka.notifier.service;
+
+import com.hoatv.kafka.notifier.model.NotificationAction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for ActionDispatcher
+ * Tests cover running actions on virtual threads within the per-topic and per-webhook bounds
+ */
+@DisplayName("Action Dispatcher Tests")
+class ActionDispatcherTest {
+
+    private static final NotificationAction SLACK = action("https://hooks.slack.com/services/test");
+
+    private ActionDispatcher actionDispatcher;
+
+    @BeforeEach
+    void setUp() {
+        actionDispatcher = new ActionDispatcher();
+        ReflectionTestUtils.setField(actionDispatcher, "maxInFlightPerTopic", 2);
+        ReflectionTestUtils.setField(actionDispatcher, "maxInFlightPerWebhook", 1);
+        ReflectionTestUtils.setField(actionDispatcher, "shutdownTimeoutSeconds", 1L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        actionDispatcher.stop();
+    }
+
+    @Test
+    @DisplayName("Should run actions on the calling thread unless virtual threads are enabled")
+    void shouldRunOnCallingThreadByDefault() {
+        // Given
+        actionDispatcher.start();
+        Thread caller = Thread.currentThread();
+        AtomicBoolean sameThread = new AtomicBoolean();
+
+        // When
+        actionDispatcher.dispatch("cpu", SLACK, () -> sameThread.set(Thread.currentThread() == caller));
+
+        // Then
+        assertTrue(sameThread.get());
+        assertEquals(0, actionDispatcher.inFlight("cpu"));
+    }
+
+    @Test
+    @DisplayName("Should run slow actions on virtual threads within the topic and webhook bounds")
+    void shouldBoundActionsInFlight() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(actionDispatcher, "virtualThreads", true);
+        actionDispatcher.start();
+        CountDownLatch slowWebhook = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicBoolean virtual = new AtomicBoolean(true);
+        Runnable slowCall = () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            virtual.compareAndSet(true, Thread.currentThread().isVirtual());
+            awaitQuietly(slowWebhook);
+            running.decrementAndGet();
+        };
+        CountDownLatch otherTopic = new CountDownLatch(1);
+
+        // When
+        actionDispatcher.dispatch("cpu", SLACK, slowCall);
+        actionDispatcher.dispatch("cpu", SLACK, slowCall);
+        Thread blockedCaller = Thread.ofPlatform().start(() -> actionDispatcher.dispatch("cpu", SLACK, slowCall));
+        actionDispatcher.dispatch("disk", action("https://hooks.slack.com/services/other"), otherTopic::countDown);
+        boolean otherTopicRan = otherTopic.await(5, TimeUnit.SECONDS);
+        blockedCaller.join(200);
+        boolean callerBlocked = blockedCaller.isAlive();
+        int cpuInFlight = actionDispatcher.inFlight("cpu");
+        slowWebhook.countDown();
+        blockedCaller.join(5000);
+
+        // Then
+        assertTrue(otherTopicRan);
+        assertTrue(callerBlocked);
+        assertEquals(2, cpuInFlight);
+        assertFalse(blockedCaller.isAlive());
+        assertEquals(1, maxRunning.get());
+        assertTrue(virtual.get());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static NotificationAction action(String webhookUrl) {
+        return NotificationAction.builder()
+                .type("call")
+                .params(Map.of("provider", "SLACK", "webhookURL", webhookUrl, "message", "CPU high"))
+                .build();
+    }
+}
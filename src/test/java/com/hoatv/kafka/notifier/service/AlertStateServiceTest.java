@@ -0,0 +1,168 @@
+package com.hoatv.kafka.notifier.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hoatv.kafka.notifier.model.NotifierConfiguration;
+import com.hoatv.kafka.notifier.rule.MessageContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for AlertStateService
+ * Tests cover pending, firing and resolved transitions per fingerprint, firing only once notified and the state bounds
+ */
+@DisplayName("Alert State Service Tests")
+class AlertStateServiceTest {
+
+    private ObjectMapper objectMapper;
+    private AtomicLong clock;
+    private AlertStateService alertStateService;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        clock = new AtomicLong(1_000_000L);
+        alertStateService = new AlertStateService(clock::get);
+        ReflectionTestUtils.setField(alertStateService, "maximumFingerprints", 2);
+        ReflectionTestUtils.setField(alertStateService, "idleTimeoutMinutes", 10L);
+    }
+
+    @Test
+    @DisplayName("Should fire once the rules held for the duration and resolve once")
+    void shouldFireAfterDurationAndResolveOnce() {
+        // Given
+        NotifierConfiguration config = NotifierConfiguration.builder()
+                .id("cpu-high").notifier("cpu-high").alertFingerprint("host").alertForSeconds(60).build();
+
+        // When
+        boolean pending = alertStateService.onMatch(config, record("db-1", 95));
+        clock.addAndGet(30_000L);
+        boolean stillPending = alertStateService.onMatch(config, record("db-1", 96));
+        clock.addAndGet(30_000L);
+        boolean firing = alertStateService.onMatch(config, record("db-1", 97))
+                && alertStateService.fire(config, record("db-1", 97));
+        boolean alreadyFiring = alertStateService.onMatch(config, record("db-1", 98));
+        List<NotifierConfiguration> otherHost = alertStateService.onMisses(List.of(config), record("db-2", 10));
+        List<NotifierConfiguration> resolved = alertStateService.onMisses(List.of(config), record("db-1", 10));
+        List<NotifierConfiguration> resolvedAgain = alertStateService.onMisses(List.of(config), record("db-1", 10));
+
+        // Then
+        assertTrue(AlertStateService.isAlerting(config));
+        assertFalse(AlertStateService.isAlerting(NotifierConfiguration.builder().notifier("plain").build()));
+        assertFalse(pending);
+        assertFalse(stillPending);
+        assertTrue(firing);
+        assertFalse(alreadyFiring);
+        assertEquals(List.of(), otherHost);
+        assertEquals(List.of(config), resolved);
+        assertEquals(List.of(), resolvedAgain);
+        assertEquals(0, alertStateService.alertCount(config));
+        assertFalse(alertStateService.hasAlerts());
+    }
+
+    @Test
+    @DisplayName("Should keep a due alert pending until its notification is sent")
+    void shouldFireOnlyOnceNotified() {
+        // Given
+        NotifierConfiguration config = NotifierConfiguration.builder()
+                .id("cpu-high").notifier("cpu-high").alertFingerprint("host").build();
+
+        // When
+        boolean due = alertStateService.onMatch(config, record("db-1", 95));
+        List<NotifierConfiguration> throttledMiss = alertStateService.onMisses(List.of(config), record("db-1", 10));
+        boolean dueAgain = alertStateService.onMatch(config, record("db-1", 96));
+        boolean fired = alertStateService.fire(config, record("db-1", 96));
+        boolean firedAgain = alertStateService.fire(config, record("db-1", 97));
+        boolean dueWhileFiring = alertStateService.onMatch(config, record("db-1", 97));
+
+        // Then
+        assertTrue(due);
+        assertEquals(List.of(), throttledMiss);
+        assertTrue(dueAgain);
+        assertTrue(fired);
+        assertFalse(firedAgain);
+        assertFalse(dueWhileFiring);
+    }
+
+    @Test
+    @DisplayName("Should forget the alerts of an evicted configuration")
+    void shouldEvictConfigurationAlerts() {
+        // Given
+        NotifierConfiguration config = NotifierConfiguration.builder()
+                .id("cpu-high").notifier("cpu-high").alertFingerprint("host").build();
+        alertStateService.onMatch(config, record("db-1", 95));
+        alertStateService.fire(config, record("db-1", 95));
+        alertStateService.onMatch(config, record("db-2", 95));
+        boolean hadAlerts = alertStateService.hasAlerts();
+
+        // When
+        alertStateService.evict("cpu-high");
+
+        // Then
+        assertTrue(hadAlerts);
+        assertFalse(alertStateService.hasAlerts());
+        assertEquals(0, alertStateService.alertCount(config));
+        assertEquals(List.of(), alertStateService.onMisses(List.of(config), record("db-1", 10)));
+    }
+
+    @Test
+    @DisplayName("Should drop pending alerts silently and track fingerprints separately")
+    void shouldTrackFingerprintsSeparately() {
+        // Given
+        NotifierConfiguration config = NotifierConfiguration.builder()
+                .id("cpu-high").notifier("cpu-high").alertFingerprint("host").alertForSeconds(60).build();
+        NotifierConfiguration immediate = NotifierConfiguration.builder()
+                .id("disk-full").notifier("disk-full").alertForSeconds(0).build();
+
+        // When
+        alertStateService.onMatch(config, record("db-1", 95));
+        alertStateService.onMatch(config, record("db-2", 95));
+        List<NotifierConfiguration> dropped = alertStateService.onMisses(List.of(config), record("db-1", 10));
+        boolean firstMatch = alertStateService.onMatch(immediate, record("db-1", 95))
+                && alertStateService.fire(immediate, record("db-1", 95));
+        boolean otherHost = alertStateService.onMatch(immediate, record("db-2", 95));
+
+        // Then
+        assertEquals(List.of(), dropped);
+        assertEquals(1, alertStateService.alertCount(config));
+        assertTrue(firstMatch);
+        assertFalse(otherHost);
+        assertEquals(1, alertStateService.alertCount(immediate));
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently seen and idle alerts")
+    void shouldEvictLeastRecentlySeenAndIdleAlerts() {
+        // Given
+        NotifierConfiguration config = NotifierConfiguration.builder()
+                .id("cpu-high").notifier("cpu-high").alertFingerprint("host").build();
+
+        // When
+        fire(config, record("db-1", 95));
+        fire(config, record("db-2", 95));
+        fire(config, record("db-3", 95));
+        int capped = alertStateService.alertCount(config);
+        boolean evictedFiresAgain = fire(config, record("db-1", 95));
+        clock.addAndGet(10 * 60_000L);
+        alertStateService.onMatch(config, record("db-4", 95));
+
+        // Then
+        assertEquals(2, capped);
+        assertTrue(evictedFiresAgain);
+        assertEquals(1, alertStateService.alertCount(config));
+    }
+
+    private boolean fire(NotifierConfiguration config, MessageContext context) {
+        return alertStateService.onMatch(config, context) && alertStateService.fire(config, context);
+    }
+
+    private MessageContext record(String host, int cpu) {
+        return new MessageContext(objectMapper, "{\"host\": \"" + host + "\", \"cpu\": " + cpu + "}");
+    }
+}
@@ -0,0 +1,132 @@
+package com.hoatv.kafka.notifier.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hoatv.kafka.notifier.model.NotifierConfiguration;
+import com.hoatv.kafka.notifier.rule.MessageContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for DuplicateSuppressionService
+ * Tests cover suppressing repeated fingerprints within their TTL, remembering only sent notifications and the filter bounds
+ */
+@DisplayName("Duplicate Suppression Service Tests")
+class DuplicateSuppressionServiceTest {
+
+    private ObjectMapper objectMapper;
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicLong clock;
+    private DuplicateSuppressionService duplicateSuppressionService;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new AtomicLong(1_000_000L);
+        duplicateSuppressionService = new DuplicateSuppressionService(meterRegistry, clock::get);
+        ReflectionTestUtils.setField(duplicateSuppressionService, "defaultTtlSeconds", 300L);
+        ReflectionTestUtils.setField(duplicateSuppressionService, "expectedKeys", 1000);
+        ReflectionTestUtils.setField(duplicateSuppressionService, "falsePositiveRate", 0.001);
+    }
+
+    @Test
+    @DisplayName("Should suppress repeats of the same fields within the TTL")
+    void shouldSuppressRepeatsWithinTtl() {
+        // Given
+        NotifierConfiguration config = NotifierConfiguration.builder()
+                .id("db-errors").notifier("db-errors").dedupFields(List.of("host", "error.code")).dedupTtlSeconds(60L).build();
+        NotifierConfiguration other = NotifierConfiguration.builder()
+                .id("db-errors-oncall").notifier("db-errors-oncall").dedupFields(List.of("host")).build();
+
+        // When
+        boolean first = notify(config, record("db-1", "E42"));
+        boolean repeat = notify(config, record("db-1", "E42"));
+        boolean otherCode = notify(config, record("db-1", "E43"));
+        boolean otherConfiguration = notify(other, record("db-1", "E42"));
+        clock.addAndGet(81_000L);
+        boolean afterTtl = notify(config, record("db-1", "E42"));
+        boolean defaultTtl = notify(other, record("db-1", "E42"));
+
+        // Then
+        assertTrue(DuplicateSuppressionService.isDeduplicating(config));
+        assertFalse(DuplicateSuppressionService.isDeduplicating(NotifierConfiguration.builder().notifier("plain").build()));
+        assertFalse(first);
+        assertTrue(repeat);
+        assertFalse(otherCode);
+        assertFalse(otherConfiguration);
+        assertFalse(afterTtl);
+        assertTrue(defaultTtl);
+        assertEquals(1.0, meterRegistry.get("notifier.notifications.dedup")
+                .tag("notifier", "db-errors").tag("result", "suppressed").counter().count());
+        assertEquals(3.0, meterRegistry.get("notifier.notifications.dedup")
+                .tag("notifier", "db-errors").tag("result", "passed").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should only suppress repeats of notifications that were sent")
+    void shouldRememberOnlySentNotifications() {
+        // Given
+        NotifierConfiguration config = NotifierConfiguration.builder()
+                .id("db-errors").notifier("db-errors").dedupFields(List.of("host")).build();
+
+        // When
+        boolean throttled = duplicateSuppressionService.isDuplicate(config, record("db-1", "E42"));
+        boolean afterThrottled = duplicateSuppressionService.isDuplicate(config, record("db-1", "E42"));
+        duplicateSuppressionService.record(config, record("db-1", "E42"));
+        boolean afterSent = duplicateSuppressionService.isDuplicate(config, record("db-1", "E42"));
+
+        // Then
+        assertFalse(throttled);
+        assertFalse(afterThrottled);
+        assertTrue(afterSent);
+    }
+
+    @Test
+    @DisplayName("Should remember many distinct keys in a fixed size with few false positives")
+    void shouldBoundFilterMemory() {
+        // Given
+        TimeBucketedBloomFilter filter = new TimeBucketedBloomFilter(60_000L, 100_000, 0.001);
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (!filter.add("incident-" + i, 0L)) {
+                falsePositives++;
+            }
+        }
+        boolean remembered = filter.add("incident-42", 59_999L);
+        boolean forgotten = filter.add("incident-42", 80_000L);
+
+        // Then
+        assertTrue(filter.sizeInBytes() < 1_000_000L);
+        assertTrue(falsePositives < 500, "false positives: " + falsePositives);
+        assertFalse(remembered);
+        assertTrue(forgotten);
+    }
+
+    /**
+     * Check a notification for repeats and remember it when it is sent
+     *
+     * @return true when the notification is suppressed
+     */
+    private boolean notify(NotifierConfiguration config, MessageContext context) {
+        if (duplicateSuppressionService.isDuplicate(config, context)) {
+            return true;
+        }
+        duplicateSuppressionService.record(config, context);
+        return false;
+    }
+
+    private MessageContext record(String host, String code) {
+        return new MessageContext(objectMapper,
+                "{\"host\": \"" + host + "\", \"error\": {\"code\": \"" + code + "\"}}");
+    }
+}
@@ -0,0 +1,211 @@
+package com.hoatv.kafka.notifier.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hoatv.kafka.notifier.model.NotificationAction;
+import com.hoatv.kafka.notifier.model.NotifierConfiguration;
+import com.hoatv.kafka.notifier.repository.NotifierConfigurationRepository;
+import com.hoatv.kafka.notifier.rule.MessageContext;
+import com.hoatv.kafka.notifier.rule.TopicRuleSet;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test cases for DynamicKafkaMessageProcessor
+ * Tests cover processing the records of a poll as one batch per topic, with the result cache, and alert transitions past throttling
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Dynamic Kafka Message Processor Tests")
+class DynamicKafkaMessageProcessorTest {
+
+    @Mock
+    private NotifierConfigurationRepository repository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private NotificationThrottlingService throttlingService;
+
+    @Mock
+    private ConsumerFactory<String, byte[]> consumerFactory;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RecordResultCache resultCache;
+    private RuleEvaluationService ruleEvaluationService;
+    private DynamicKafkaMessageProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        ruleEvaluationService = new RuleEvaluationService(new ObjectMapper());
+        AlertStateService alertStateService = new AlertStateService();
+        ReflectionTestUtils.setField(alertStateService, "maximumFingerprints", 100);
+        ReflectionTestUtils.setField(alertStateService, "idleTimeoutMinutes", 10L);
+        meterRegistry = new SimpleMeterRegistry();
+        resultCache = new RecordResultCache(meterRegistry);
+        ReflectionTestUtils.setField(resultCache, "topics", Set.of());
+        ReflectionTestUtils.setField(resultCache, "maximumSize", 100);
+        ReflectionTestUtils.setField(resultCache, "maximumPayloadBytes", 4096);
+        processor = new DynamicKafkaMessageProcessor(repository, ruleEvaluationService, notificationService,
+                new ActionDispatcher(), throttlingService, alertStateService, new DuplicateSuppressionService(new SimpleMeterRegistry(),
+                System::currentTimeMillis), resultCache, consumerFactory);
+        lenient().when(throttlingService.shouldSendNotification(any(NotifierConfiguration.class))).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("Should notify the same matches for a batch as record by record")
+    void shouldProcessBatchLikeRecords() {
+        // Given
+        NotifierConfiguration cpuHigh = configuration("cpu-high", "cpu", "cpu > 90");
+        NotifierConfiguration cpuErrors = configuration("cpu-errors", "cpu", "status == 'error'");
+        NotifierConfiguration diskFull = configuration("disk-full", "disk", "usage >= 95");
+        when(repository.findByTopicAndEnabledTrue("cpu")).thenReturn(List.of(cpuHigh, cpuErrors));
+        when(repository.findByTopicAndEnabledTrue("disk")).thenReturn(List.of(diskFull));
+        processor.refreshTopicRuleSet("cpu");
+        processor.refreshTopicRuleSet("disk");
+        Map<String, TopicRuleSet> ruleSets = Map.of(
+                "cpu", ruleEvaluationService.compileTopic("cpu", List.of(cpuHigh, cpuErrors)),
+                "disk", ruleEvaluationService.compileTopic("disk", List.of(diskFull)));
+        List<ConsumerRecord<String, byte[]>> records = List.of(
+                record("cpu", "{\"cpu\": 95, \"status\": \"ok\"}"),
+                record("disk", "{\"usage\": 97}"),
+                record("cpu", "not json"),
+                record("cpu", "{\"cpu\": 99, \"status\": \"error\"}"),
+                record("unknown", "{\"cpu\": 99}"),
+                record("cpu", "{\"cpu\": 10, \"status\": \"ok\"}"));
+
+        // When
+        for (ConsumerRecord<String, byte[]> consumerRecord : records) {
+            processor.processRecord(consumerRecord.value(), ruleSets.get(consumerRecord.topic()));
+        }
+        List<String> recordByRecord = notifications();
+        clearInvocations(notificationService);
+        processor.processBatch(records);
+        List<String> batched = notifications();
+
+        // Then
+        assertEquals(List.of(
+                "cpu-high:{\"cpu\": 95, \"status\": \"ok\"}",
+                "disk-full:{\"usage\": 97}",
+                "cpu-high:{\"cpu\": 99, \"status\": \"error\"}",
+                "cpu-errors:{\"cpu\": 99, \"status\": \"error\"}"), recordByRecord);
+        assertEquals(List.of(
+                "cpu-high:{\"cpu\": 95, \"status\": \"ok\"}",
+                "cpu-high:{\"cpu\": 99, \"status\": \"error\"}",
+                "cpu-errors:{\"cpu\": 99, \"status\": \"error\"}",
+                "disk-full:{\"usage\": 97}"), batched);
+    }
+
+    @Test
+    @DisplayName("Should keep alert transitions in record order within a batch")
+    void shouldKeepAlertOrderInBatch() {
+        // Given
+        NotifierConfiguration cpuHigh = configuration("cpu-high", "cpu", "cpu > 90");
+        cpuHigh.setAlertFingerprint("host");
+        when(repository.findByTopicAndEnabledTrue("cpu")).thenReturn(List.of(cpuHigh));
+        processor.refreshTopicRuleSet("cpu");
+
+        // When
+        processor.processBatch(List.of(
+                record("cpu", "{\"host\": \"db-1\", \"cpu\": 95}"),
+                record("cpu", "{\"host\": \"db-1\", \"cpu\": 97}"),
+                record("cpu", "{\"host\": \"db-1\", \"cpu\": 20}"),
+                record("cpu", "{\"host\": \"db-1\", \"cpu\": 99}")));
+
+        // Then
+        ArgumentCaptor<String> alertStatus = ArgumentCaptor.forClass(String.class);
+        verify(notificationService, times(3)).executeNotificationAction(any(), any(), any(), alertStatus.capture());
+        assertEquals(List.of(AlertStateService.FIRING, AlertStateService.RESOLVED, AlertStateService.FIRING),
+                alertStatus.getAllValues());
+    }
+
+    @Test
+    @DisplayName("Should fire an alert only once a notification goes out past throttling")
+    void shouldFireAlertOnlyWhenNotified() {
+        // Given
+        NotifierConfiguration cpuHigh = configuration("cpu-high", "cpu", "cpu > 90");
+        cpuHigh.setAlertFingerprint("host");
+        when(repository.findByTopicAndEnabledTrue("cpu")).thenReturn(List.of(cpuHigh));
+        when(throttlingService.shouldSendNotification(any(NotifierConfiguration.class))).thenReturn(false, true);
+        processor.refreshTopicRuleSet("cpu");
+
+        // When
+        processor.processBatch(List.of(
+                record("cpu", "{\"host\": \"db-1\", \"cpu\": 95}"),
+                record("cpu", "{\"host\": \"db-1\", \"cpu\": 97}"),
+                record("cpu", "{\"host\": \"db-1\", \"cpu\": 99}")));
+
+        // Then
+        ArgumentCaptor<String> alertStatus = ArgumentCaptor.forClass(String.class);
+        verify(notificationService, times(1)).executeNotificationAction(any(), any(), any(), alertStatus.capture());
+        assertEquals(List.of(AlertStateService.FIRING), alertStatus.getAllValues());
+        verify(throttlingService, times(2)).shouldSendNotification(any(NotifierConfiguration.class));
+    }
+
+    @Test
+    @DisplayName("Should take the matches of cached repeats in a batch from the result cache")
+    void shouldUseResultCacheInBatch() {
+        // Given
+        ReflectionTestUtils.setField(resultCache, "topics", Set.of("cpu"));
+        NotifierConfiguration cpuHigh = configuration("cpu-high", "cpu", "cpu > 90");
+        when(repository.findByTopicAndEnabledTrue("cpu")).thenReturn(List.of(cpuHigh));
+        processor.refreshTopicRuleSet("cpu");
+        processor.processBatch(List.of(record("cpu", "{\"cpu\": 95}"), record("cpu", "{\"cpu\": 10}")));
+        clearInvocations(notificationService);
+
+        // When
+        processor.processBatch(List.of(
+                record("cpu", "{\"cpu\": 10}"),
+                record("cpu", "{\"cpu\": 99}"),
+                record("cpu", "{\"cpu\": 95}")));
+
+        // Then
+        assertEquals(List.of("cpu-high:{\"cpu\": 99}", "cpu-high:{\"cpu\": 95}"), notifications());
+        assertEquals(2.0, meterRegistry.get("notifier.rules.result.cache").tag("result", "hit").counter().count());
+        assertEquals(3.0, meterRegistry.get("notifier.rules.result.cache").tag("result", "miss").counter().count());
+        assertEquals(3, resultCache.size());
+    }
+
+    private List<String> notifications() {
+        ArgumentCaptor<MessageContext> context = ArgumentCaptor.forClass(MessageContext.class);
+        ArgumentCaptor<NotifierConfiguration> config = ArgumentCaptor.forClass(NotifierConfiguration.class);
+        verify(notificationService, atLeast(0)).executeNotificationAction(any(), context.capture(), config.capture(), any());
+        List<String> notifications = new ArrayList<>();
+        for (int i = 0; i < context.getAllValues().size(); i++) {
+            notifications.add(config.getAllValues().get(i).getNotifier() + ":" + context.getAllValues().get(i).message());
+        }
+        return notifications;
+    }
+
+    private static NotifierConfiguration configuration(String notifier, String topic, String expression) {
+        return NotifierConfiguration.builder()
+                .id(notifier)
+                .notifier(notifier)
+                .topic(topic)
+                .expression(expression)
+                .actions(List.of(NotificationAction.builder().type("call").build()))
+                .build();
+    }
+
+    private static ConsumerRecord<String, byte[]> record(String topic, String value) {
+        return new ConsumerRecord<>(topic, 0, 0L, null, value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,69 @@
+package com.hoatv.kafka.notifier.service;
+
+import com.hoatv.kafka.notifier.model.NotifierConfiguration;
+import com.hoatv.kafka.notifier.rule.CompiledRule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Differential test cases for generated rule classes
+ * Runs every RuleEvaluationServiceTest case with rules generated on their first evaluation
+ */
+@DisplayName("Generated Rule Evaluation Service Tests")
+class GeneratedRuleEvaluationServiceTest extends RuleEvaluationServiceTest {
+
+    @Override
+    @BeforeEach
+    void setUp() {
+        super.setUp();
+        ReflectionTestUtils.setField(ruleEvaluationService, "bytecodeThreshold", 1L);
+    }
+
+    @Test
+    @DisplayName("Should switch a rule to its generated class on the first evaluation")
+    void shouldGenerateClassOnFirstEvaluation() {
+        // Given
+        NotifierConfiguration config = NotifierConfiguration.builder()
+            .notifier("cpu-alert")
+            .rules(Map.of("$gt", Map.of("$field", "system.cpu.usage", "$value", 80)))
+            .version(1L)
+            .build();
+        CompiledRule compiledRule = ruleEvaluationService.compile(config);
+        assertFalse(compiledRule.isGenerated());
+
+        // When
+        boolean result = ruleEvaluationService.evaluateRules(config, "{\"system\": {\"cpu\": {\"usage\": 85}}}");
+
+        // Then
+        assertTrue(result);
+        assertTrue(compiledRule.isGenerated());
+        assertTrue(compiledRule.evaluator().getClass().isHidden());
+    }
+
+    @Test
+    @DisplayName("Should generate the class at compile time when the configuration asks for it")
+    void shouldGenerateClassForConfiguration() {
+        // Given
+        ReflectionTestUtils.setField(ruleEvaluationService, "bytecodeThreshold", 0L);
+        NotifierConfiguration config = NotifierConfiguration.builder()
+            .notifier("error-alert")
+            .rules(Map.of("$eq", Map.of("$field", "status", "$value", "error")))
+            .version(1L)
+            .generateBytecode(true)
+            .build();
+
+        // When
+        CompiledRule compiledRule = ruleEvaluationService.compile(config);
+
+        // Then
+        assertTrue(compiledRule.isGenerated());
+        assertTrue(ruleEvaluationService.evaluateRules(config, "{\"status\": \"error\"}"));
+        assertFalse(ruleEvaluationService.evaluateRules(config, "{\"status\": \"ok\"}"));
+    }
+}
@@ -0,0 +1,186 @@
+package com.hoatv.kafka.notifier.service;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for MultiplexedTopicConsumer
+ * Tests cover routing the records of every topic through one consumer, resubscribing it in place
+ * and committing what the record workers processed when the pool stops
+ */
+@DisplayName("Multiplexed Topic Consumer Tests")
+class MultiplexedTopicConsumerTest {
+
+    private static final TopicPartition CPU = new TopicPartition("cpu", 0);
+    private static final TopicPartition DISK = new TopicPartition("disk", 0);
+
+    @Test
+    @DisplayName("Should route records of every subscribed topic through a single consumer")
+    void shouldRouteRecordsOfAllTopics() throws Exception {
+        // Given
+        MockConsumer<String, byte[]> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        List<String> received = new CopyOnWriteArrayList<>();
+        CountDownLatch firstRecord = new CountDownLatch(1);
+        CountDownLatch allRecords = new CountDownLatch(2);
+        MultiplexedTopicConsumer multiplexedConsumer = new MultiplexedTopicConsumer(() -> consumer, 1,
+                Duration.ofMillis(10), (topic, value) -> {
+                    received.add(topic + ":" + new String(value, StandardCharsets.UTF_8));
+                    firstRecord.countDown();
+                    allRecords.countDown();
+                });
+
+        // When
+        multiplexedConsumer.start();
+        multiplexedConsumer.subscribe(Set.of("cpu"));
+        whenSubscribed(consumer, Set.of("cpu"), () -> {
+            consumer.rebalance(List.of(CPU));
+            consumer.updateBeginningOffsets(Map.of(CPU, 0L));
+            consumer.addRecord(record(CPU, 0L, "85"));
+        });
+        assertTrue(firstRecord.await(10, TimeUnit.SECONDS));
+        multiplexedConsumer.subscribe(Set.of("cpu", "disk"));
+        whenSubscribed(consumer, Set.of("cpu", "disk"), () -> {
+            consumer.rebalance(List.of(CPU, DISK));
+            consumer.updateBeginningOffsets(Map.of(DISK, 0L));
+            consumer.addRecord(record(DISK, 0L, "95"));
+        });
+        assertTrue(allRecords.await(10, TimeUnit.SECONDS));
+        multiplexedConsumer.stop();
+
+        // Then
+        assertEquals(List.of("cpu:85", "disk:95"), received);
+        assertEquals(Set.of("cpu", "disk"), multiplexedConsumer.topics());
+        assertTrue(consumer.closed());
+    }
+
+    @Test
+    @DisplayName("Should commit the drained records when stopped while handing records off")
+    void shouldCommitWhenStoppedDuringHandOff() throws Exception {
+        // Given: one worker with a queue of one, so the third record waits to be handed off
+        WakeupAwareConsumer consumer = new WakeupAwareConsumer();
+        CountDownLatch processing = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        ShardedRecordExecutor executor = new ShardedRecordExecutor(1, 1, 60_000L, 5000L, (topic, value) -> {
+            processing.countDown();
+            awaitQuietly(blocked);
+        });
+        MultiplexedTopicConsumer multiplexedConsumer = new MultiplexedTopicConsumer(() -> consumer, 1,
+                Duration.ofMillis(10), (topic, value) -> fail("records go to the executor"), executor);
+        multiplexedConsumer.start();
+        multiplexedConsumer.subscribe(Set.of("cpu"));
+        whenSubscribed(consumer, Set.of("cpu"), () -> {
+            consumer.rebalance(List.of(CPU));
+            consumer.updateBeginningOffsets(Map.of(CPU, 0L));
+            consumer.schedulePollTask(() -> {
+                for (long offset = 0; offset < 3; offset++) {
+                    consumer.addRecord(record(CPU, offset, "85"));
+                }
+            });
+        });
+        assertTrue(processing.await(10, TimeUnit.SECONDS));
+
+        // When
+        consumer.stopping = new CountDownLatch(1);
+        Thread stopper = Thread.ofPlatform().start(multiplexedConsumer::stop);
+        assertTrue(consumer.stopping.await(10, TimeUnit.SECONDS));
+        blocked.countDown();
+        stopper.join(10_000);
+        executor.stop();
+
+        // Then
+        assertFalse(stopper.isAlive());
+        assertTrue(consumer.closed());
+        assertEquals(3L, consumer.committedOnClose.get(CPU).offset());
+    }
+
+    /**
+     * Run a task on the first poll after the consumer subscribed to the given topics
+     */
+    private static void whenSubscribed(MockConsumer<String, byte[]> consumer, Set<String> topics, Runnable task) {
+        consumer.schedulePollTask(() -> {
+            if (consumer.subscription().equals(topics)) {
+                task.run();
+            } else {
+                whenSubscribed(consumer, topics, task);
+            }
+        });
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ConsumerRecord<String, byte[]> record(TopicPartition partition, long offset, String value) {
+        return new ConsumerRecord<>(partition.topic(), partition.partition(), offset, null,
+                value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Mock consumer whose pending wakeup also aborts the next synchronous commit, as with a real consumer,
+     * keeping the offsets committed when it was closed
+     */
+    private static final class WakeupAwareConsumer extends MockConsumer<String, byte[]> {
+
+        private volatile boolean wakeupPending;
+        private volatile CountDownLatch stopping = new CountDownLatch(0);
+        private volatile Map<TopicPartition, OffsetAndMetadata> committedOnClose;
+
+        WakeupAwareConsumer() {
+            super(OffsetResetStrategy.EARLIEST);
+        }
+
+        @Override
+        public void wakeup() {
+            wakeupPending = true;
+            super.wakeup();
+            stopping.countDown();
+        }
+
+        @Override
+        public synchronized ConsumerRecords<String, byte[]> poll(Duration timeout) {
+            try {
+                return super.poll(timeout);
+            } catch (WakeupException e) {
+                wakeupPending = false;
+                throw e;
+            }
+        }
+
+        @Override
+        public synchronized void commitSync(Map<TopicPartition, OffsetAndMetadata> offsets) {
+            if (wakeupPending) {
+                wakeupPending = false;
+                throw new WakeupException();
+            }
+            super.commitSync(offsets);
+        }
+
+        @Override
+        public synchronized void close() {
+            committedOnClose = committed(assignment());
+            super.close();
+        }
+    }
+}
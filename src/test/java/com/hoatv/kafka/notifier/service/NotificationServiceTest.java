@@ -5,6 +5,7 @@ import com.hoatv.kafka.notifier.client.SlackWebhookClient;
 import com.hoatv.kafka.notifier.dto.SlackMessage;
 import com.hoatv.kafka.notifier.model.NotificationAction;
 import com.hoatv.kafka.notifier.model.NotifierConfiguration;
+import com.hoatv.kafka.notifier.rule.MessageContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -15,6 +16,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -168,6 +170,37 @@ class NotificationServiceTest {
         assertEquals("CPU usage: 90%", capturedMessage.getText());
     }
 
+    @Test
+    @DisplayName("Should substitute placeholders of array elements by index")
+    void shouldSubstituteArrayElementPlaceholders() {
+        // Given
+        String message = "{\"host\": \"db-1\", \"disks\": [{\"mount\": \"/\", \"used\": 40}, {\"mount\": \"/data\", \"used\": 95}], \"tags\": [\"prod\"]}";
+        String messageTemplate = "${host}: ${disks[1].mount} at ${disks[1].used}% (${tags[0]})";
+        String webhookUrl = "https://hooks.slack.com/services/test";
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("provider", "SLACK");
+        params.put("webhookURL", webhookUrl);
+        params.put("message", messageTemplate);
+
+        NotificationAction action = NotificationAction.builder()
+                .type("call")
+                .params(params)
+                .build();
+
+        NotifierConfiguration config = NotifierConfiguration.builder()
+                .notifier("TestNotifier")
+                .build();
+
+        // When
+        notificationService.executeNotificationAction(action, message, config);
+
+        // Then
+        verify(slackWebhookClient, times(1)).sendMessage(eq(webhookUrl), slackMessageCaptor.capture());
+        SlackMessage capturedMessage = slackMessageCaptor.getValue();
+        assertEquals("db-1: /data at 95% (prod)", capturedMessage.getText());
+    }
+
     @Test
     @DisplayName("Should preserve placeholder when field does not exist")
     void shouldPreservePlaceholderWhenFieldDoesNotExist() {
@@ -229,4 +262,42 @@ class NotificationServiceTest {
         SlackMessage capturedMessage = slackMessageCaptor.getValue();
         assertEquals("Temperature: 8.5°C", capturedMessage.getText());
     }
+
+    @Test
+    @DisplayName("Should expose the alert status and mark resolve notifications")
+    void shouldRenderAlertStatus() {
+        // Given
+        String message = "{\"host\": \"db-1\", \"cpu\": 40}";
+        String webhookUrl = "https://hooks.slack.com/services/test";
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("provider", "SLACK");
+        params.put("webhookURL", webhookUrl);
+        params.put("message", "CPU on ${host} at ${cpu}%");
+
+        NotificationAction action = NotificationAction.builder()
+                .type("call")
+                .params(params)
+                .build();
+        NotificationAction statusAction = NotificationAction.builder()
+                .type("call")
+                .params(Map.of("provider", "SLACK", "webhookURL", webhookUrl, "message", "[${alertStatus}] ${host}"))
+                .build();
+
+        NotifierConfiguration config = NotifierConfiguration.builder()
+                .notifier("TestNotifier")
+                .alertFingerprint("host")
+                .build();
+        MessageContext context = new MessageContext(objectMapper, message);
+
+        // When
+        notificationService.executeNotificationAction(action, context, config, AlertStateService.RESOLVED);
+        notificationService.executeNotificationAction(statusAction, context, config, AlertStateService.FIRING);
+        notificationService.executeNotificationAction(action, context, config);
+
+        // Then
+        verify(slackWebhookClient, times(3)).sendMessage(eq(webhookUrl), slackMessageCaptor.capture());
+        assertEquals(List.of("Resolved: CPU on db-1 at 40%", "[firing] db-1", "CPU on db-1 at 40%"),
+                slackMessageCaptor.getAllValues().stream().map(SlackMessage::getText).toList());
+    }
 }
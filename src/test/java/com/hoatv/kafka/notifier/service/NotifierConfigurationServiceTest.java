@@ -0,0 +1,119 @@
+package com.hoatv.kafka.notifier.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hoatv.kafka.notifier.dto.NotifierConfigurationRequest;
+import com.hoatv.kafka.notifier.model.NotificationAction;
+import com.hoatv.kafka.notifier.model.NotifierConfiguration;
+import com.hoatv.kafka.notifier.repository.NotifierConfigurationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test cases for NotifierConfigurationService
+ * Tests cover refreshing the rule set snapshot of a topic when a configuration is updated
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Notifier Configuration Service Tests")
+class NotifierConfigurationServiceTest {
+
+    @Mock
+    private NotifierConfigurationRepository repository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private NotificationThrottlingService throttlingService;
+
+    @Mock
+    private ConsumerFactory<String, byte[]> consumerFactory;
+
+    private DynamicKafkaMessageProcessor processor;
+    private NotifierConfigurationService service;
+
+    @BeforeEach
+    void setUp() {
+        RuleEvaluationService ruleEvaluationService = new RuleEvaluationService(new ObjectMapper());
+        AlertStateService alertStateService = new AlertStateService();
+        ReflectionTestUtils.setField(alertStateService, "maximumFingerprints", 100);
+        ReflectionTestUtils.setField(alertStateService, "idleTimeoutMinutes", 10L);
+        RecordResultCache resultCache = new RecordResultCache(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(resultCache, "topics", Set.of());
+        processor = new DynamicKafkaMessageProcessor(repository, ruleEvaluationService, notificationService,
+                new ActionDispatcher(), throttlingService, alertStateService, new DuplicateSuppressionService(
+                new SimpleMeterRegistry(), System::currentTimeMillis), resultCache, consumerFactory);
+        service = new NotifierConfigurationService(new KafkaService(processor), repository, ruleEvaluationService,
+                alertStateService);
+        lenient().when(throttlingService.shouldSendNotification(any(NotifierConfiguration.class))).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("Should stop matching a configuration disabled through an update")
+    void shouldStopMatchingConfigurationDisabledByUpdate() {
+        // Given
+        NotifierConfiguration cpuHigh = configuration("cpu-high", "cpu > 90");
+        NotifierConfiguration cpuCritical = configuration("cpu-critical", "cpu > 95");
+        List<NotifierConfiguration> configurations = List.of(cpuHigh, cpuCritical);
+        when(repository.findByTopicAndEnabledTrue("cpu")).thenAnswer(invocation ->
+                configurations.stream().filter(NotifierConfiguration::isEnabled).toList());
+        when(repository.findById("cpu-high")).thenReturn(Optional.of(cpuHigh));
+        when(repository.save(any(NotifierConfiguration.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        processor.refreshTopicRuleSet("cpu");
+        processor.processBatch(List.of(record("{\"cpu\": 99}")));
+        List<String> beforeUpdate = notifiers();
+        clearInvocations(notificationService);
+
+        // When
+        service.update("cpu-high", NotifierConfigurationRequest.builder()
+                .notifier("cpu-high")
+                .topic("cpu")
+                .expression("cpu > 90")
+                .actions(cpuHigh.getActions())
+                .enabled(false)
+                .build());
+        processor.processBatch(List.of(record("{\"cpu\": 99}")));
+
+        // Then
+        assertEquals(List.of("cpu-high", "cpu-critical"), beforeUpdate);
+        assertEquals(List.of("cpu-critical"), notifiers());
+    }
+
+    private List<String> notifiers() {
+        ArgumentCaptor<NotifierConfiguration> config = ArgumentCaptor.forClass(NotifierConfiguration.class);
+        verify(notificationService, atLeast(0)).executeNotificationAction(any(), any(), config.capture(), any());
+        return config.getAllValues().stream().map(NotifierConfiguration::getNotifier).toList();
+    }
+
+    private static NotifierConfiguration configuration(String notifier, String expression) {
+        return NotifierConfiguration.builder()
+                .id(notifier)
+                .notifier(notifier)
+                .topic("cpu")
+                .expression(expression)
+                .enabled(true)
+                .actions(List.of(NotificationAction.builder().type("call").build()))
+                .build();
+    }
+
+    private static ConsumerRecord<String, byte[]> record(String value) {
+        return new ConsumerRecord<>("cpu", 0, 0L, null, value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,91 @@
+package com.hoatv.kafka.notifier.service;
+
+import com.hoatv.kafka.notifier.model.NotifierConfiguration;
+import com.hoatv.kafka.notifier.rule.TopicRuleSet;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for RecordResultCache
+ * Tests cover reusing the matches of repeated records and the cache bounds
+ */
+@DisplayName("Record Result Cache Tests")
+class RecordResultCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RecordResultCache resultCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        resultCache = new RecordResultCache(meterRegistry);
+        ReflectionTestUtils.setField(resultCache, "topics", Set.of("heartbeats"));
+        ReflectionTestUtils.setField(resultCache, "maximumSize", 2);
+        ReflectionTestUtils.setField(resultCache, "maximumPayloadBytes", 64);
+        resultCache.registerMeters();
+    }
+
+    @Test
+    @DisplayName("Should evaluate a repeated record once per rule set snapshot")
+    void shouldReuseMatchesOfRepeatedRecord() {
+        // Given
+        TopicRuleSet ruleSet = ruleSet();
+        NotifierConfiguration config = NotifierConfiguration.builder().notifier("heartbeat-lost").build();
+        AtomicInteger evaluations = new AtomicInteger();
+        Supplier<List<NotifierConfiguration>> evaluation = () -> {
+            evaluations.incrementAndGet();
+            return List.of(config);
+        };
+
+        // When
+        List<NotifierConfiguration> first = resultCache.getOrEvaluate(ruleSet, bytes("{\"status\": \"down\"}"), evaluation);
+        List<NotifierConfiguration> second = resultCache.getOrEvaluate(ruleSet, bytes("{\"status\": \"down\"}"), evaluation);
+        resultCache.getOrEvaluate(ruleSet(), bytes("{\"status\": \"down\"}"), evaluation);
+
+        // Then
+        assertEquals(List.of(config), first);
+        assertEquals(List.of(config), second);
+        assertEquals(2, evaluations.get());
+        assertEquals(1.0, meterRegistry.get("notifier.rules.result.cache").tag("result", "hit").counter().count());
+        assertEquals(2.0, meterRegistry.get("notifier.rules.result.cache").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should only cache enabled topics, small records and the most recent records")
+    void shouldBoundCache() {
+        // Given
+        TopicRuleSet ruleSet = ruleSet();
+        Supplier<List<NotifierConfiguration>> evaluation = List::of;
+
+        // When
+        resultCache.getOrEvaluate(ruleSet, bytes("{\"status\": \"" + "x".repeat(64) + "\"}"), evaluation);
+        resultCache.getOrEvaluate(ruleSet, bytes("1"), evaluation);
+        resultCache.getOrEvaluate(ruleSet, bytes("2"), evaluation);
+        resultCache.getOrEvaluate(ruleSet, bytes("3"), evaluation);
+
+        // Then
+        assertTrue(resultCache.isEnabled("heartbeats"));
+        assertFalse(resultCache.isEnabled("orders"));
+        assertEquals(2, resultCache.size());
+        assertEquals(2.0, meterRegistry.get("notifier.rules.result.cache.size").gauge().value());
+    }
+
+    private static TopicRuleSet ruleSet() {
+        return new TopicRuleSet("heartbeats", List.of(), List.of(), null, null);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
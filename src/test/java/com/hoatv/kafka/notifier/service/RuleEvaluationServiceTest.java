@@ -1,10 +1,16 @@
 package com.hoatv.kafka.notifier.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hoatv.kafka.notifier.model.NotifierConfiguration;
+import com.hoatv.kafka.notifier.rule.MessageContext;
+import com.hoatv.kafka.notifier.rule.TopicRuleSet;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 
@@ -17,7 +23,7 @@ import static org.junit.jupiter.api.Assertions.*;
 @DisplayName("Rule Evaluation Service Tests")
 class RuleEvaluationServiceTest {
 
-    private RuleEvaluationService ruleEvaluationService;
+    protected RuleEvaluationService ruleEvaluationService;
 
     @BeforeEach
     void setUp() {
@@ -479,4 +485,125 @@ class RuleEvaluationServiceTest {
         // Then
         assertTrue(result, "8.1 should be greater than 8");
     }
+
+    // ========== COMPILED RULE CACHE TESTS ==========
+
+    @Test
+    @DisplayName("Should reuse compiled rules for the same configuration version")
+    void shouldReuseCompiledRulesForSameVersion() {
+        // Given
+        NotifierConfiguration config = NotifierConfiguration.builder()
+            .notifier("cpu-alert")
+            .rules(Map.of("$gt", Map.of("$field", "cpu", "$value", 80)))
+            .version(1L)
+            .build();
+
+        // When & Then
+        assertSame(ruleEvaluationService.compile(config), ruleEvaluationService.compile(config));
+        assertTrue(ruleEvaluationService.evaluateRules(config, "{\"cpu\": 85}"));
+    }
+
+    @Test
+    @DisplayName("Should recompile rules when the configuration version changes")
+    void shouldRecompileRulesWhenVersionChanges() {
+        // Given
+        NotifierConfiguration config = NotifierConfiguration.builder()
+            .notifier("cpu-alert")
+            .rules(Map.of("$gt", Map.of("$field", "cpu", "$value", 80)))
+            .version(1L)
+            .build();
+        assertTrue(ruleEvaluationService.evaluateRules(config, "{\"cpu\": 85}"));
+
+        // When
+        config.setRules(Map.of("$gt", Map.of("$field", "cpu", "$value", 90)));
+        config.setVersion(2L);
+
+        // Then
+        assertFalse(ruleEvaluationService.evaluateRules(config, "{\"cpu\": 85}"), "Updated threshold should apply");
+    }
+
+    // ========== TOPIC RULE SET TESTS ==========
+
+    @Test
+    @DisplayName("Should find every matching configuration of a topic in configuration order")
+    void shouldFindMatchingConfigurationsOfTopic() {
+        // Given
+        NotifierConfiguration critical = configuration("cpu-critical", Map.of("$gt", Map.of("$field", "cpu", "$value", 90)));
+        NotifierConfiguration warning = configuration("cpu-warning", Map.of("$gt", Map.of("$field", "cpu", "$value", 70)));
+        NotifierConfiguration payment = configuration("payment-errors", Map.of("$and", List.of(
+            Map.of("$eq", Map.of("$field", "service", "$value", "payment")),
+            Map.of("$contains", Map.of("$field", "message", "$value", "error"))
+        )));
+        NotifierConfiguration billing = configuration("billing-errors", Map.of("$eq", Map.of("$field", "service", "$value", "billing")));
+        TopicRuleSet ruleSet = ruleEvaluationService.compileTopic("metrics",
+            List.of(critical, warning, payment, billing));
+
+        // When
+        List<NotifierConfiguration> matches = ruleEvaluationService.findMatches(ruleSet,
+            ruleEvaluationService.createContext("{\"cpu\": 75, \"service\": \"payment\", \"message\": \"Error: timeout\"}"));
+
+        // Then
+        assertEquals(List.of(warning, payment), matches);
+    }
+
+    @Test
+    @DisplayName("Should evaluate a batch of records per configuration")
+    void shouldEvaluateBatchOfRecords() {
+        // Given
+        NotifierConfiguration critical = configuration("cpu-critical", Map.of("$gt", Map.of("$field", "cpu", "$value", 90)));
+        NotifierConfiguration errors = configuration("errors", Map.of("$eq", Map.of("$field", "status", "$value", "error")));
+        TopicRuleSet ruleSet = ruleEvaluationService.compileTopic("metrics", List.of(critical, errors));
+        List<MessageContext> records = List.of(
+            ruleEvaluationService.createContext("{\"cpu\": 95, \"status\": \"ok\"}"),
+            ruleEvaluationService.createContext("{\"cpu\": 40, \"status\": \"error\"}"),
+            ruleEvaluationService.createContext("not json"),
+            ruleEvaluationService.createContext("{\"cpu\": 99, \"status\": \"error\"}")
+        );
+
+        // When
+        List<BitSet> matches = ruleEvaluationService.evaluateBatch(ruleSet, records);
+
+        // Then
+        assertEquals(2, matches.size());
+        assertEquals(List.of(0, 3), matches.get(0).stream().boxed().toList());
+        assertEquals(List.of(1, 3), matches.get(1).stream().boxed().toList());
+    }
+
+    @Test
+    @DisplayName("Should report matches in configuration order when evaluating in parallel")
+    void shouldFindMatchesInParallel() {
+        // Given
+        ReflectionTestUtils.setField(ruleEvaluationService, "parallelThreshold", 2);
+        ReflectionTestUtils.setField(ruleEvaluationService, "parallelTaskMicros", 0L);
+        List<NotifierConfiguration> configurations = new ArrayList<>();
+        for (int threshold = 0; threshold < 100; threshold++) {
+            configurations.add(configuration("cpu-" + threshold, Map.of("$or", List.of(
+                Map.of("$gt", Map.of("$field", "cpu", "$value", threshold)),
+                Map.of("$eq", Map.of("$field", "status", "$value", "error"))
+            ))));
+        }
+        TopicRuleSet ruleSet = ruleEvaluationService.compileTopic("metrics", configurations);
+
+        // When
+        List<NotifierConfiguration> serial = ruleEvaluationService.findMatches(ruleSet,
+            ruleEvaluationService.createContext("{\"cpu\": 42}"));
+        List<NotifierConfiguration> parallel = ruleEvaluationService.findMatches(ruleSet,
+            ruleEvaluationService.createContext("{\"cpu\": 42}"));
+        List<NotifierConfiguration> all = ruleEvaluationService.findMatches(ruleSet,
+            ruleEvaluationService.createContext("{\"cpu\": 42, \"status\": \"error\"}"));
+
+        // Then
+        assertEquals(configurations.subList(0, 42), serial);
+        assertEquals(serial, parallel);
+        assertEquals(configurations, all);
+    }
+
+    private static NotifierConfiguration configuration(String notifier, Map<String, Object> rules) {
+        return NotifierConfiguration.builder()
+            .notifier(notifier)
+            .topic("metrics")
+            .rules(rules)
+            .version(1L)
+            .build();
+    }
 }
@@ -0,0 +1,149 @@
+package com.hoatv.kafka.notifier.service;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test cases for ShardedRecordExecutor and OffsetTracker
+ * Tests cover per-key ordering across workers, committing only fully processed offsets and draining closing consumers
+ */
+@DisplayName("Sharded Record Executor Tests")
+class ShardedRecordExecutorTest {
+
+    private static final TopicPartition CPU = new TopicPartition("cpu", 0);
+
+    private ShardedRecordExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep the order of each key while keys run on different workers")
+    void shouldKeepOrderPerKey() throws Exception {
+        // Given
+        Map<String, List<String>> processed = new ConcurrentHashMap<>();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(400);
+        executor = new ShardedRecordExecutor(4, 16, 0L, 1000L, (topic, value) -> {
+            String[] keyAndSequence = new String(value, StandardCharsets.UTF_8).split(":");
+            processed.computeIfAbsent(keyAndSequence[0], key -> new CopyOnWriteArrayList<>()).add(keyAndSequence[1]);
+            threads.add(Thread.currentThread().getName());
+            done.countDown();
+        });
+
+        // When
+        long offset = 0;
+        for (int sequence = 0; sequence < 100; sequence++) {
+            for (String host : List.of("db-1", "db-2", "db-3", "db-4")) {
+                executor.submit(record(offset++, host, host + ":" + sequence));
+            }
+        }
+
+        // Then
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        List<String> expected = IntStream.range(0, 100).mapToObj(String::valueOf).toList();
+        processed.values().forEach(sequences -> assertEquals(expected, sequences));
+        assertEquals(4, processed.size());
+        assertTrue(threads.size() > 1);
+        assertEquals(0, executor.inFlight());
+    }
+
+    @Test
+    @DisplayName("Should commit only the offsets before the first record still in flight")
+    void shouldCommitProcessedPrefix() throws Exception {
+        // Given
+        CountDownLatch blocked = new CountDownLatch(1);
+        executor = new ShardedRecordExecutor(2, 16, 0L, 1000L, (topic, value) -> {
+            if ("slow".equals(new String(value, StandardCharsets.UTF_8))) {
+                awaitQuietly(blocked);
+            }
+        });
+        MockConsumer<String, byte[]> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        consumer.assign(List.of(CPU));
+
+        // When: keys "a" and "b" fall on different shards of two
+        executor.submit(record(0L, "b", "fast"));
+        executor.submit(record(1L, "a", "slow"));
+        executor.submit(record(2L, "b", "fast"));
+        assertTrue(executor.awaitInFlight(1, 10_000L));
+        executor.commit(consumer);
+        Map<TopicPartition, OffsetAndMetadata> whileBlocked = consumer.committed(Set.of(CPU));
+        blocked.countDown();
+        assertTrue(executor.awaitInFlight(0, 10_000L));
+        executor.commit(consumer);
+        Map<TopicPartition, OffsetAndMetadata> afterAll = consumer.committed(Set.of(CPU));
+
+        // Then
+        assertEquals(1L, whileBlocked.get(CPU).offset());
+        assertEquals(3L, afterAll.get(CPU).offset());
+    }
+
+    @Test
+    @DisplayName("Should drain the records of a closing consumer before its last commit and forget it")
+    void shouldDrainReleasedConsumer() throws Exception {
+        // Given
+        CountDownLatch processing = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        executor = new ShardedRecordExecutor(2, 16, 60_000L, 5000L, (topic, value) -> {
+            if ("slow".equals(new String(value, StandardCharsets.UTF_8))) {
+                processing.countDown();
+                awaitQuietly(blocked);
+            }
+        });
+        MockConsumer<String, byte[]> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        consumer.assign(List.of(CPU));
+        executor.submit(record(0L, "a", "slow"));
+        executor.commit(consumer);
+
+        // When
+        Thread unblocker = Thread.ofPlatform().start(() -> {
+            awaitQuietly(processing);
+            blocked.countDown();
+        });
+        executor.release(consumer);
+        Map<TopicPartition, OffsetAndMetadata> released = consumer.committed(Set.of(CPU));
+        unblocker.join();
+        executor.submit(record(1L, "a", "fast"));
+        assertTrue(executor.awaitInFlight(0, 10_000L));
+        executor.commit(consumer);
+        Map<TopicPartition, OffsetAndMetadata> afterRelease = consumer.committed(Set.of(CPU));
+
+        // Then
+        assertEquals(1L, released.get(CPU).offset());
+        assertEquals(2L, afterRelease.get(CPU).offset());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ConsumerRecord<String, byte[]> record(long offset, String key, String value) {
+        return new ConsumerRecord<>(CPU.topic(), CPU.partition(), offset, key, value.getBytes(StandardCharsets.UTF_8));
+    }
+}